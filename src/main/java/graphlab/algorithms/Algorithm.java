@@ -49,10 +49,26 @@ public enum Algorithm {
         @Override
         public String toString() { return "Kruskal"; }
     },
+    FILTER_KRUSKAL {
+        @Override
+        public String toString() { return "Filter-Kruskal"; }
+    },
+    EUCLIDEAN_MST {
+        @Override
+        public String toString() { return "Euclidean MST"; }
+    },
     CONNECTED_COMPONENTS_BFS {
         @Override
         public String toString() { return "Bread First Search"; }
     },
+    K_CORE {
+        @Override
+        public String toString() { return "k-core"; }
+    },
+    TRIANGLE_COUNTING {
+        @Override
+        public String toString() { return "Triangle counting"; }
+    },
     TWO_OPT_TSP {
         @Override
         public String toString() { return "2-opt"; }
@@ -60,6 +76,18 @@ public enum Algorithm {
     NEAREST_NEIGHBOR_TSP {
         @Override
         public String toString() { return "Nearest Neighbour"; }
+    },
+    HILBERT_TSP {
+        @Override
+        public String toString() { return "Hilbert Curve"; }
+    },
+    HELD_KARP_TSP {
+        @Override
+        public String toString() { return "Held-Karp"; }
+    },
+    SIMULATED_ANNEALING_TSP {
+        @Override
+        public String toString() { return "Simulated Annealing"; }
     }
 }
 
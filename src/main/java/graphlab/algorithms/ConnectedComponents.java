@@ -3,6 +3,7 @@ package graphlab.algorithms;
 import graphlab.datastructures.AdjacencyListGraph;
 import graphlab.datastructures.Edge;
 import graphlab.datastructures.Node;
+import graphlab.utils.CancellationToken;
 import graphlab.utils.ConsumerWithException;
 import graphlab.utils.GraphUtils;
 
@@ -17,14 +18,14 @@ public class ConnectedComponents {
 
     static Color[] colors = new Color[] { new Color(153, 76, 0), new Color(0 ,128, 255), Color.YELLOW, new Color(0, 102, 102), new Color(0, 153, 0), new Color(127, 0, 255), Color.MAGENTA, new Color(153, 0, 0), new Color (255, 0, 255), new Color(204, 204, 255)};
 
-    public static void connectedComponents(AdjacencyListGraph graph, ConsumerWithException<Node> visitNode, ConsumerWithException<Edge> visitEdge, Consumer<Node> processNode, Boolean isCanceled) throws Exception {
+    public static void connectedComponents(AdjacencyListGraph graph, ConsumerWithException<Node> visitNode, ConsumerWithException<Edge> visitEdge, Consumer<Node> processNode, CancellationToken cancellationToken) throws Exception {
         Deque<Node> queue = new ArrayDeque<>();
         Set<Node> visited = new HashSet<>();
         int counter = 0;
 
         Node startingNode = getNextStartingNode(graph, visited);
         while (startingNode != null) {
-            bfs(visitNode, visitEdge, processNode, queue, visited, startingNode, isCanceled, colors[counter % colors.length]);
+            bfs(visitNode, visitEdge, processNode, queue, visited, startingNode, cancellationToken, colors[counter % colors.length]);
             startingNode = getNextStartingNode(graph, visited);
             counter ++;
         }
@@ -44,7 +45,7 @@ public class ConnectedComponents {
     }
 
 
-    private static void bfs(ConsumerWithException<Node> onVisitedNode, ConsumerWithException<Edge> onVisitedEdge, Consumer<Node> onProcessedNode, Deque<Node> queue, Set<Node> visited, Node startingNode, boolean isCanceled, Color edgeColor) throws Exception {
+    private static void bfs(ConsumerWithException<Node> onVisitedNode, ConsumerWithException<Edge> onVisitedEdge, Consumer<Node> onProcessedNode, Deque<Node> queue, Set<Node> visited, Node startingNode, CancellationToken cancellationToken, Color edgeColor) throws Exception {
 
         queue.add(startingNode);
         visited.add(startingNode);
@@ -64,7 +65,7 @@ public class ConnectedComponents {
             }
 
             onProcessedNode.accept(current);
-            if (isCanceled) return;
+            if (cancellationToken.isCanceled()) return;
         }
     }
 }
@@ -0,0 +1,156 @@
+package graphlab.algorithms;
+
+import graphlab.datastructures.AdjacencyListGraph;
+import graphlab.datastructures.CsrGraph;
+import graphlab.datastructures.Edge;
+import graphlab.datastructures.Node;
+import graphlab.utils.CancellationToken;
+import graphlab.utils.ConsumerWithException;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * The k-core of a graph is the largest subgraph where every node has degree at least k; the core
+ * number of a node is the largest k such that the node belongs to the k-core, and the nodes with
+ * the same core number form a shell. Edges are considered undirected.
+ */
+public class CoreDecomposition {
+
+    /**
+     * shows the decomposition on the graph: the nodes are visited shell by shell, from the
+     * outermost to the innermost one, and every shell gets its own color.
+     */
+    public static void kCore(AdjacencyListGraph graph, ConsumerWithException<Node> visitNode, ConsumerWithException<Edge> visitEdge, Consumer<Node> processNode, CancellationToken cancellationToken) throws Exception {
+        CsrGraph csrGraph = CsrGraph.undirected(graph);
+        int[] coreNumbers = coreNumbers(csrGraph);
+        int[] offsets = csrGraph.getOffsets();
+        int[] targets = csrGraph.getTargets();
+
+        int[] peelingOrder = IntStream.range(0, coreNumbers.length)
+                                      .boxed()
+                                      .sorted((v, w) -> Integer.compare(coreNumbers[v], coreNumbers[w]))
+                                      .mapToInt(Integer::intValue)
+                                      .toArray();
+        for (int v : peelingOrder) {
+            Node node = csrGraph.getNode(v);
+            node.setColor(ConnectedComponents.colors[coreNumbers[v] % ConnectedComponents.colors.length]);
+            visitNode.accept(node);
+            for (int arc = offsets[v]; arc < offsets[v + 1]; arc++) {
+                if (coreNumbers[targets[arc]] == coreNumbers[v]) {
+                    visitEdge.accept(csrGraph.getEdge(arc));
+                }
+            }
+            processNode.accept(node);
+            if (cancellationToken.isCanceled()) return;
+        }
+    }
+
+    /**
+     * Batagelj and Zaversnik bucket algorithm, O(V+E): the nodes are kept sorted by current degree
+     * in an array divided in buckets (one per degree), and the node with the lowest degree is
+     * removed at every step; removing a node moves each of its neighbours one bucket down with a
+     * swap.
+     * @return the core number of every node
+     */
+    public static int[] coreNumbers(CsrGraph graph) {
+        int n = graph.getNodesNumber();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+
+        int[] degrees = new int[n];
+        int maxDegree = 0;
+        for (int v = 0; v < n; v++) {
+            degrees[v] = graph.getDegree(v);
+            maxDegree = Math.max(maxDegree, degrees[v]);
+        }
+
+        // bucketStarts[d] is the position of the first node with degree d in the sorted array
+        int[] bucketStarts = new int[maxDegree + 2];
+        for (int v = 0; v < n; v++) {
+            bucketStarts[degrees[v] + 1]++;
+        }
+        for (int d = 0; d <= maxDegree; d++) {
+            bucketStarts[d + 1] += bucketStarts[d];
+        }
+        int[] sorted = new int[n];
+        int[] positions = new int[n];
+        int[] next = Arrays.copyOf(bucketStarts, maxDegree + 1);
+        for (int v = 0; v < n; v++) {
+            positions[v] = next[degrees[v]]++;
+            sorted[positions[v]] = v;
+        }
+
+        for (int i = 0; i < n; i++) {
+            int v = sorted[i];
+            for (int arc = offsets[v]; arc < offsets[v + 1]; arc++) {
+                int w = targets[arc];
+                if (degrees[w] > degrees[v]) {
+                    // swaps w with the first node of its bucket, and then shrinks the bucket
+                    int degree = degrees[w];
+                    int first = sorted[bucketStarts[degree]];
+                    int position = positions[w];
+                    if (first != w) {
+                        sorted[position] = first;
+                        positions[first] = position;
+                        sorted[bucketStarts[degree]] = w;
+                        positions[w] = bucketStarts[degree];
+                    }
+                    bucketStarts[degree]++;
+                    degrees[w]--;
+                }
+            }
+        }
+        return degrees;
+    }
+
+    /**
+     * Parallel peeling: for k = 0, 1, ... all the nodes with degree at most k are removed at once,
+     * and their neighbours' degrees are decremented concurrently; a neighbour whose degree drops to
+     * k joins the next frontier of the same shell. The shells are peeled one after the other, but
+     * the frontier of each shell is processed across all the available threads.
+     * @return the core number of every node
+     */
+    public static int[] parallelCoreNumbers(CsrGraph graph) {
+        return parallelCoreNumbers(graph, CancellationToken.NONE);
+    }
+
+    /**
+     * @return the core number of every node, null if the token has been canceled before the end
+     */
+    public static int[] parallelCoreNumbers(CsrGraph graph, CancellationToken cancellationToken) {
+        int n = graph.getNodesNumber();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        AtomicIntegerArray degrees = new AtomicIntegerArray(n);
+        IntStream.range(0, n).parallel().forEach(v -> degrees.set(v, graph.getDegree(v)));
+        int[] coreNumbers = new int[n];
+        Arrays.fill(coreNumbers, -1);
+
+        int[] remaining = IntStream.range(0, n).toArray();
+        for (int k = 0; remaining.length > 0; k++) {
+            final int core = k;
+            int[] frontier = Arrays.stream(remaining).parallel().filter(v -> degrees.get(v) <= core).toArray();
+            while (frontier.length > 0) {
+                if (cancellationToken.isCanceled()) {
+                    return null;
+                }
+                Arrays.stream(frontier).parallel().forEach(v -> coreNumbers[v] = core);
+                frontier = Arrays.stream(frontier)
+                                 .parallel()
+                                 .flatMap(v -> IntStream.range(offsets[v], offsets[v + 1])
+                                                        .map(arc -> targets[arc])
+                                                        .filter(w -> coreNumbers[w] < 0 && degrees.getAndDecrement(w) == core + 1))
+                                 .toArray();
+            }
+            remaining = Arrays.stream(remaining).parallel().filter(v -> coreNumbers[v] < 0).toArray();
+        }
+        return coreNumbers;
+    }
+
+    public static int maxCore(int[] coreNumbers) {
+        return Arrays.stream(coreNumbers).max().orElse(0);
+    }
+}
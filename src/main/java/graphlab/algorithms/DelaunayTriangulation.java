@@ -0,0 +1,276 @@
+package graphlab.algorithms;
+
+import graphlab.utils.CancellationToken;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Delaunay triangulation of a set of points with the divide and conquer algorithm of Guibas and
+ * Stolfi, O(n log n). The triangulation is a planar graph (so it has at most 3n - 6 edges) and it
+ * contains the euclidean minimum spanning tree, the nearest neighbour of every point and a good
+ * part of the edges of the optimal TSP tour, so it's a sparse graph that keeps the interesting
+ * edges of the complete one.
+ *
+ * The edges are kept with the quad-edge structure: every edge has four records, the two
+ * directions of the edge and the two directions of its dual, and every record points to the next
+ * record counterclockwise around its origin.
+ */
+public class DelaunayTriangulation {
+
+    private final double[] xs;
+    private final double[] ys;
+    private final CancellationToken cancellationToken;
+    private final List<QuadEdge> edges = new ArrayList<>();
+
+    private DelaunayTriangulation(double[] xs, double[] ys, CancellationToken cancellationToken) {
+        this.xs = xs;
+        this.ys = ys;
+        this.cancellationToken = cancellationToken;
+    }
+
+    /**
+     * triangulates the points; points with the same coordinates are connected by an edge to the
+     * first of them
+     * @return the edges as two arrays, the first with the sources and the second with the targets
+     */
+    public static int[][] edges(double[] xs, double[] ys) {
+        return edges(xs, ys, CancellationToken.NONE);
+    }
+
+    /**
+     * triangulates the points, checking the token after the sort and before every merge of two
+     * halves
+     * @return the edges, null if the token has been canceled before the end
+     */
+    public static int[][] edges(double[] xs, double[] ys, CancellationToken cancellationToken) {
+        int n = xs.length;
+        int[] sorted = IntStream.range(0, n)
+                                .boxed()
+                                .sorted(Comparator.<Integer>comparingDouble(i -> xs[i]).thenComparingDouble(i -> ys[i]))
+                                .mapToInt(Integer::intValue)
+                                .toArray();
+        if (cancellationToken.isCanceled()) {
+            return null;
+        }
+
+        // removes the duplicated points, linking them to the first copy
+        int[] unique = new int[n];
+        int uniqueNumber = 0;
+        List<int[]> duplicates = new ArrayList<>();
+        for (int k = 0; k < n; k++) {
+            int point = sorted[k];
+            if (uniqueNumber > 0 && xs[unique[uniqueNumber - 1]] == xs[point] && ys[unique[uniqueNumber - 1]] == ys[point]) {
+                duplicates.add(new int[]{unique[uniqueNumber - 1], point});
+            }
+            else {
+                unique[uniqueNumber++] = point;
+            }
+        }
+
+        DelaunayTriangulation triangulation = new DelaunayTriangulation(xs, ys, cancellationToken);
+        if (uniqueNumber >= 2 && triangulation.triangulate(unique, 0, uniqueNumber) == null) {
+            return null;
+        }
+
+        int[] sources = new int[triangulation.edges.size() + duplicates.size()];
+        int[] targets = new int[sources.length];
+        int count = 0;
+        for (QuadEdge edge : triangulation.edges) {
+            if (!edge.deleted) {
+                sources[count] = edge.origin;
+                targets[count++] = edge.destination();
+            }
+        }
+        for (int[] duplicate : duplicates) {
+            sources[count] = duplicate[0];
+            targets[count++] = duplicate[1];
+        }
+        return new int[][]{Arrays.copyOf(sources, count), Arrays.copyOf(targets, count)};
+    }
+
+    /**
+     * triangulates the points in the range, that are sorted by x and then by y
+     * @return the counterclockwise convex hull edge out of the leftmost point, and the clockwise
+     * convex hull edge out of the rightmost one, null if the token has been canceled
+     */
+    private QuadEdge[] triangulate(int[] points, int from, int to) {
+        int size = to - from;
+        if (size <= 3) {
+            QuadEdge a = makeEdge(points[from], points[from + 1]);
+            if (size == 2) {
+                return new QuadEdge[]{a, a.sym()};
+            }
+            QuadEdge b = makeEdge(points[from + 1], points[from + 2]);
+            splice(a.sym(), b);
+            double side = cross(points[from], points[from + 1], points[from + 2]);
+            QuadEdge c = side != 0 ? connect(b, a) : null;
+            return new QuadEdge[]{side < 0 ? c.sym() : a, side < 0 ? c : b.sym()};
+        }
+
+        int half = size / 2;
+        QuadEdge[] left = triangulate(points, from, to - half);
+        QuadEdge[] right = left == null ? null : triangulate(points, to - half, to);
+        if (right == null || cancellationToken.isCanceled()) {
+            return null;
+        }
+        QuadEdge leftOuter = left[0];
+        QuadEdge leftInner = left[1];
+        QuadEdge rightInner = right[0];
+        QuadEdge rightOuter = right[1];
+
+        // finds the lower common tangent of the two halves
+        while (true) {
+            if (cross(rightInner.origin, leftInner.destination(), leftInner.origin) < 0) {
+                leftInner = leftInner.leftNext();
+            }
+            else if (cross(leftInner.origin, rightInner.destination(), rightInner.origin) > 0) {
+                rightInner = rightInner.sym().next;
+            }
+            else {
+                break;
+            }
+        }
+
+        QuadEdge base = connect(rightInner.sym(), leftInner);
+        if (leftInner.origin == leftOuter.origin) {
+            leftOuter = base.sym();
+        }
+        if (rightInner.origin == rightOuter.origin) {
+            rightOuter = base;
+        }
+
+        // merges the halves from the bottom up, like zipping them
+        while (true) {
+            QuadEdge leftCandidate = base.sym().next;
+            if (isValid(leftCandidate, base)) {
+                while (inCircle(leftCandidate.next.destination(), base.destination(), base.origin, leftCandidate.destination())) {
+                    QuadEdge next = leftCandidate.next;
+                    delete(leftCandidate);
+                    leftCandidate = next;
+                }
+            }
+            QuadEdge rightCandidate = base.originPrev();
+            if (isValid(rightCandidate, base)) {
+                while (inCircle(rightCandidate.originPrev().destination(), base.destination(), base.origin, rightCandidate.destination())) {
+                    QuadEdge previous = rightCandidate.originPrev();
+                    delete(rightCandidate);
+                    rightCandidate = previous;
+                }
+            }
+
+            boolean leftIsValid = isValid(leftCandidate, base);
+            boolean rightIsValid = isValid(rightCandidate, base);
+            if (!leftIsValid && !rightIsValid) {
+                break;
+            }
+            if (!leftIsValid || (rightIsValid && inCircle(rightCandidate.destination(), rightCandidate.origin, leftCandidate.destination(), leftCandidate.origin))) {
+                base = connect(rightCandidate, base.sym());
+            }
+            else {
+                base = connect(base.sym(), leftCandidate.sym());
+            }
+        }
+        return new QuadEdge[]{leftOuter, rightOuter};
+    }
+
+    private boolean isValid(QuadEdge edge, QuadEdge base) {
+        return cross(edge.destination(), base.destination(), base.origin) > 0;
+    }
+
+    /**
+     * @return the cross product of (a - p) and (b - p): positive if p, a, b turn counterclockwise
+     */
+    private double cross(int p, int a, int b) {
+        return (xs[a] - xs[p]) * (ys[b] - ys[p]) - (ys[a] - ys[p]) * (xs[b] - xs[p]);
+    }
+
+    /**
+     * @return true if p is inside the circle through a, b, c
+     */
+    private boolean inCircle(int p, int a, int b, int c) {
+        double ax = xs[a] - xs[p], ay = ys[a] - ys[p];
+        double bx = xs[b] - xs[p], by = ys[b] - ys[p];
+        double cx = xs[c] - xs[p], cy = ys[c] - ys[p];
+        return (ax * by - ay * bx) * (cx * cx + cy * cy)
+             + (bx * cy - by * cx) * (ax * ax + ay * ay)
+             + (cx * ay - cy * ax) * (bx * bx + by * by) > 0;
+    }
+
+    private QuadEdge makeEdge(int origin, int destination) {
+        QuadEdge edge = new QuadEdge();
+        QuadEdge rot = new QuadEdge();
+        QuadEdge sym = new QuadEdge();
+        QuadEdge rotSym = new QuadEdge();
+        edge.rot = rot;
+        rot.rot = sym;
+        sym.rot = rotSym;
+        rotSym.rot = edge;
+        edge.next = edge;
+        sym.next = sym;
+        rot.next = rotSym;
+        rotSym.next = rot;
+        edge.origin = origin;
+        sym.origin = destination;
+        edges.add(edge);
+        return edge;
+    }
+
+    private static void splice(QuadEdge a, QuadEdge b) {
+        QuadEdge alpha = a.next.rot;
+        QuadEdge beta = b.next.rot;
+        QuadEdge swap = alpha.next;
+        alpha.next = beta.next;
+        beta.next = swap;
+        swap = a.next;
+        a.next = b.next;
+        b.next = swap;
+    }
+
+    /**
+     * adds an edge from the destination of a to the origin of b
+     */
+    private QuadEdge connect(QuadEdge a, QuadEdge b) {
+        QuadEdge edge = makeEdge(a.destination(), b.origin);
+        splice(edge, a.leftNext());
+        splice(edge.sym(), b);
+        return edge;
+    }
+
+    private static void delete(QuadEdge edge) {
+        splice(edge, edge.originPrev());
+        splice(edge.sym(), edge.sym().originPrev());
+        edge.deleted = true;
+        edge.sym().deleted = true;
+    }
+
+    /**
+     * A directed edge record; the dual records have no origin.
+     */
+    private static class QuadEdge {
+
+        QuadEdge rot;
+        QuadEdge next;
+        int origin = -1;
+        boolean deleted;
+
+        QuadEdge sym() {
+            return rot.rot;
+        }
+
+        int destination() {
+            return sym().origin;
+        }
+
+        QuadEdge originPrev() {
+            return rot.next.rot;
+        }
+
+        QuadEdge leftNext() {
+            return sym().originPrev();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package graphlab.algorithms;
+
+import graphlab.datastructures.CsrGraph;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * Linear time algorithms for directed acyclic graphs: all of them are based on the topological
+ * order, so that every node is processed only after all of its predecessors.
+ */
+public class DirectedAcyclicGraph {
+
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    public static boolean isAcyclic(CsrGraph graph) {
+        return topologicalOrder(graph) != null;
+    }
+
+    /**
+     * Kahn's algorithm: repeatedly removes the nodes with no incoming arcs.
+     * @return the nodes in topological order, or null if the graph has a cycle
+     */
+    public static int[] topologicalOrder(CsrGraph graph) {
+        int n = graph.getNodesNumber();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] inDegrees = inDegrees(graph);
+
+        // the order array is also used as the queue of the nodes with no incoming arcs
+        int[] order = new int[n];
+        int tail = 0;
+        for (int v = 0; v < n; v++) {
+            if (inDegrees[v] == 0) {
+                order[tail++] = v;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int v = order[head];
+            for (int arc = offsets[v]; arc < offsets[v + 1]; arc++) {
+                if (--inDegrees[targets[arc]] == 0) {
+                    order[tail++] = targets[arc];
+                }
+            }
+        }
+        return tail == n ? order : null;
+    }
+
+    /**
+     * splits the nodes in wavefronts: the first level contains the nodes with no incoming arcs,
+     * and every other level the nodes whose predecessors are all in the previous levels. The nodes
+     * of a level don't depend on each other, so both the extraction and any later processing of a
+     * level can run in parallel.
+     * @return the levels, or null if the graph has a cycle
+     */
+    public static int[][] levels(CsrGraph graph) {
+        int n = graph.getNodesNumber();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        AtomicIntegerArray inDegrees = new AtomicIntegerArray(inDegrees(graph));
+
+        int[][] levels = new int[n][];
+        int levelsNumber = 0;
+        int processed = 0;
+        int[] frontier = IntStream.range(0, n).filter(v -> inDegrees.get(v) == 0).toArray();
+        while (frontier.length > 0) {
+            levels[levelsNumber++] = frontier;
+            processed += frontier.length;
+            frontier = Arrays.stream(frontier)
+                             .parallel()
+                             .flatMap(v -> IntStream.range(offsets[v], offsets[v + 1])
+                                                    .map(arc -> targets[arc])
+                                                    .filter(w -> inDegrees.decrementAndGet(w) == 0))
+                             .toArray();
+        }
+        return processed == n ? Arrays.copyOf(levels, levelsNumber) : null;
+    }
+
+    /**
+     * relaxes the arcs once, in topological order
+     * @param parents if not null, it's filled with the parent of every node on its shortest path (-1 for none)
+     * @return the cost of the shortest path from source to every node (UNREACHABLE if there's no path)
+     */
+    public static int[] shortestPaths(CsrGraph graph, int[] topologicalOrder, int source, int[] parents) {
+        return relax(graph, topologicalOrder, source, parents, false);
+    }
+
+    /**
+     * the longest paths are computed like the shortest ones, since without cycles there's no need
+     * of negating the costs
+     * @param parents if not null, it's filled with the parent of every node on its longest path (-1 for none)
+     * @return the cost of the longest path from source to every node (UNREACHABLE if there's no path)
+     */
+    public static int[] longestPaths(CsrGraph graph, int[] topologicalOrder, int source, int[] parents) {
+        return relax(graph, topologicalOrder, source, parents, true);
+    }
+
+    private static int[] relax(CsrGraph graph, int[] topologicalOrder, int source, int[] parents, boolean longest) {
+        int n = graph.getNodesNumber();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] costs = graph.getCosts();
+        int[] distances = new int[n];
+        Arrays.fill(distances, UNREACHABLE);
+        if (parents != null) {
+            Arrays.fill(parents, -1);
+        }
+        distances[source] = 0;
+
+        for (int v : topologicalOrder) {
+            if (distances[v] == UNREACHABLE) {
+                continue;
+            }
+            for (int arc = offsets[v]; arc < offsets[v + 1]; arc++) {
+                int w = targets[arc];
+                int cost = distances[v] + costs[arc];
+                if (distances[w] == UNREACHABLE || (longest ? cost > distances[w] : cost < distances[w])) {
+                    distances[w] = cost;
+                    if (parents != null) {
+                        parents[w] = v;
+                    }
+                }
+            }
+        }
+        return distances;
+    }
+
+    private static int[] inDegrees(CsrGraph graph) {
+        int[] inDegrees = new int[graph.getNodesNumber()];
+        for (int target : graph.getTargets()) {
+            inDegrees[target]++;
+        }
+        return inDegrees;
+    }
+}
@@ -0,0 +1,275 @@
+package graphlab.algorithms;
+
+import graphlab.datastructures.Edge;
+import graphlab.datastructures.Graph;
+import graphlab.datastructures.Node;
+import graphlab.datastructures.UnionFind;
+import graphlab.utils.GraphUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Keeps the minimum spanning tree (or forest) of a graph while the costs of its edges change, as
+ * when a node is dragged on the canvas, without recomputing it from scratch. Edges are considered
+ * undirected. Every change is applied on its own, and only two of them can make the tree wrong:
+ * <ul>
+ * <li>a tree edge gets more expensive: it's removed, and the cheapest edge crossing the cut
+ * between the two halves of the tree (possibly the same edge) reconnects them; the smaller half
+ * is found visiting both halves at the same pace and stopping with the first that ends</li>
+ * <li>a non tree edge gets cheaper: it closes a cycle with the tree path between its endpoints,
+ * and if it's cheaper than the most expensive edge of the cycle it takes its place</li>
+ * </ul>
+ * Both cost time proportional to the part of the tree they visit, instead of O(E log E).
+ */
+public class DynamicMinimumSpanningTree {
+
+    private final List<Node> nodes;
+    private final Map<Node, Integer> indexes = new IdentityHashMap<>();
+
+    // the undirected edges: endpoints, current cost, the edge shown for them and if it's in the tree
+    private final int[] sources;
+    private final int[] targets;
+    private final int[] costs;
+    private final Edge[] edges;
+    private final boolean[] inTree;
+
+    // the ids of the edges of every node, and of the tree edges of every node
+    private final List<List<Integer>> incidentEdges = new ArrayList<>();
+    private final List<List<Integer>> treeEdges = new ArrayList<>();
+
+    // the visit marks: side[v] is valid only when stamps[v] is the current stamp
+    private final int[] stamps;
+    private final boolean[] sides;
+    private final int[] parentEdges;
+    private int stamp;
+
+    public DynamicMinimumSpanningTree(Graph graph) {
+        nodes = new ArrayList<>(graph.getNodes());
+        int n = nodes.size();
+        for (int i = 0; i < n; i++) {
+            indexes.put(nodes.get(i), i);
+            incidentEdges.add(new ArrayList<>());
+            treeEdges.add(new ArrayList<>());
+        }
+
+        // keeps one edge for every pair of nodes, the cheapest one
+        Map<Long, Integer> pairs = new HashMap<>();
+        List<Edge> uniqueEdges = new ArrayList<>();
+        for (Node node : nodes) {
+            for (Edge edge : node.getEdges()) {
+                int source = indexes.get(edge.getSource());
+                int target = indexes.get(edge.getDestination());
+                if (source == target) {
+                    continue;
+                }
+                long pair = ((long) Math.min(source, target) << 32) | Math.max(source, target);
+                Integer id = pairs.get(pair);
+                if (id == null) {
+                    pairs.put(pair, uniqueEdges.size());
+                    uniqueEdges.add(edge);
+                }
+                else if (edge.getCost() < uniqueEdges.get(id).getCost()) {
+                    uniqueEdges.set(id, edge);
+                }
+            }
+        }
+
+        int m = uniqueEdges.size();
+        sources = new int[m];
+        targets = new int[m];
+        costs = new int[m];
+        edges = uniqueEdges.toArray(new Edge[m]);
+        inTree = new boolean[m];
+        long[] packedEdges = new long[m];
+        for (int id = 0; id < m; id++) {
+            sources[id] = indexes.get(edges[id].getSource());
+            targets[id] = indexes.get(edges[id].getDestination());
+            costs[id] = GraphUtils.getDistance(edges[id].getSource(), edges[id].getDestination());
+            incidentEdges.get(sources[id]).add(id);
+            incidentEdges.get(targets[id]).add(id);
+            packedEdges[id] = ((long) costs[id] << 32) | id;
+        }
+
+        Arrays.sort(packedEdges);
+        UnionFind sets = new UnionFind(n);
+        for (long packedEdge : packedEdges) {
+            int id = (int) packedEdge;
+            if (sets.union(sources[id], targets[id])) {
+                addToTree(id);
+            }
+        }
+
+        stamps = new int[n];
+        sides = new boolean[n];
+        parentEdges = new int[n];
+    }
+
+    /**
+     * recomputes the cost of the edges of the node, that has been moved, and fixes the tree
+     * @param onSwappedEdges gets every edge that leaves the tree with the edge that takes its
+     *                       place; the first is null when the new edge joins two trees of the forest
+     */
+    public void nodeMoved(Node node, BiConsumer<Edge, Edge> onSwappedEdges) {
+        for (int id : incidentEdges.get(indexes.get(node))) {
+            edges[id].recomputeCost();
+            updateCost(id, GraphUtils.getDistance(nodes.get(sources[id]), nodes.get(targets[id])), onSwappedEdges);
+        }
+    }
+
+    private void updateCost(int id, int cost, BiConsumer<Edge, Edge> onSwappedEdges) {
+        int oldCost = costs[id];
+        costs[id] = cost;
+        if (inTree[id] && cost > oldCost) {
+            replaceTreeEdge(id, onSwappedEdges);
+        }
+        else if (!inTree[id] && cost < oldCost) {
+            insertNonTreeEdge(id, onSwappedEdges);
+        }
+    }
+
+    /**
+     * removes the edge from the tree and reconnects the two halves with the cheapest edge of the cut
+     */
+    private void replaceTreeEdge(int id, BiConsumer<Edge, Edge> onSwappedEdges) {
+        removeFromTree(id);
+        stamp++;
+        List<Integer> half = smallerHalf(sources[id], targets[id]);
+        boolean side = sides[half.get(0)];
+
+        int best = id;
+        for (int v : half) {
+            for (int candidate : incidentEdges.get(v)) {
+                int w = sources[candidate] == v ? targets[candidate] : sources[candidate];
+                boolean crosses = stamps[w] != stamp || sides[w] != side;
+                if (crosses && costs[candidate] < costs[best]) {
+                    best = candidate;
+                }
+            }
+        }
+        addToTree(best);
+        if (best != id) {
+            onSwappedEdges.accept(edges[id], edges[best]);
+        }
+    }
+
+    /**
+     * visits the tree from both the nodes at the same pace, one node per side at a time
+     * @return the nodes of the side that ends first
+     */
+    private List<Integer> smallerHalf(int u, int v) {
+        List<Integer> sideU = new ArrayList<>();
+        List<Integer> sideV = new ArrayList<>();
+        mark(u, false, sideU);
+        mark(v, true, sideV);
+        int nextU = 0;
+        int nextV = 0;
+        while (true) {
+            if (nextU == sideU.size()) {
+                return sideU;
+            }
+            expand(sideU.get(nextU++), false, sideU);
+            if (nextV == sideV.size()) {
+                return sideV;
+            }
+            expand(sideV.get(nextV++), true, sideV);
+        }
+    }
+
+    private void expand(int v, boolean side, List<Integer> visited) {
+        for (int id : treeEdges.get(v)) {
+            int w = sources[id] == v ? targets[id] : sources[id];
+            if (stamps[w] != stamp) {
+                mark(w, side, visited);
+            }
+        }
+    }
+
+    private void mark(int v, boolean side, List<Integer> visited) {
+        stamps[v] = stamp;
+        sides[v] = side;
+        visited.add(v);
+    }
+
+    /**
+     * puts the edge in the tree in place of the most expensive edge on the tree path between its
+     * endpoints, if that's more expensive than the edge
+     */
+    private void insertNonTreeEdge(int id, BiConsumer<Edge, Edge> onSwappedEdges) {
+        int source = sources[id];
+        int target = targets[id];
+
+        // visits the tree from the source until the target is found
+        stamp++;
+        List<Integer> queue = new ArrayList<>();
+        mark(source, false, queue);
+        parentEdges[source] = -1;
+        for (int next = 0; next < queue.size() && stamps[target] != stamp; next++) {
+            int v = queue.get(next);
+            for (int treeEdge : treeEdges.get(v)) {
+                int w = sources[treeEdge] == v ? targets[treeEdge] : sources[treeEdge];
+                if (stamps[w] != stamp) {
+                    parentEdges[w] = treeEdge;
+                    mark(w, false, queue);
+                }
+            }
+        }
+        if (stamps[target] != stamp) {
+            // the endpoints were in different trees of the forest
+            addToTree(id);
+            onSwappedEdges.accept(null, edges[id]);
+            return;
+        }
+
+        int max = -1;
+        for (int v = target; v != source; ) {
+            int treeEdge = parentEdges[v];
+            if (max < 0 || costs[treeEdge] > costs[max]) {
+                max = treeEdge;
+            }
+            v = sources[treeEdge] == v ? targets[treeEdge] : sources[treeEdge];
+        }
+        if (costs[max] > costs[id]) {
+            removeFromTree(max);
+            addToTree(id);
+            onSwappedEdges.accept(edges[max], edges[id]);
+        }
+    }
+
+    private void addToTree(int id) {
+        inTree[id] = true;
+        treeEdges.get(sources[id]).add(id);
+        treeEdges.get(targets[id]).add(id);
+    }
+
+    private void removeFromTree(int id) {
+        inTree[id] = false;
+        treeEdges.get(sources[id]).remove((Integer) id);
+        treeEdges.get(targets[id]).remove((Integer) id);
+    }
+
+    public List<Edge> getTreeEdges() {
+        List<Edge> tree = new ArrayList<>();
+        for (int id = 0; id < edges.length; id++) {
+            if (inTree[id]) {
+                tree.add(edges[id]);
+            }
+        }
+        return tree;
+    }
+
+    public long getTotalCost() {
+        long total = 0;
+        for (int id = 0; id < edges.length; id++) {
+            if (inTree[id]) {
+                total += costs[id];
+            }
+        }
+        return total;
+    }
+}
@@ -1,15 +1,24 @@
 package graphlab.algorithms;
 
 import graphlab.datastructures.*;
+import graphlab.utils.CancellationToken;
 import graphlab.utils.ConsumerWithException;
 import graphlab.utils.GraphUtils;
 
 import java.util.*;
 import java.util.function.Consumer;
+import java.util.function.IntBinaryOperator;
+import java.util.stream.IntStream;
 
 public class MinimumSpanningTree {
 
-    public static void boruvka(Graph graph, Consumer<Node> onVisitedNode, ConsumerWithException<Edge> onVisitedEdge, ConsumerWithException<Edge> onFoundEdge, Boolean isCanceled) throws Exception {
+    // below this number of edges Filter-Kruskal just sorts them
+    private static final int FILTER_KRUSKAL_THRESHOLD = 1024;
+
+    // the fraction of all the possible arcs above which Prim uses the dense O(V^2) version
+    private static final double DENSE_PRIM_THRESHOLD = 0.5;
+
+    public static void boruvka(Graph graph, Consumer<Node> onVisitedNode, ConsumerWithException<Edge> onVisitedEdge, ConsumerWithException<Edge> onFoundEdge, CancellationToken cancellationToken) throws Exception {
 
         DisjointSets sets = new DisjointSets(graph.getNodes());
 
@@ -17,7 +26,10 @@ public class MinimumSpanningTree {
         List<Edge> sortedEdges = new ArrayList<>(graph.getEdges());
         java.util.Collections.sort(sortedEdges, (e1, e2) -> Integer.compare(e1.getCost(), e2.getCost()));
 
-        while (sets.size() > 1) {
+        // on a disconnected graph the sets stop merging when they are the trees of the forest
+        boolean merged = true;
+        while (sets.size() > 1 && merged) {
+            merged = false;
             Iterator<DisjointSets.DisjointSet> setsIterator = sets.get().iterator();
             while (setsIterator.hasNext()) {
 
@@ -41,16 +53,17 @@ public class MinimumSpanningTree {
                     onFoundEdge.accept(closestEdge);
                     sets.merge(closestEdge.getSource(), closestEdge.getDestination(), false);
                     setsIterator.remove();
+                    merged = true;
                 }
 
-                if (isCanceled) {
+                if (cancellationToken.isCanceled()) {
                     return;
                 }
             }
         }
     }
 
-    public static void prim(Graph graph, Consumer<Node> onVisitedNode, Consumer<Node> onProcessedNode, ConsumerWithException<Edge> onVisitedEdge, ConsumerWithException<Edge> onFoundEdge, Boolean isCanceled) throws Exception {
+    public static void prim(Graph graph, Consumer<Node> onVisitedNode, Consumer<Node> onProcessedNode, ConsumerWithException<Edge> onVisitedEdge, ConsumerWithException<Edge> onFoundEdge, CancellationToken cancellationToken) throws Exception {
 
         Set<Node> unvisitedNodes = new HashSet<>();
         graph.getNodes().stream().filter(node -> !node.isStartNode()).forEach(unvisitedNodes::add);
@@ -87,14 +100,18 @@ public class MinimumSpanningTree {
                 availableEdges.removeIf(edge -> edge.getDestination().equals(closestEdge.getDestination()));
                 currentNode = closestEdge.getDestination();
             }
+            else if (!unvisitedNodes.isEmpty()) {
+                // the component is done: the graph is not connected, and the tree of the next one starts
+                currentNode = unvisitedNodes.iterator().next();
+            }
 
-            if (isCanceled) {
+            if (cancellationToken.isCanceled()) {
                 return;
             }
         }
     }
 
-    public static void kruskal(Graph graph, Consumer<Node> onVisitedNode, ConsumerWithException<Edge> onVisitedEdge, ConsumerWithException<Edge> onFoundEdge, Boolean isCanceled) throws Exception {
+    public static void kruskal(Graph graph, Consumer<Node> onVisitedNode, ConsumerWithException<Edge> onVisitedEdge, ConsumerWithException<Edge> onFoundEdge, CancellationToken cancellationToken) throws Exception {
 
         DisjointSets sets = new DisjointSets(graph.getNodes());
 
@@ -104,6 +121,9 @@ public class MinimumSpanningTree {
 
         // greedly takes the minimum cost edge
         for (Edge edge : sortedEdges){
+            if (cancellationToken.isCanceled()) {
+                return;
+            }
             onVisitedEdge.accept(edge);
             if (sets.nodesAreInDifferentSets(edge.getSource(), edge.getDestination())) {
                 onFoundEdge.accept(edge);
@@ -112,4 +132,464 @@ public class MinimumSpanningTree {
             }
         }
     }
+
+    /**
+     * Kruskal over primitive arrays: every edge is packed in a long as (cost << 32 | arc), so
+     * that sorting the longs sorts the edges by cost without any comparator, and the sort runs
+     * in parallel; the disjoint sets are an int[] forest, and the scan stops as soon as V-1 edges
+     * have been accepted. For undirected graphs only one of the two arcs of every edge is used.
+     * @return the arcs of the minimum spanning tree (or forest, if the graph is not connected)
+     */
+    public static int[] packedKruskal(CsrGraph graph) {
+        return packedKruskal(graph, CancellationToken.NONE);
+    }
+
+    /**
+     * @return the arcs of the minimum spanning tree, or of the forest found so far if the token
+     * is canceled
+     */
+    public static int[] packedKruskal(CsrGraph graph, CancellationToken cancellationToken) {
+        int n = graph.getNodesNumber();
+        int[] sources = graph.getSources();
+        int[] targets = graph.getTargets();
+        int[] costs = graph.getCosts();
+
+        long[] packedEdges = new long[targets.length];
+        int edgesNumber = 0;
+        for (int arc = 0; arc < targets.length; arc++) {
+            if (graph.isDirected() || sources[arc] < targets[arc]) {
+                packedEdges[edgesNumber++] = ((long) costs[arc] << 32) | arc;
+            }
+        }
+        if (cancellationToken.isCanceled()) {
+            return new int[0];
+        }
+        Arrays.parallelSort(packedEdges, 0, edgesNumber);
+
+        UnionFind sets = new UnionFind(n);
+        int[] tree = new int[Math.max(0, n - 1)];
+        int treeSize = 0;
+        for (int k = 0; k < edgesNumber && treeSize < n - 1 && !cancellationToken.isCanceled(); k++) {
+            int arc = (int) packedEdges[k];
+            if (sets.union(sources[arc], targets[arc])) {
+                tree[treeSize++] = arc;
+            }
+        }
+        return Arrays.copyOf(tree, treeSize);
+    }
+
+    /**
+     * The minimum spanning tree of the complete graph over the nodes, with the euclidean distance
+     * as cost, computed without materializing its edges: the tree is always a subgraph of the
+     * Delaunay triangulation, so Kruskal only runs on the O(V) edges of the triangulation. The
+     * edges of the graph are ignored.
+     */
+    public static void euclidean(Graph graph, Consumer<Node> onVisitedNode, ConsumerWithException<Edge> onVisitedEdge, ConsumerWithException<Edge> onFoundEdge, CancellationToken cancellationToken) throws Exception {
+        List<Node> nodes = graph.getNodes();
+        double[] xs = nodes.stream().mapToDouble(Node::getX).toArray();
+        double[] ys = nodes.stream().mapToDouble(Node::getY).toArray();
+        int[][] triangulation = DelaunayTriangulation.edges(xs, ys, cancellationToken);
+        if (triangulation == null) {
+            return;
+        }
+        long[] packedEdges = packEuclideanEdges(xs, ys, triangulation);
+
+        UnionFind sets = new UnionFind(nodes.size());
+        for (long packedEdge : packedEdges) {
+            if (sets.getSetsNumber() == 1 || cancellationToken.isCanceled()) {
+                return;
+            }
+            int k = (int) packedEdge;
+            Edge edge = new Edge(nodes.get(triangulation[0][k]), nodes.get(triangulation[1][k]));
+            onVisitedEdge.accept(edge);
+            if (sets.union(triangulation[0][k], triangulation[1][k])) {
+                onFoundEdge.accept(edge);
+                edge.getDestination().setPathParent(edge.getSource());
+            }
+        }
+    }
+
+    /**
+     * euclidean minimum spanning tree of a set of points, O(n log n)
+     * @return the edges of the tree as two arrays, the first with the sources and the second with the targets
+     */
+    public static int[][] euclidean(double[] xs, double[] ys) {
+        return euclidean(xs, ys, CancellationToken.NONE);
+    }
+
+    /**
+     * @return the edges of the tree, or of the forest found so far if the token is canceled
+     */
+    public static int[][] euclidean(double[] xs, double[] ys, CancellationToken cancellationToken) {
+        int[][] triangulation = DelaunayTriangulation.edges(xs, ys, cancellationToken);
+        if (triangulation == null) {
+            return new int[][]{new int[0], new int[0]};
+        }
+        long[] packedEdges = packEuclideanEdges(xs, ys, triangulation);
+
+        int n = xs.length;
+        UnionFind sets = new UnionFind(n);
+        int[] sources = new int[Math.max(0, n - 1)];
+        int[] targets = new int[sources.length];
+        int treeSize = 0;
+        for (int k = 0; k < packedEdges.length && treeSize < n - 1 && !cancellationToken.isCanceled(); k++) {
+            int edge = (int) packedEdges[k];
+            if (sets.union(triangulation[0][edge], triangulation[1][edge])) {
+                sources[treeSize] = triangulation[0][edge];
+                targets[treeSize++] = triangulation[1][edge];
+            }
+        }
+        return new int[][]{Arrays.copyOf(sources, treeSize), Arrays.copyOf(targets, treeSize)};
+    }
+
+    /**
+     * packs every edge as (squared length << 32 | index) and sorts them; the squared length is
+     * stored as the bits of a float, that keep the order of non negative values and are exact for
+     * integer coordinates closer than 4096
+     */
+    private static long[] packEuclideanEdges(double[] xs, double[] ys, int[][] edges) {
+        long[] packedEdges = new long[edges[0].length];
+        for (int k = 0; k < packedEdges.length; k++) {
+            double dx = xs[edges[0][k]] - xs[edges[1][k]];
+            double dy = ys[edges[0][k]] - ys[edges[1][k]];
+            packedEdges[k] = ((long) Float.floatToIntBits((float) (dx * dx + dy * dy)) << 32) | k;
+        }
+        Arrays.parallelSort(packedEdges);
+        return packedEdges;
+    }
+
+    public static void filterKruskal(Graph graph, Consumer<Node> onVisitedNode, ConsumerWithException<Edge> onVisitedEdge, ConsumerWithException<Edge> onFoundEdge, CancellationToken cancellationToken) throws Exception {
+        CsrGraph csrGraph = CsrGraph.undirected(graph);
+        filterKruskal(csrGraph,
+                arc -> onVisitedEdge.accept(csrGraph.getEdge(arc)),
+                arc -> {
+                    Edge edge = csrGraph.getEdge(arc);
+                    onFoundEdge.accept(edge);
+                    edge.getDestination().setPathParent(edge.getSource());
+                },
+                cancellationToken);
+    }
+
+    /**
+     * Filter-Kruskal (Osipov, Sanders, Singler): the edges are partitioned around a pivot cost,
+     * the light ones are solved first and then the heavy ones whose endpoints are already
+     * connected are filtered out before recursing on them; in this way most of the edges that
+     * Kruskal would reject are never sorted. Partitioning and filtering run in parallel.
+     * @return the arcs of the minimum spanning tree (or forest, if the graph is not connected)
+     */
+    public static int[] filterKruskal(CsrGraph graph) throws Exception {
+        List<Integer> tree = new ArrayList<>();
+        filterKruskal(graph, null, tree::add, CancellationToken.NONE);
+        return tree.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static void filterKruskal(CsrGraph graph, ConsumerWithException<Integer> onVisitedArc, ConsumerWithException<Integer> onFoundArc, CancellationToken cancellationToken) throws Exception {
+        int[] sources = graph.getSources();
+        int[] targets = graph.getTargets();
+        int[] costs = graph.getCosts();
+        long[] packedEdges = IntStream.range(0, targets.length)
+                                        .parallel()
+                                        .filter(arc -> graph.isDirected() || sources[arc] < targets[arc])
+                                        .mapToLong(arc -> ((long) costs[arc] << 32) | arc)
+                                        .toArray();
+        UnionFind sets = new UnionFind(graph.getNodesNumber());
+        filterKruskal(packedEdges, sources, targets, sets, new Random(), onVisitedArc, onFoundArc, cancellationToken);
+    }
+
+    private static void filterKruskal(long[] packedEdges, int[] sources, int[] targets, UnionFind sets, Random random, ConsumerWithException<Integer> onVisitedArc, ConsumerWithException<Integer> onFoundArc, CancellationToken cancellationToken) throws Exception {
+        if (sets.getSetsNumber() == 1 || cancellationToken.isCanceled()) {
+            return;
+        }
+        if (packedEdges.length <= FILTER_KRUSKAL_THRESHOLD) {
+            kruskal(packedEdges, sources, targets, sets, onVisitedArc, onFoundArc);
+            return;
+        }
+
+        // the pivot is the median cost of three random edges
+        long[] samples = new long[] {
+                packedEdges[random.nextInt(packedEdges.length)] >> 32,
+                packedEdges[random.nextInt(packedEdges.length)] >> 32,
+                packedEdges[random.nextInt(packedEdges.length)] >> 32
+        };
+        Arrays.sort(samples);
+        long pivot = samples[1];
+
+        long[] lightEdges = Arrays.stream(packedEdges).parallel().filter(edge -> edge >> 32 <= pivot).toArray();
+        if (lightEdges.length == packedEdges.length) {
+            // all the edges are at most as heavy as the pivot: partitioning doesn't help
+            kruskal(packedEdges, sources, targets, sets, onVisitedArc, onFoundArc);
+            return;
+        }
+        long[] heavyEdges = Arrays.stream(packedEdges).parallel().filter(edge -> edge >> 32 > pivot).toArray();
+
+        filterKruskal(lightEdges, sources, targets, sets, random, onVisitedArc, onFoundArc, cancellationToken);
+        if (sets.getSetsNumber() == 1) {
+            return;
+        }
+        long[] usefulHeavyEdges = Arrays.stream(heavyEdges)
+                                        .parallel()
+                                        .filter(edge -> sets.root(sources[(int) edge]) != sets.root(targets[(int) edge]))
+                                        .toArray();
+        filterKruskal(usefulHeavyEdges, sources, targets, sets, random, onVisitedArc, onFoundArc, cancellationToken);
+    }
+
+    private static void kruskal(long[] packedEdges, int[] sources, int[] targets, UnionFind sets, ConsumerWithException<Integer> onVisitedArc, ConsumerWithException<Integer> onFoundArc) throws Exception {
+        Arrays.parallelSort(packedEdges);
+        for (long edge : packedEdges) {
+            int arc = (int) edge;
+            if (onVisitedArc != null) {
+                onVisitedArc.accept(arc);
+            }
+            if (sets.union(sources[arc], targets[arc])) {
+                onFoundArc.accept(arc);
+                if (sets.getSetsNumber() == 1) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Parallel Borůvka with contraction: at every round each component picks its lightest
+     * outgoing edge, all the picked edges join the tree at once, and the graph is contracted so
+     * that every component becomes a single node of a smaller CSR graph (dropping the edges inside
+     * the components). Since a round at least halves the components, there are O(log V) rounds.
+     * Right after a contraction a row of the CSR holds all the edges leaving a component, so the
+     * lightest edges are found by scanning the rows in parallel without any synchronization.
+     * Ties are broken by edge index, so that all the picked edges together can't form a cycle.
+     * @param graph an undirected graph
+     * @return the arcs of the minimum spanning tree (or forest, if the graph is not connected)
+     */
+    public static int[] parallelBoruvka(CsrGraph graph) {
+        return parallelBoruvka(graph, CancellationToken.NONE);
+    }
+
+    /**
+     * @return the arcs of the minimum spanning tree, or of the forest found by the rounds done
+     * if the token is canceled
+     */
+    public static int[] parallelBoruvka(CsrGraph graph, CancellationToken cancellationToken) {
+        if (graph.isDirected()) {
+            throw new IllegalArgumentException("Borůvka needs an undirected graph");
+        }
+        int[] originalOffsets = graph.getOffsets();
+        int[] originalSources = graph.getSources();
+        int[] originalTargets = graph.getTargets();
+
+        // both the arcs of an edge get the index of the one that goes from the lower node to the higher
+        int[] edgeIds = IntStream.range(0, originalTargets.length).parallel().map(arc -> {
+            int source = originalSources[arc];
+            int target = originalTargets[arc];
+            if (source < target) {
+                return arc;
+            }
+            return Arrays.binarySearch(originalTargets, originalOffsets[target], originalOffsets[target + 1], source);
+        }).toArray();
+
+        int nodesNumber = graph.getNodesNumber();
+        int[] offsets = originalOffsets;
+        int[] targets = originalTargets;
+        long[] keys = IntStream.range(0, originalTargets.length)
+                               .parallel()
+                               .mapToLong(arc -> ((long) graph.getCosts()[arc] << 32) | edgeIds[arc])
+                               .toArray();
+        int[] tree = new int[Math.max(0, nodesNumber - 1)];
+        int treeSize = 0;
+
+        while (targets.length > 0 && !cancellationToken.isCanceled()) {
+            final int[] rowOffsets = offsets;
+            final long[] rowKeys = keys;
+            int[] lightestArcs = IntStream.range(0, nodesNumber).parallel().map(v -> {
+                int lightest = -1;
+                for (int arc = rowOffsets[v]; arc < rowOffsets[v + 1]; arc++) {
+                    if (lightest < 0 || rowKeys[arc] < rowKeys[lightest]) {
+                        lightest = arc;
+                    }
+                }
+                return lightest;
+            }).toArray();
+
+            UnionFind sets = new UnionFind(nodesNumber);
+            for (int v = 0; v < nodesNumber; v++) {
+                int arc = lightestArcs[v];
+                if (arc >= 0 && sets.union(v, targets[arc])) {
+                    tree[treeSize++] = (int) keys[arc];
+                }
+            }
+
+            // contraction: every component becomes a node
+            int[] labels = new int[nodesNumber];
+            int componentsNumber = 0;
+            for (int v = 0; v < nodesNumber; v++) {
+                if (sets.find(v) == v) {
+                    labels[v] = componentsNumber++;
+                }
+            }
+            for (int v = 0; v < nodesNumber; v++) {
+                labels[v] = labels[sets.find(v)];
+            }
+
+            final int[] rowTargets = targets;
+            int[] sources = new int[targets.length];
+            for (int v = 0; v < nodesNumber; v++) {
+                Arrays.fill(sources, offsets[v], offsets[v + 1], v);
+            }
+            int[] survivingArcs = IntStream.range(0, targets.length)
+                                           .parallel()
+                                           .filter(arc -> labels[sources[arc]] != labels[rowTargets[arc]])
+                                           .toArray();
+
+            int[] newOffsets = new int[componentsNumber + 1];
+            for (int arc : survivingArcs) {
+                newOffsets[labels[sources[arc]] + 1]++;
+            }
+            for (int c = 0; c < componentsNumber; c++) {
+                newOffsets[c + 1] += newOffsets[c];
+            }
+            int[] positions = Arrays.copyOf(newOffsets, componentsNumber);
+            int[] newTargets = new int[survivingArcs.length];
+            long[] newKeys = new long[survivingArcs.length];
+            for (int arc : survivingArcs) {
+                int position = positions[labels[sources[arc]]]++;
+                newTargets[position] = labels[rowTargets[arc]];
+                newKeys[position] = keys[arc];
+            }
+
+            nodesNumber = componentsNumber;
+            offsets = newOffsets;
+            targets = newTargets;
+            keys = newKeys;
+        }
+        return Arrays.copyOf(tree, treeSize);
+    }
+
+    /**
+     * Eager Prim: the nodes not yet in the tree are kept in an indexed heap by the cost of their
+     * cheapest edge towards the tree (key), and when a cheaper edge is found their key is
+     * decreased in place; this makes it O(E log V). For near complete graphs the dense O(V^2)
+     * version (which has no heap at all) is used instead.
+     * @param graph an undirected graph
+     * @return the parent of every node in the minimum spanning tree, -1 for the roots (there's a
+     * root for every connected component)
+     */
+    public static int[] indexedPrim(CsrGraph graph) {
+        return indexedPrim(graph, CancellationToken.NONE);
+    }
+
+    /**
+     * @return the parents in the minimum spanning tree, or in the forest found so far if the
+     * token is canceled
+     */
+    public static int[] indexedPrim(CsrGraph graph, CancellationToken cancellationToken) {
+        int n = graph.getNodesNumber();
+        if (graph.getArcsNumber() >= DENSE_PRIM_THRESHOLD * n * (n - 1)) {
+            return densePrim(graph, cancellationToken);
+        }
+
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] costs = graph.getCosts();
+        int[] parents = new int[n];
+        Arrays.fill(parents, -1);
+        boolean[] inTree = new boolean[n];
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+
+        for (int root = 0; root < n; root++) {
+            if (inTree[root]) {
+                continue;
+            }
+            heap.insert(root, 0);
+            while (!heap.isEmpty()) {
+                if (cancellationToken.isCanceled()) {
+                    return parents;
+                }
+                int v = heap.poll();
+                inTree[v] = true;
+                for (int arc = offsets[v]; arc < offsets[v + 1]; arc++) {
+                    int w = targets[arc];
+                    if (!inTree[w] && heap.insertOrDecrease(w, costs[arc])) {
+                        parents[w] = v;
+                    }
+                }
+            }
+        }
+        return parents;
+    }
+
+    /**
+     * the dense O(V^2) Prim, updating the keys from the row of the node just added to the tree,
+     * so that no matrix of the costs is needed
+     */
+    private static int[] densePrim(CsrGraph graph, CancellationToken cancellationToken) {
+        int n = graph.getNodesNumber();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] costs = graph.getCosts();
+        int[] parents = new int[n];
+        int[] keys = new int[n];
+        boolean[] inTree = new boolean[n];
+        Arrays.fill(parents, -1);
+        Arrays.fill(keys, Integer.MAX_VALUE);
+
+        for (int added = 0; added < n && !cancellationToken.isCanceled(); added++) {
+            int v = -1;
+            for (int w = 0; w < n; w++) {
+                if (!inTree[w] && (v < 0 || keys[w] < keys[v])) {
+                    v = w;
+                }
+            }
+            inTree[v] = true;
+            for (int arc = offsets[v]; arc < offsets[v + 1]; arc++) {
+                int w = targets[arc];
+                if (!inTree[w] && costs[arc] < keys[w]) {
+                    keys[w] = costs[arc];
+                    parents[w] = v;
+                }
+            }
+        }
+        return parents;
+    }
+
+    /**
+     * Prim for dense graphs: the key of every node is kept in a plain array and the cheapest one
+     * is found with a linear scan, so that it takes O(V^2) whatever the number of edges.
+     * @param n the number of nodes
+     * @param cost the cost of the edge between two nodes, Integer.MAX_VALUE if there's no edge
+     * @return the parent of every node in the minimum spanning tree, -1 for the roots
+     */
+    public static int[] densePrim(int n, IntBinaryOperator cost) {
+        return densePrim(n, cost, CancellationToken.NONE);
+    }
+
+    /**
+     * @return the parents in the minimum spanning tree, or in the forest found so far if the
+     * token is canceled
+     */
+    public static int[] densePrim(int n, IntBinaryOperator cost, CancellationToken cancellationToken) {
+        int[] parents = new int[n];
+        int[] keys = new int[n];
+        boolean[] inTree = new boolean[n];
+        Arrays.fill(parents, -1);
+        Arrays.fill(keys, Integer.MAX_VALUE);
+
+        for (int added = 0; added < n && !cancellationToken.isCanceled(); added++) {
+            int v = -1;
+            for (int w = 0; w < n; w++) {
+                if (!inTree[w] && (v < 0 || keys[w] < keys[v])) {
+                    v = w;
+                }
+            }
+            inTree[v] = true;
+            for (int w = 0; w < n; w++) {
+                if (!inTree[w]) {
+                    int edgeCost = cost.applyAsInt(v, w);
+                    if (edgeCost < keys[w]) {
+                        keys[w] = edgeCost;
+                        parents[w] = v;
+                    }
+                }
+            }
+        }
+        return parents;
+    }
 }
@@ -1,15 +1,17 @@
 package graphlab.algorithms;
 
+import graphlab.datastructures.CsrGraph;
 import graphlab.datastructures.Edge;
 import graphlab.datastructures.Graph;
 import graphlab.datastructures.Node;
 import graphlab.datastructures.NodeStatus;
+import graphlab.utils.CancellationToken;
 import graphlab.utils.ConsumerWithException;
 import graphlab.utils.GraphUtils;
 
+import java.util.Arrays;
 import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.Optional;
 import java.util.PriorityQueue;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
@@ -21,7 +23,7 @@ public class Search {
                            ConsumerWithException<Node> onVisitedNode,
                            ConsumerWithException<Edge> onVisitedEdge,
                            Consumer<Node> onProcessedNode,
-                           Boolean isCanceled,
+                           CancellationToken cancellationToken,
                            boolean stopAtSearched) throws Exception {
 
         genericFirstSearch(graph,
@@ -30,7 +32,7 @@ public class Search {
                 onVisitedNode,
                 onVisitedEdge,
                 onProcessedNode,
-                isCanceled,
+                cancellationToken,
                 stopAtSearched);
     }
 
@@ -38,7 +40,7 @@ public class Search {
                            ConsumerWithException<Node> onVisitedNode,
                            ConsumerWithException<Edge> onVisitedEdge,
                            Consumer<Node> onProcessedNode,
-                           Boolean isCanceled,
+                           CancellationToken cancellationToken,
                            boolean stopAtSearched) throws Exception {
 
         genericFirstSearch(graph,
@@ -47,7 +49,7 @@ public class Search {
                 onVisitedNode,
                 onVisitedEdge,
                 onProcessedNode,
-                isCanceled,
+                cancellationToken,
                 stopAtSearched);
     }
 
@@ -57,7 +59,7 @@ public class Search {
                                           ConsumerWithException<Node> onVisitedNode,
                                           ConsumerWithException<Edge> onVisitedEdge,
                                           Consumer<Node> onProcessedNode,
-                                          Boolean isCanceled,
+                                          CancellationToken cancellationToken,
                                           boolean stopAtSearched) throws Exception {
 
         graph.getNodes().forEach(node -> node.setStatus(NodeStatus.UNKNOWN));
@@ -81,19 +83,19 @@ public class Search {
             }
             node.setStatus(NodeStatus.PROCESSED);
             onProcessedNode.accept(node);
-            if (isCanceled) return;
+            if (cancellationToken.isCanceled()) return;
         }
     }
 
-    public static void astar(Graph graph, ConsumerWithException<Node> onVisitedNode, ConsumerWithException<Edge> onVisitedEdge, Consumer<Node> onProcessedNode, Boolean isCanceled) throws Exception {
-        genericCostSearch(graph, onVisitedNode, onVisitedEdge, onProcessedNode, isCanceled, true);
+    public static void astar(Graph graph, ConsumerWithException<Node> onVisitedNode, ConsumerWithException<Edge> onVisitedEdge, Consumer<Node> onProcessedNode, CancellationToken cancellationToken) throws Exception {
+        genericCostSearch(graph, onVisitedNode, onVisitedEdge, onProcessedNode, cancellationToken, true);
     }
 
-    public static void ucs(Graph graph, ConsumerWithException<Node> onVisitedNode, ConsumerWithException<Edge> onVisitedEdge, Consumer<Node> onProcessedNode, Boolean isCanceled) throws Exception {
-        genericCostSearch(graph, onVisitedNode, onVisitedEdge, onProcessedNode, isCanceled, false);
+    public static void ucs(Graph graph, ConsumerWithException<Node> onVisitedNode, ConsumerWithException<Edge> onVisitedEdge, Consumer<Node> onProcessedNode, CancellationToken cancellationToken) throws Exception {
+        genericCostSearch(graph, onVisitedNode, onVisitedEdge, onProcessedNode, cancellationToken, false);
     }
 
-    public static void genericCostSearch(Graph graph, ConsumerWithException<Node> onVisitedNode, ConsumerWithException<Edge> onVisitedEdge, Consumer<Node> onProcessedNode, Boolean isCanceled, boolean useHeuristic) throws Exception {
+    public static void genericCostSearch(Graph graph, ConsumerWithException<Node> onVisitedNode, ConsumerWithException<Edge> onVisitedEdge, Consumer<Node> onProcessedNode, CancellationToken cancellationToken, boolean useHeuristic) throws Exception {
         graph.getNodes().forEach(node -> node.setStatus(NodeStatus.UNKNOWN));
         PriorityQueue<Node> queue = new PriorityQueue<>((o1, o2) -> Integer.compare(o1.getPathCost(), o2.getPathCost()));
         Node startingNode = GraphUtils.getStartingNode(graph);
@@ -132,8 +134,92 @@ public class Search {
             }
             currentNode.setStatus(NodeStatus.PROCESSED);
             onProcessedNode.accept(currentNode);
-            if (isCanceled) return;
+            if (cancellationToken.isCanceled()) return;
         }
     }
 
+    /**
+     * runs a BFS from every source and returns the distances (in number of arcs): levels[s][v]
+     * is the distance of node v from sources[s], or -1 if v can't be reached from it.
+     */
+    public static int[][] multiSourceBfs(CsrGraph graph, int[] sources, CancellationToken cancellationToken) {
+        int[][] levels = new int[sources.length][graph.getNodesNumber()];
+        for (int[] sourceLevels : levels) {
+            Arrays.fill(sourceLevels, -1);
+        }
+        multiSourceBfs(graph, sources, (level, node, word, discoveredSources) -> {
+            while (discoveredSources != 0) {
+                int bit = Long.numberOfTrailingZeros(discoveredSources);
+                levels[(word << 6) + bit][node] = level;
+                discoveredSources &= discoveredSources - 1;
+            }
+        }, cancellationToken);
+        return levels;
+    }
+
+    /**
+     * Multi-source BFS: runs a BFS from each of the sources at the same time, sharing a single
+     * scan of the arcs per level. Every node has one bit per source, packed in words of 64 sources,
+     * in three bitmasks: the sources that have already seen it, the ones whose frontier contains
+     * it at the current level and the ones whose frontier will contain it at the next level.
+     * Every time a node is reached for the first time by some sources, onDiscovered is called with
+     * the level, the node, the index of the word and the bits of the sources in that word; this
+     * allows to compute aggregates (like the sum of the distances) without storing the levels.
+     */
+    public static void multiSourceBfs(CsrGraph graph, int[] sources, DiscoveryConsumer onDiscovered, CancellationToken cancellationToken) {
+        int n = graph.getNodesNumber();
+        int words = (sources.length + 63) >>> 6;
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        long[] seen = new long[n * words];
+        long[] visit = new long[n * words];
+        long[] next = new long[n * words];
+
+        for (int s = 0; s < sources.length; s++) {
+            int index = sources[s] * words + (s >>> 6);
+            long bit = 1L << (s & 63);
+            if ((seen[index] & bit) == 0) {
+                seen[index] |= bit;
+                visit[index] |= bit;
+                onDiscovered.accept(0, sources[s], s >>> 6, bit);
+            }
+        }
+
+        boolean frontierIsEmpty = sources.length == 0;
+        for (int level = 1; !frontierIsEmpty; level++) {
+            frontierIsEmpty = true;
+            for (int v = 0; v < n; v++) {
+                // a level can scan all the arcs many times over, so the token is polled within it
+                if ((v & 1023) == 0 && cancellationToken.isCanceled()) return;
+                int base = v * words;
+                for (int k = 0; k < words; k++) {
+                    long frontier = visit[base + k];
+                    if (frontier == 0) {
+                        continue;
+                    }
+                    for (int arc = offsets[v]; arc < offsets[v + 1]; arc++) {
+                        int w = targets[arc];
+                        int index = w * words + k;
+                        long discovered = frontier & ~seen[index];
+                        if (discovered != 0) {
+                            seen[index] |= discovered;
+                            next[index] |= discovered;
+                            frontierIsEmpty = false;
+                            onDiscovered.accept(level, w, k, discovered);
+                        }
+                    }
+                }
+            }
+
+            long[] swap = visit;
+            visit = next;
+            next = swap;
+            Arrays.fill(next, 0);
+        }
+    }
+
+    @FunctionalInterface
+    public interface DiscoveryConsumer {
+        void accept(int level, int node, int word, long sources);
+    }
 }
@@ -1,9 +1,11 @@
 package graphlab.algorithms;
 
+import graphlab.datastructures.CsrGraph;
 import graphlab.datastructures.Edge;
 import graphlab.datastructures.Graph;
 import graphlab.datastructures.Node;
 import graphlab.datastructures.NodeStatus;
+import graphlab.utils.CancellationToken;
 import graphlab.utils.ConsumerWithException;
 import graphlab.utils.GraphUtils;
 
@@ -14,7 +16,7 @@ import java.util.function.Consumer;
 
 public class ShortestPath {
 
-    public static void dijkstra(Graph graph, ConsumerWithException<Node> onVisitedNode, ConsumerWithException<Edge> onVisitedEdge, Consumer<Node> onProcessedNode, Boolean isCanceled) throws Exception {
+    public static void dijkstra(Graph graph, ConsumerWithException<Node> onVisitedNode, ConsumerWithException<Edge> onVisitedEdge, Consumer<Node> onProcessedNode, CancellationToken cancellationToken) throws Exception {
 
         Node startingNode = GraphUtils.getStartingNode(graph);
         PriorityQueue<Node> toBeVisitedNodes = new PriorityQueue<>((n1, n2) -> Integer.compare(n1.getPathCost(), n2.getPathCost()));
@@ -26,6 +28,10 @@ public class ShortestPath {
         while (!toBeVisitedNodes.isEmpty()) {
 
             Node node = toBeVisitedNodes.poll();
+            if (node.getPathCost() == Integer.MAX_VALUE) {
+                // the nodes left are not reachable from the starting node
+                return;
+            }
             onVisitedNode.accept(node);
             node.setStatus(NodeStatus.DISCOVERED);
             if (node.isTargetNode()) {
@@ -52,7 +58,7 @@ public class ShortestPath {
                     }
                 }
             }
-            if (isCanceled) {
+            if (cancellationToken.isCanceled()) {
                 return;
             }
             node.setStatus(NodeStatus.PROCESSED);
@@ -60,7 +66,7 @@ public class ShortestPath {
         }
     }
 
-    public static void bellmanFord(Graph graph, ConsumerWithException<Node> onVisitedNode, ConsumerWithException<Edge> onVisitedEdge, Consumer<Node> onProcessedNode, Callable bellmanFordStepIncrementer, Boolean isCanceled) throws Exception {
+    public static void bellmanFord(Graph graph, ConsumerWithException<Node> onVisitedNode, ConsumerWithException<Edge> onVisitedEdge, Consumer<Node> onProcessedNode, Callable bellmanFordStepIncrementer, CancellationToken cancellationToken) throws Exception {
 
         Node startingNode = GraphUtils.getStartingNode(graph);
         graph.getNodes().forEach(node -> node.setPathCost(node == startingNode ? 0 : Integer.MAX_VALUE));
@@ -69,7 +75,7 @@ public class ShortestPath {
         for (int j=0; j<graph.getNodes().size()-1; j++) {
             onVisitedNode.accept(graph.getNodes().get(j));
             for (Edge edge : edges) {
-                if (isCanceled) {
+                if (cancellationToken.isCanceled()) {
                     return;
                 }
                 // only the first time draws the edges, otherwise it takes too much to draw the GUI
@@ -90,7 +96,7 @@ public class ShortestPath {
         }
 
         for (Edge edge : edges) {
-            if (isCanceled) {
+            if (cancellationToken.isCanceled()) {
                 return;
             }
             Node sourceNode = edge.getSource();
@@ -103,4 +109,57 @@ public class ShortestPath {
             }
         }
     }
+
+    /**
+     * for directed acyclic graphs, relaxes every edge once following the topological order: O(V+E)
+     * instead of the O(E log V) of Dijkstra, and it also works with negative costs. The costs are
+     * computed by DirectedAcyclicGraph.shortestPaths, then the nodes are shown in topological order.
+     * @return false, without changing the graph, if it has a cycle
+     */
+    public static boolean dag(Graph graph, ConsumerWithException<Node> onVisitedNode, ConsumerWithException<Edge> onVisitedEdge, Consumer<Node> onProcessedNode, CancellationToken cancellationToken) throws Exception {
+
+        CsrGraph csrGraph = CsrGraph.of(graph);
+        int[] order = DirectedAcyclicGraph.topologicalOrder(csrGraph);
+        if (order == null) {
+            return false;
+        }
+
+        Node startingNode = GraphUtils.getStartingNode(graph);
+        int source = 0;
+        while (csrGraph.getNode(source) != startingNode) {
+            source++;
+        }
+        int[] parents = new int[csrGraph.getNodesNumber()];
+        int[] costs = DirectedAcyclicGraph.shortestPaths(csrGraph, order, source, parents);
+        graph.getNodes().forEach(node -> node.setPathCost(Integer.MAX_VALUE));
+        int[] offsets = csrGraph.getOffsets();
+
+        for (int v : order) {
+            if (costs[v] == DirectedAcyclicGraph.UNREACHABLE) {
+                continue;
+            }
+            Node node = csrGraph.getNode(v);
+            node.setPathCost(costs[v]);
+            if (parents[v] >= 0) {
+                node.setPathParent(csrGraph.getNode(parents[v]));
+            }
+            onVisitedNode.accept(node);
+            node.setStatus(NodeStatus.DISCOVERED);
+            if (node.isTargetNode()) {
+                node.setStatus(NodeStatus.PROCESSED);
+                onProcessedNode.accept(node);
+                return true;
+            }
+
+            for (int arc = offsets[v]; arc < offsets[v + 1]; arc++) {
+                onVisitedEdge.accept(csrGraph.getEdge(arc));
+            }
+            if (cancellationToken.isCanceled()) {
+                return true;
+            }
+            node.setStatus(NodeStatus.PROCESSED);
+            onProcessedNode.accept(node);
+        }
+        return true;
+    }
 }
@@ -1,120 +1,165 @@
 package graphlab.algorithms;
 
+import graphlab.algorithms.travelingsalesmanproblem.ArrayTour;
+import graphlab.algorithms.travelingsalesmanproblem.CostFunction;
+import graphlab.algorithms.travelingsalesmanproblem.EuclideanCostFunction;
+import graphlab.algorithms.travelingsalesmanproblem.HeldKarp;
+import graphlab.algorithms.travelingsalesmanproblem.InitialTours;
+import graphlab.algorithms.travelingsalesmanproblem.LocalSearch;
+import graphlab.algorithms.travelingsalesmanproblem.NeighborLists;
+import graphlab.algorithms.travelingsalesmanproblem.SimulatedAnnealing;
+import graphlab.algorithms.travelingsalesmanproblem.SpanningTreeTours;
+import graphlab.algorithms.travelingsalesmanproblem.Tour;
+import graphlab.algorithms.travelingsalesmanproblem.TwoOpt;
 import graphlab.datastructures.AdjacencyListGraph;
 import graphlab.datastructures.Edge;
 import graphlab.datastructures.Node;
+import graphlab.utils.CancellationToken;
 import graphlab.utils.ConsumerWithException;
 import graphlab.utils.GraphUtils;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 
 public class TravelingSalesmanProblem {
 
-    public static void nearestNeighbor(AdjacencyListGraph graph, ConsumerWithException<Edge> onUnvisitedEdge, ConsumerWithException<Node> onVisitedNode, ConsumerWithException<Edge> onVisitedEdge, Consumer<Node> onProcessedNode, Boolean isCanceled) throws Exception {
-
-        Node startingNode = GraphUtils.getStartingNode(graph);
-        Node current = startingNode;
-        Set<Node> visitedNodes = new HashSet<>();
+    /**
+     * the nearest neighbour tour from the starting node, considering the graph as complete
+     */
+    public static void nearestNeighbor(AdjacencyListGraph graph, ConsumerWithException<Node> onVisitedNode, ConsumerWithException<Edge> onVisitedEdge, CancellationToken cancellationToken) throws Exception {
+        List<Node> nodes = graph.getNodes();
+        EuclideanCostFunction costFunction = EuclideanCostFunction.of(nodes);
+        Tour tour = InitialTours.nearestNeighbor(costFunction.getXs(), costFunction.getYs(), indexOf(nodes, GraphUtils.getStartingNode(graph)));
+        showTour(nodes, tour, onVisitedNode, onVisitedEdge, cancellationToken);
+    }
 
-        nn(graph, current, startingNode, visitedNodes, onUnvisitedEdge, onVisitedNode, onVisitedEdge, onProcessedNode, isCanceled);
+    /**
+     * visits the nodes in the order of a Hilbert curve, considering the graph as complete
+     */
+    public static void hilbertCurve(AdjacencyListGraph graph, ConsumerWithException<Node> onVisitedNode, ConsumerWithException<Edge> onVisitedEdge, CancellationToken cancellationToken) throws Exception {
+        List<Node> nodes = graph.getNodes();
+        showTour(nodes, InitialTours.spaceFillingCurve(EuclideanCostFunction.of(nodes)), onVisitedNode, onVisitedEdge, cancellationToken);
     }
 
-    private static boolean nn(AdjacencyListGraph graph, Node current, Node startingNode, Set<Node> visitedNodes, ConsumerWithException<Edge> onUnvisitedEdges, ConsumerWithException<Node> onVisitedNode, ConsumerWithException<Edge> onVisitedEdge, Consumer<Node> onProcessedNode, Boolean isCanceled) throws Exception {
+    /**
+     * improves the Christofides tour with 2-opt on the nearest neighbor lists (see LocalSearch),
+     * considering the graph as complete; the moves are applied on an array tour, then shown in
+     * the same order by unvisiting the two removed edges and visiting the two added ones
+     */
+    public static void twoOpt(AdjacencyListGraph graph, ConsumerWithException<Edge> onUnvisitedEdge, ConsumerWithException<Node> onVisitedNode, ConsumerWithException<Edge> onVisitedEdge, Consumer<Node> onProcessedNode, CancellationToken cancellationToken) throws Exception {
+
+        List<Node> nodes = graph.getNodes();
+        EuclideanCostFunction euclideanCostFunction = EuclideanCostFunction.of(nodes);
+        CostFunction costFunction = CostFunction.precomputed(euclideanCostFunction, true);
+        int[] path = christofidesPath(costFunction, indexOf(nodes, GraphUtils.getStartingNode(graph)));
+        setPath(nodes, path, onVisitedEdge);
+
+        // every applied move as {a, b, c, d}: (a, b) and (c, d) replaced with (a, c) and (b, d)
+        List<int[]> moves = new ArrayList<>();
+        TwoOpt twoOpt = new TwoOpt(costFunction, NeighborLists.nearest(euclideanCostFunction, NeighborLists.DEFAULT_SIZE));
+        Tour tour = new ArrayTour(Arrays.copyOf(path, path.length - 1));
+        new LocalSearch((improvedTour, city) -> {
+            int[] move = twoOpt.improve(improvedTour, city);
+            if (move != null) {
+                moves.add(move);
+            }
+            return move;
+        }).optimize(tour, tour.getOrder(), cancellationToken);
 
-        if (isCanceled) {
-            return false;
+        for (int[] move : moves) {
+            if (cancellationToken.isCanceled()) {
+                return;
+            }
+            Node a = nodes.get(move[0]);
+            Node b = nodes.get(move[1]);
+            Node c = nodes.get(move[2]);
+            Node d = nodes.get(move[3]);
+            unsetPath(getEdgeFromTo(a, b), getEdgeFromTo(c, d), onUnvisitedEdge);
+            setPath(getEdgeFromTo(a, c), getEdgeFromTo(b, d), onVisitedEdge);
         }
+    }
 
-        onVisitedNode.accept(current);
-        visitedNodes.add(current);
-        if (current.equals(startingNode) && visitedNodes.size() == graph.getNodes().size()) {
-            return true;
-        }
-        else if (visitedNodes.size() == graph.getNodes().size()) {
-            return false;
+    /**
+     * the Christofides tour (see SpanningTreeTours) closed on the starting city
+     */
+    private static int[] christofidesPath(CostFunction costFunction, int startingCity) {
+        int[] order = SpanningTreeTours.christofides(costFunction).getOrder();
+        int start = 0;
+        while (order[start] != startingCity) {
+            start++;
         }
-        List<Edge> edges = new ArrayList<>(current.getEdges());
-        Collections.sort(edges, Comparator.comparingInt(Edge::getCost));
-        for (Edge edge : edges) {
-            Node destination = edge.getDestination();
-            if (!visitedNodes.contains(destination) || (visitedNodes.size() == graph.getNodes().size() - 2 && destination.equals(startingNode))) {
-                onVisitedEdge.accept(edge);
-                visitedNodes.add(destination);
-                destination.setPathParent(current);
-                if (nn(graph, destination, startingNode, visitedNodes, onUnvisitedEdges, onVisitedNode, onVisitedEdge, onProcessedNode, isCanceled)) {
-                    return true;
-                }
-                destination.setPathParent(null);
-                visitedNodes.remove(destination);
-                onUnvisitedEdges.accept(edge);
-            }
+        int[] path = new int[order.length + 1];
+        for (int position = 0; position < path.length; position++) {
+            path[position] = order[(start + position) % order.length];
         }
-
-        onProcessedNode.accept(current);
-        return false;
+        return path;
     }
 
-    public static void twoOpt(AdjacencyListGraph graph, ConsumerWithException<Edge> onUnvisitedEdge, ConsumerWithException<Node> onVisitedNode, ConsumerWithException<Edge> onVisitedEdge, Consumer<Node> onProcessedNode, Boolean isCanceled) throws Exception {
-
-        List<Node> path = new ArrayList<>();
-        Node startingNode = GraphUtils.getStartingNode(graph);
-        path.add(startingNode);
-        firstValidRoute(graph, startingNode, startingNode, path);
-        setPath(path, onVisitedEdge);
-        int n = path.size();
-        int minDistance = getTotalDistance(path);
-        while (true) {
-            int startingDistance = minDistance;
-            for (int i = 1; i < n; i++) {
-                boolean foundBetterRoute = false;
-                for (int j = i + 2; j < n; j++) {
-                    Edge edge1 = getEdgeFromTo(path.get(i-1), path.get(i));
-                    Edge edge2 = getEdgeFromTo(path.get(j-1), path.get(j));
-                    Edge newEdge1 = getEdgeFromTo(edge1.getSource(), edge2.getSource());
-                    Edge newEdge2 = getEdgeFromTo(edge1.getDestination(), edge2.getDestination());
-
-                    if (newEdge1 != null && newEdge2 != null) {
-                        List<Node> newPath = swapEdges(path, i, j);
-                        int newDistance = getTotalDistance(newPath);
-                        if (minDistance > newDistance) {
-                            unsetPath(edge1, edge2, onUnvisitedEdge);
-                            setPath(newEdge1, newEdge2, onVisitedEdge);
-                            minDistance = newDistance;
-                            path = newPath;
-                            foundBetterRoute = true;
-                            break;
-                        }
-                    }
-                }
-                if (foundBetterRoute) {
-                    break;
-                }
-            }
+    /**
+     * the optimal tour with the Held-Karp dynamic program, considering the graph as complete
+     * (the cost between two nodes is their distance); only for small graphs
+     * @param onReport gets the memory the table needs, before it's filled
+     */
+    public static void heldKarp(AdjacencyListGraph graph, Consumer<String> onReport, ConsumerWithException<Node> onVisitedNode, ConsumerWithException<Edge> onVisitedEdge, CancellationToken cancellationToken) throws Exception {
+        List<Node> nodes = graph.getNodes();
+        Tour tour = HeldKarp.solve(EuclideanCostFunction.of(nodes), onReport, cancellationToken);
+        if (tour != null) {
+            showTour(nodes, tour, onVisitedNode, onVisitedEdge, cancellationToken);
+        }
+    }
 
-            if (startingDistance == minDistance && minDistance < Integer.MAX_VALUE) {
-                break;
-            }
+    /**
+     * anneals the Hilbert curve tour for the time budget, or until the token is canceled,
+     * considering the graph as complete; while annealing, the edges of the improved tours are
+     * passed to onImprovedTour (at most once every report interval), then the preview is cleared
+     * with an empty list and the best tour found is shown
+     */
+    public static void simulatedAnnealing(AdjacencyListGraph graph, long timeLimitMillis, Consumer<List<Edge>> onImprovedTour, ConsumerWithException<Node> onVisitedNode, ConsumerWithException<Edge> onVisitedEdge, CancellationToken cancellationToken) throws Exception {
+        List<Node> nodes = graph.getNodes();
+        if (nodes.isEmpty()) {
+            return;
         }
+        EuclideanCostFunction costFunction = EuclideanCostFunction.of(nodes);
+        Tour tour = SimulatedAnnealing.of(costFunction).optimize(ForkJoinPool.commonPool(), InitialTours.spaceFillingCurve(costFunction), timeLimitMillis, new Random(),
+                improvedTour -> onImprovedTour.accept(tourEdges(nodes, improvedTour)), cancellationToken);
+        onImprovedTour.accept(new ArrayList<>());
+        showTour(nodes, tour, onVisitedNode, onVisitedEdge, cancellationToken);
     }
 
-    private static List<Node> swapEdges(List<Node> path, int i, int j) {
-        List<Node> result = new ArrayList<>();
-        for (int k = 0; k < i; k++) {
-            result.add(path.get(k));
+    private static List<Edge> tourEdges(List<Node> nodes, Tour tour) {
+        int[] order = tour.getOrder();
+        List<Edge> edges = new ArrayList<>(order.length);
+        for (int position = 0; position < order.length; position++) {
+            edges.add(getEdgeFromTo(nodes.get(order[position]), nodes.get(order[(position + 1) % order.length])));
         }
+        return edges;
+    }
 
-        List<Node> swapped = new ArrayList<>();
-        for (int k = i; k < j; k++) {
-            swapped.add(path.get(k));
+    /**
+     * visits the nodes and the edges of the tour, in order
+     */
+    private static void showTour(List<Node> nodes, Tour tour, ConsumerWithException<Node> onVisitedNode, ConsumerWithException<Edge> onVisitedEdge, CancellationToken cancellationToken) throws Exception {
+        int[] order = tour.getOrder();
+        for (int position = 0; position < order.length; position++) {
+            if (cancellationToken.isCanceled()) {
+                return;
+            }
+            Node from = nodes.get(order[position]);
+            Node to = nodes.get(order[(position + 1) % order.length]);
+            onVisitedNode.accept(from);
+            onVisitedEdge.accept(getEdgeFromTo(from, to));
+            to.setPathParent(from);
         }
-        Collections.reverse(swapped);
-        result.addAll(swapped);
+    }
 
-        for (int k = j; k < path.size(); k++) {
-            result.add(path.get(k));
+    private static int indexOf(List<Node> nodes, Node node) {
+        for (int index = 0; index < nodes.size(); index++) {
+            if (nodes.get(index) == node) {
+                return index;
+            }
         }
-        return result;
+        return -1;
     }
 
     private static void setPath(Edge edge1, Edge edge2, ConsumerWithException<Edge> onVisitedEdge) throws Exception {
@@ -131,9 +176,9 @@ public class TravelingSalesmanProblem {
         onUnvisitedEdge.accept(swappedEdge2);
     }
 
-    private static void setPath(List<Node> path, ConsumerWithException<Edge> onVisitedEdge) throws Exception {
-        for (int k = 1; k < path.size(); k++) {
-            onVisitedEdge.accept(getEdgeFromTo(path.get(k), path.get(k - 1)));
+    private static void setPath(List<Node> nodes, int[] path, ConsumerWithException<Edge> onVisitedEdge) throws Exception {
+        for (int k = 1; k < path.length; k++) {
+            onVisitedEdge.accept(getEdgeFromTo(nodes.get(path[k]), nodes.get(path[k - 1])));
         }
     }
 
@@ -144,47 +189,8 @@ public class TravelingSalesmanProblem {
                 return edge;
             }
         }
-        return null;
-    }
-
-    private static int getTotalDistance(List<Node> path) {
-        int total = 0;
-        for (int i = 1; i < path.size(); i++) {
-            total += getDistance(path.get(i - 1), path.get(i));
-        }
-        return total;
-    }
-
-    private static int getDistance(Node i, Node j) {
-        for (Edge edge : i.getEdges()) {
-            if (edge.getDestination().equals(j)) {
-                return edge.getCost();
-            }
-        }
-        return Integer.MAX_VALUE;
-    }
-
-    private static boolean firstValidRoute(AdjacencyListGraph graph, Node current, Node startingNode, List<Node> path) throws Exception {
-
-        if (current.equals(startingNode) && path.size() == graph.getNodes().size()+1) {
-            return true;
-        }
-        List<Edge> edges = new ArrayList<>(current.getEdges());
-        Collections.sort(edges, Comparator.comparingInt(Edge::getCost));
-        for (Edge edge : edges) {
-            Node destination = edge.getDestination();
-            if (!path.contains(destination) || (path.size() == graph.getNodes().size() && destination.equals(startingNode))) {
-                path.add(destination);
-                destination.setPathParent(current);
-
-                if (firstValidRoute(graph, destination, startingNode, path)) {
-                    return true;
-                }
-                destination.setPathParent(null);
-                path.remove(destination);
-            }
-        }
-        return false;
+        // the graph is considered as complete
+        return new Edge(from, to);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,188 @@
+package graphlab.algorithms;
+
+import graphlab.datastructures.CsrGraph;
+import graphlab.utils.CancellationToken;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Counts the triangles of a graph (considering its edges undirected: a directed graph is made
+ * symmetric first) and computes the clustering coefficients.
+ *
+ * Every edge is oriented from the endpoint with the lower degree to the one with the higher
+ * degree (ties broken by index), so that every triangle is found exactly once, from its lowest
+ * ranked node, and no node has more than O(sqrt(E)) outgoing arcs. The triangles on the arc
+ * (v, w) are then the common out-neighbours of v and w, found by merging their sorted lists.
+ */
+public class TriangleCounting {
+
+    public static Triangles count(CsrGraph graph) {
+        return count(graph, CancellationToken.NONE);
+    }
+
+    /**
+     * @return the triangles, null if the token has been canceled before the end
+     */
+    public static Triangles count(CsrGraph graph, CancellationToken cancellationToken) {
+        if (graph.isDirected()) {
+            // adds the reverse arcs, dropping the parallel ones
+            return count(CsrGraph.fromArcs(graph.getNodesNumber(), graph.getSources(), graph.getTargets(), graph.getCosts(), false), cancellationToken);
+        }
+        int n = graph.getNodesNumber();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+
+        // the oriented graph keeps only the arcs towards higher ranked nodes; rows stay sorted
+        int[] outOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            int outDegree = 0;
+            for (int arc = offsets[v]; arc < offsets[v + 1]; arc++) {
+                if (precedes(graph, v, targets[arc])) {
+                    outDegree++;
+                }
+            }
+            outOffsets[v + 1] = outOffsets[v] + outDegree;
+        }
+        int[] outTargets = new int[outOffsets[n]];
+        IntStream.range(0, n).parallel().forEach(v -> {
+            int position = outOffsets[v];
+            for (int arc = offsets[v]; arc < offsets[v + 1]; arc++) {
+                if (precedes(graph, v, targets[arc])) {
+                    outTargets[position++] = targets[arc];
+                }
+            }
+        });
+
+        // every thread counts the triangles of the nodes on its own array, allocated when it
+        // takes its first node, so there are no more arrays than threads; only the total goes
+        // through the reduction of the stream
+        Map<Thread, long[]> counters = new ConcurrentHashMap<>();
+        long total = IntStream.range(0, n).parallel().mapToLong(v -> {
+            if (cancellationToken.isCanceled()) {
+                return 0;
+            }
+            long[] counter = counters.get(Thread.currentThread());
+            if (counter == null) {
+                counter = new long[n];
+                counters.put(Thread.currentThread(), counter);
+            }
+            return countTriangles(v, outOffsets, outTargets, counter);
+        }).sum();
+        if (cancellationToken.isCanceled()) {
+            return null;
+        }
+        List<long[]> threadCounters = new ArrayList<>(counters.values());
+        long[] perNode = new long[n];
+        IntStream.range(0, n).parallel().forEach(v -> {
+            for (long[] counter : threadCounters) {
+                perNode[v] += counter[v];
+            }
+        });
+
+        double[] clusteringCoefficients = new double[n];
+        long triples = 0;
+        for (int v = 0; v < n; v++) {
+            long degree = graph.getDegree(v);
+            long pairs = degree * (degree - 1) / 2;
+            triples += pairs;
+            clusteringCoefficients[v] = pairs > 0 ? perNode[v] / (double) pairs : 0;
+        }
+        return new Triangles(total, perNode, clusteringCoefficients, triples);
+    }
+
+    /**
+     * adds the triangles on the arcs of v to their nodes
+     * @return the number of triangles found
+     */
+    private static long countTriangles(int v, int[] outOffsets, int[] outTargets, long[] counter) {
+        long triangles = 0;
+        for (int arc = outOffsets[v]; arc < outOffsets[v + 1]; arc++) {
+            int w = outTargets[arc];
+            int i = outOffsets[v];
+            int j = outOffsets[w];
+            while (i < outOffsets[v + 1] && j < outOffsets[w + 1]) {
+                if (outTargets[i] < outTargets[j]) {
+                    i++;
+                }
+                else if (outTargets[i] > outTargets[j]) {
+                    j++;
+                }
+                else {
+                    counter[v]++;
+                    counter[w]++;
+                    counter[outTargets[i]]++;
+                    triangles++;
+                    i++;
+                    j++;
+                }
+            }
+        }
+        return triangles;
+    }
+
+    private static boolean precedes(CsrGraph graph, int v, int w) {
+        int degreeV = graph.getDegree(v);
+        int degreeW = graph.getDegree(w);
+        return degreeV < degreeW || (degreeV == degreeW && v < w);
+    }
+
+    /**
+     * The result of the count.
+     */
+    public static class Triangles {
+
+        private final long total;
+        private final long[] perNode;
+        private final double[] clusteringCoefficients;
+        private final long connectedTriples;
+
+        Triangles(long total, long[] perNode, double[] clusteringCoefficients, long connectedTriples) {
+            this.total = total;
+            this.perNode = perNode;
+            this.clusteringCoefficients = clusteringCoefficients;
+            this.connectedTriples = connectedTriples;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        /**
+         * @return the number of triangles every node belongs to
+         */
+        public long[] getPerNode() {
+            return perNode;
+        }
+
+        /**
+         * @return for every node, the fraction of the pairs of its neighbours that are connected
+         */
+        public double[] getClusteringCoefficients() {
+            return clusteringCoefficients;
+        }
+
+        public double getAverageClusteringCoefficient() {
+            double sum = 0;
+            for (double coefficient : clusteringCoefficients) {
+                sum += coefficient;
+            }
+            return clusteringCoefficients.length > 0 ? sum / clusteringCoefficients.length : 0;
+        }
+
+        /**
+         * @return the global clustering coefficient: three times the triangles over the connected triples
+         */
+        public double getTransitivity() {
+            return connectedTriples > 0 ? 3.0 * total / connectedTriples : 0;
+        }
+
+        @Override
+        public String toString() {
+            return "Triangles [total=" + total + ", average clustering=" + getAverageClusteringCoefficient() + ", transitivity=" + getTransitivity() + "]";
+        }
+    }
+}
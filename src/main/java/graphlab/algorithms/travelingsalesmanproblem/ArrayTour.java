@@ -0,0 +1,86 @@
+package graphlab.algorithms.travelingsalesmanproblem;
+
+import java.util.Arrays;
+
+/**
+ * A tour as an array of cities with the inverse array of their positions, so that the successor,
+ * the predecessor and the position of a city are all O(1). Reversing a path costs time
+ * proportional to its length, so the shorter between the path and the rest of the tour is
+ * always reversed.
+ */
+public class ArrayTour extends Tour {
+
+    private final int[] order;
+    private final int[] positions;
+
+    public ArrayTour(int[] order) {
+        this.order = Arrays.copyOf(order, order.length);
+        this.positions = new int[order.length];
+        for (int position = 0; position < order.length; position++) {
+            positions[order[position]] = position;
+        }
+    }
+
+    public ArrayTour(Tour tour) {
+        this(tour.getOrder());
+    }
+
+    @Override
+    public int size() {
+        return order.length;
+    }
+
+    @Override
+    public int getCity(int position) {
+        return order[position];
+    }
+
+    @Override
+    public int getPosition(int city) {
+        return positions[city];
+    }
+
+    @Override
+    public int next(int city) {
+        int position = positions[city] + 1;
+        return order[position == order.length ? 0 : position];
+    }
+
+    @Override
+    public int previous(int city) {
+        int position = positions[city];
+        return order[position == 0 ? order.length - 1 : position - 1];
+    }
+
+    @Override
+    public void reverse(int i, int j) {
+        int n = order.length;
+        int length = j - i;
+        if (length < 0) {
+            length += n;
+        }
+        length++;
+        if (2 * length > n) {
+            // the complement is shorter
+            int swap = i;
+            i = j + 1 == n ? 0 : j + 1;
+            j = swap == 0 ? n - 1 : swap - 1;
+            length = n - length;
+        }
+        for (int k = 0; k < length / 2; k++) {
+            int cityI = order[i];
+            int cityJ = order[j];
+            order[i] = cityJ;
+            positions[cityJ] = i;
+            order[j] = cityI;
+            positions[cityI] = j;
+            i = i + 1 == n ? 0 : i + 1;
+            j = j == 0 ? n - 1 : j - 1;
+        }
+    }
+
+    @Override
+    public int[] getOrder() {
+        return Arrays.copyOf(order, order.length);
+    }
+}
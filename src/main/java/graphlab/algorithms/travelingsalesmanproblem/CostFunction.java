@@ -0,0 +1,28 @@
+package graphlab.algorithms.travelingsalesmanproblem;
+
+/**
+ * The cost of travelling between two cities, identified by their index 0..size()-1; the TSP
+ * engines only see the cities through this interface.
+ */
+public interface CostFunction {
+
+    int size();
+
+    double cost(int i, int j);
+
+    /**
+     * @return the costs in a full matrix if they fit in a quarter of the memory, else in a half
+     * matrix if they're symmetric and fit, else the cost function itself
+     */
+    static CostFunction precomputed(CostFunction costFunction, boolean symmetric) throws Exception {
+        long n = costFunction.size();
+        long memory = Runtime.getRuntime().maxMemory() / 4;
+        if (n <= MatrixCostFunction.MAX_SIZE && 4 * n * n <= memory) {
+            return MatrixCostFunction.of(costFunction);
+        }
+        if (symmetric && n <= HalfMatrixCostFunction.MAX_SIZE && 2 * n * (n - 1) <= memory) {
+            return HalfMatrixCostFunction.of(costFunction);
+        }
+        return costFunction;
+    }
+}
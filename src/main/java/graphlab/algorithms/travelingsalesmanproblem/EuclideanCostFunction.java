@@ -0,0 +1,43 @@
+package graphlab.algorithms.travelingsalesmanproblem;
+
+import graphlab.datastructures.Node;
+
+import java.util.List;
+
+/**
+ * The euclidean distance between cities on the plane, computed on the fly from the coordinates.
+ */
+public class EuclideanCostFunction implements CostFunction {
+
+    private final double[] xs;
+    private final double[] ys;
+
+    public EuclideanCostFunction(double[] xs, double[] ys) {
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    public static EuclideanCostFunction of(List<Node> nodes) {
+        return new EuclideanCostFunction(nodes.stream().mapToDouble(Node::getX).toArray(), nodes.stream().mapToDouble(Node::getY).toArray());
+    }
+
+    @Override
+    public int size() {
+        return xs.length;
+    }
+
+    @Override
+    public double cost(int i, int j) {
+        double dx = xs[i] - xs[j];
+        double dy = ys[i] - ys[j];
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    public double[] getXs() {
+        return xs;
+    }
+
+    public double[] getYs() {
+        return ys;
+    }
+}
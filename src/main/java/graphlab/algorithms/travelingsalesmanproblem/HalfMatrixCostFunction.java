@@ -0,0 +1,63 @@
+package graphlab.algorithms.travelingsalesmanproblem;
+
+import java.util.stream.IntStream;
+
+/**
+ * The costs of a symmetric cost function precomputed in the lower triangle of a matrix, row by
+ * row: half the memory of MatrixCostFunction, n(n-1)/2 floats, for the price of ordering the two
+ * cities at every lookup. The diagonal is not stored, since a city costs nothing to itself.
+ */
+public class HalfMatrixCostFunction implements CostFunction {
+
+    public static final int MAX_SIZE = 65_000;
+
+    private final int n;
+    private final float[] costs;
+
+    // the index of the first cost of every row, i(i-1)/2
+    private final int[] rowStarts;
+
+    public HalfMatrixCostFunction(int n, float[] costs) throws Exception {
+        if ((long) n * (n - 1) / 2 != costs.length) {
+            throw new Exception("A half matrix of " + n + " cities needs " + (long) n * (n - 1) / 2 + " costs, not " + costs.length + ".");
+        }
+        this.n = n;
+        this.costs = costs;
+        this.rowStarts = new int[n];
+        for (int i = 1; i < n; i++) {
+            rowStarts[i] = rowStarts[i - 1] + i - 1;
+        }
+    }
+
+    /**
+     * precomputes the costs of the cost function, in parallel; cost(i, j) is stored for i > j
+     * and used for both directions
+     */
+    public static HalfMatrixCostFunction of(CostFunction costFunction) throws Exception {
+        int n = costFunction.size();
+        if (n > MAX_SIZE) {
+            throw new Exception("The half cost matrix is limited to " + MAX_SIZE + " cities, and there are " + n + ".");
+        }
+        float[] costs = new float[(int) ((long) n * (n - 1) / 2)];
+        IntStream.range(1, n).parallel().forEach(i -> {
+            int rowStart = (int) ((long) i * (i - 1) / 2);
+            for (int j = 0; j < i; j++) {
+                costs[rowStart + j] = (float) costFunction.cost(i, j);
+            }
+        });
+        return new HalfMatrixCostFunction(n, costs);
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    @Override
+    public double cost(int i, int j) {
+        if (i > j) {
+            return costs[rowStarts[i] + j];
+        }
+        return i == j ? 0 : costs[rowStarts[j] + i];
+    }
+}
@@ -0,0 +1,191 @@
+package graphlab.algorithms.travelingsalesmanproblem;
+
+import graphlab.utils.CancellationToken;
+
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * The exact solution with the Held-Karp dynamic program, O(n^2 2^n) time and O(n 2^n) memory:
+ * the tour starts from city 0, and the shortest path that starts from 0, visits the subset S of
+ * the other cities and ends in j is the minimum, over the k in S other than j, of the shortest
+ * path visiting S - {j} and ending in k, plus cost(k, j).
+ *
+ * The table is a flat float array indexed by (subset mask, last city); all the subsets with the
+ * same number of cities only depend on the smaller ones, so every layer is filled in parallel,
+ * each thread walking its own range of subsets in increasing order (Gosper's hack) from a
+ * starting subset found by unranking. The tour is rebuilt going backward through the table,
+ * looking for the city whose value gives exactly the stored one, so no table of parents is
+ * needed.
+ */
+public class HeldKarp {
+
+    // the largest instance whose table can be indexed by an int
+    public static final int MAX_CITIES = 27;
+
+    // how often the cancellation token is checked, in subsets filled
+    private static final int CANCELLATION_CHECK_SUBSETS = 1024;
+
+    /**
+     * @return the bytes of the table for n cities
+     */
+    public static long requiredBytes(int n) {
+        int m = Math.max(0, n - 1);
+        return Float.BYTES * (long) m << m;
+    }
+
+    public static Tour solve(CostFunction costFunction) throws Exception {
+        return solve(costFunction, message -> { });
+    }
+
+    /**
+     * finds the optimal tour, after reporting the memory it needs
+     * @throws Exception if the table doesn't fit in the available memory
+     */
+    public static Tour solve(CostFunction costFunction, Consumer<String> onReport) throws Exception {
+        return solve(costFunction, onReport, CancellationToken.NONE);
+    }
+
+    /**
+     * finds the optimal tour, after reporting the memory it needs, unless the token is canceled
+     * @return the optimal tour, null if the token has been canceled before the end
+     * @throws Exception if the table doesn't fit in the available memory
+     */
+    public static Tour solve(CostFunction costFunction, Consumer<String> onReport, CancellationToken cancellationToken) throws Exception {
+        int n = costFunction.size();
+        if (n <= 3) {
+            return new ArrayTour(IntStream.range(0, n).toArray());
+        }
+        if (n > MAX_CITIES) {
+            throw new Exception("Held-Karp can't solve more than " + MAX_CITIES + " cities.");
+        }
+        Runtime runtime = Runtime.getRuntime();
+        long available = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+        long required = requiredBytes(n);
+        onReport.accept("Held-Karp on " + n + " cities needs " + megabytes(required) + " MB of " + megabytes(available) + " MB available.");
+        if (required > available) {
+            throw new Exception("Not enough memory for Held-Karp on " + n + " cities.");
+        }
+
+        // the cities 1..n-1 are the bits 0..m-1 of the masks
+        int m = n - 1;
+        float[][] costs = new float[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                costs[i][j] = (float) costFunction.cost(i, j);
+            }
+        }
+        float[] table = new float[m << m];
+        for (int j = 0; j < m; j++) {
+            table[(1 << j) * m + j] = costs[0][j + 1];
+        }
+
+        long[][] binomials = binomials(m);
+        int chunks = 4 * Runtime.getRuntime().availableProcessors();
+        for (int size = 2; size <= m; size++) {
+            final int subsetSize = size;
+            long subsets = binomials[m][size];
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                long from = subsets * chunk / chunks;
+                long to = subsets * (chunk + 1) / chunks;
+                if (from == to) {
+                    return;
+                }
+                int mask = unrank(from, subsetSize, binomials);
+                for (long rank = from; rank < to; rank++) {
+                    if ((rank - from) % CANCELLATION_CHECK_SUBSETS == 0 && cancellationToken.isCanceled()) {
+                        return;
+                    }
+                    fill(table, costs, m, mask);
+                    // Gosper's hack: the next larger integer with the same number of bits set
+                    int lowest = mask & -mask;
+                    int ripple = mask + lowest;
+                    mask = (((ripple ^ mask) >>> 2) / lowest) | ripple;
+                }
+            });
+            if (cancellationToken.isCanceled()) {
+                return null;
+            }
+        }
+
+        // closes the tour with the best last city, then walks the table backward
+        int full = (1 << m) - 1;
+        int last = 0;
+        for (int j = 1; j < m; j++) {
+            if (table[full * m + j] + costs[j + 1][0] < table[full * m + last] + costs[last + 1][0]) {
+                last = j;
+            }
+        }
+        int[] order = new int[n];
+        int mask = full;
+        for (int position = n - 1; position > 0; position--) {
+            order[position] = last + 1;
+            int previousMask = mask ^ (1 << last);
+            int previous = -1;
+            for (int k = 0; k < m && previous < 0; k++) {
+                if ((previousMask & (1 << k)) != 0 && table[previousMask * m + k] + costs[k + 1][last + 1] == table[mask * m + last]) {
+                    previous = k;
+                }
+            }
+            mask = previousMask;
+            last = previous;
+        }
+        return new ArrayTour(order);
+    }
+
+    private static void fill(float[] table, float[][] costs, int m, int mask) {
+        for (int j = 0; j < m; j++) {
+            if ((mask & (1 << j)) == 0) {
+                continue;
+            }
+            int previousMask = mask ^ (1 << j);
+            float best = Float.MAX_VALUE;
+            for (int k = 0; k < m; k++) {
+                if ((previousMask & (1 << k)) != 0) {
+                    float cost = table[previousMask * m + k] + costs[k + 1][j + 1];
+                    if (cost < best) {
+                        best = cost;
+                    }
+                }
+            }
+            table[mask * m + j] = best;
+        }
+    }
+
+    /**
+     * @return the subset of the given size with the given rank in increasing order of the masks,
+     * with the combinatorial number system
+     */
+    private static int unrank(long rank, int size, long[][] binomials) {
+        int mask = 0;
+        int bit = binomials.length - 1;
+        for (int i = size; i > 0; i--) {
+            while (binomials[bit][i] > rank) {
+                bit--;
+            }
+            mask |= 1 << bit;
+            rank -= binomials[bit][i];
+            bit--;
+        }
+        return mask;
+    }
+
+    private static long[][] binomials(int m) {
+        long[][] binomials = new long[m + 1][m + 1];
+        for (int i = 0; i <= m; i++) {
+            binomials[i][0] = 1;
+            for (int j = 1; j <= i; j++) {
+                binomials[i][j] = binomials[i - 1][j - 1] + binomials[i - 1][j];
+            }
+        }
+        return binomials;
+    }
+
+    /**
+     * @return the bytes in megabytes with a decimal, so that the small tables don't show as 0
+     */
+    private static String megabytes(long bytes) {
+        return String.format(Locale.ROOT, "%.1f", bytes / (double) (1 << 20));
+    }
+}
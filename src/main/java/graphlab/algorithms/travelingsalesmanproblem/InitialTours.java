@@ -0,0 +1,214 @@
+package graphlab.algorithms.travelingsalesmanproblem;
+
+import graphlab.datastructures.SpatialGrid;
+import graphlab.datastructures.UnionFind;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Construction heuristics for the starting tours of the local search.
+ */
+public class InitialTours {
+
+    // the side of the grid the cities are mapped onto for the space filling curve, 2^16, so that
+    // the index on the curve takes 32 bits
+    private static final int HILBERT_ORDER = 16;
+    private static final int GREEDY_CANDIDATES = 6;
+
+    public static ArrayTour random(int n, Random random) {
+        int[] order = IntStream.range(0, n).toArray();
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return new ArrayTour(order);
+    }
+
+    /**
+     * starting from the city, always goes to the nearest city not visited yet: O(n^2), unless
+     * the costs are euclidean distances
+     */
+    public static ArrayTour nearestNeighbor(CostFunction costFunction, int start) {
+        if (costFunction instanceof EuclideanCostFunction) {
+            EuclideanCostFunction euclidean = (EuclideanCostFunction) costFunction;
+            return nearestNeighbor(euclidean.getXs(), euclidean.getYs(), start);
+        }
+        int n = costFunction.size();
+        int[] order = new int[n];
+        boolean[] visited = new boolean[n];
+        int current = start;
+        for (int position = 0; position < n; position++) {
+            order[position] = current;
+            visited[current] = true;
+            int nearest = -1;
+            double nearestCost = Double.MAX_VALUE;
+            for (int city = 0; city < n; city++) {
+                if (!visited[city]) {
+                    double cost = costFunction.cost(current, city);
+                    if (cost < nearestCost) {
+                        nearestCost = cost;
+                        nearest = city;
+                    }
+                }
+            }
+            current = nearest;
+        }
+        return new ArrayTour(order);
+    }
+
+    /**
+     * nearest neighbour on the plane: the visited cities are removed from a spatial grid, so
+     * that the nearest unvisited city is found looking only at the cells around the current one
+     */
+    public static ArrayTour nearestNeighbor(double[] xs, double[] ys, int start) {
+        int n = xs.length;
+        SpatialGrid grid = new SpatialGrid(xs, ys);
+        int[] order = new int[n];
+        int current = start;
+        for (int position = 0; position < n; position++) {
+            order[position] = current;
+            grid.remove(current);
+            current = grid.nearest(current);
+        }
+        return new ArrayTour(order);
+    }
+
+    /**
+     * greedy edge: takes the edges between near cities from the shortest, skipping those that
+     * would give a city three edges or close a cycle, so that the tour is built as many paths
+     * growing at the same time; the paths are then joined going from the end of each one to the
+     * nearest end of the others. Usually 15-20% longer than the optimal tour, better than nearest
+     * neighbour, and a good start for the local search.
+     */
+    public static ArrayTour greedy(double[] xs, double[] ys) {
+        int n = xs.length;
+        if (n == 0) {
+            return new ArrayTour(new int[0]);
+        }
+        NeighborLists neighborLists = NeighborLists.nearest(xs, ys, GREEDY_CANDIDATES);
+
+        // every candidate edge packed as (squared length << 32 | city * candidates + neighbor position)
+        long[] packedEdges = new long[n * GREEDY_CANDIDATES];
+        int edgesNumber = 0;
+        for (int city = 0; city < n; city++) {
+            int[] neighbors = neighborLists.get(city);
+            for (int position = 0; position < neighbors.length; position++) {
+                if (city < neighbors[position]) {
+                    double dx = xs[city] - xs[neighbors[position]];
+                    double dy = ys[city] - ys[neighbors[position]];
+                    long length = Float.floatToIntBits((float) (dx * dx + dy * dy));
+                    packedEdges[edgesNumber++] = length << 32 | (city * GREEDY_CANDIDATES + position);
+                }
+            }
+        }
+        Arrays.parallelSort(packedEdges, 0, edgesNumber);
+
+        // the two cities linked to every city, -1 if none
+        int[] links = new int[2 * n];
+        Arrays.fill(links, -1);
+        int[] degrees = new int[n];
+        UnionFind paths = new UnionFind(n);
+        for (int k = 0; k < edgesNumber; k++) {
+            int edge = (int) packedEdges[k];
+            int city = edge / GREEDY_CANDIDATES;
+            int other = neighborLists.get(city)[edge % GREEDY_CANDIDATES];
+            if (degrees[city] < 2 && degrees[other] < 2 && paths.union(city, other)) {
+                links[2 * city + degrees[city]++] = other;
+                links[2 * other + degrees[other]++] = city;
+            }
+        }
+
+        // only the ends of the paths stay in the grid
+        SpatialGrid ends = new SpatialGrid(xs, ys);
+        for (int city = 0; city < n; city++) {
+            if (degrees[city] == 2) {
+                ends.remove(city);
+            }
+        }
+        int[] order = new int[n];
+        int position = 0;
+        int end = 0;
+        while (degrees[end] == 2) {
+            end++;
+        }
+        while (end >= 0) {
+            // walks the path from this end to the other one
+            int previous = -1;
+            int city = end;
+            while (city >= 0) {
+                order[position++] = city;
+                ends.remove(city);
+                int next = links[2 * city] != previous ? links[2 * city] : links[2 * city + 1];
+                previous = city;
+                city = next;
+            }
+            end = ends.nearest(previous);
+        }
+        return new ArrayTour(order);
+    }
+
+    /**
+     * visits the cities in the order of a Hilbert curve filling their bounding box: close cities
+     * tend to be close on the curve, so the tour is about 25% longer than the optimal one, and
+     * it only takes a sort. Every city is packed with its index on the curve in a long, (index
+     * << 31 | city), so that the sort is a parallel sort of primitives: well under a
+     * second for a million cities.
+     */
+    public static ArrayTour spaceFillingCurve(double[] xs, double[] ys) {
+        int n = xs.length;
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int city = 0; city < n; city++) {
+            minX = Math.min(minX, xs[city]);
+            minY = Math.min(minY, ys[city]);
+            maxX = Math.max(maxX, xs[city]);
+            maxY = Math.max(maxY, ys[city]);
+        }
+        int side = 1 << HILBERT_ORDER;
+        double scale = (side - 1) / Math.max(1e-9, Math.max(maxX - minX, maxY - minY));
+        double originX = minX;
+        double originY = minY;
+        long[] packedCities = new long[n];
+        IntStream.range(0, n).parallel().forEach(city -> {
+            long index = hilbertIndex(side, (int) ((xs[city] - originX) * scale), (int) ((ys[city] - originY) * scale));
+            packedCities[city] = index << 31 | city;
+        });
+        Arrays.parallelSort(packedCities);
+
+        int[] order = new int[n];
+        for (int position = 0; position < n; position++) {
+            order[position] = (int) (packedCities[position] & Integer.MAX_VALUE);
+        }
+        return new ArrayTour(order);
+    }
+
+    public static ArrayTour spaceFillingCurve(EuclideanCostFunction costFunction) {
+        return spaceFillingCurve(costFunction.getXs(), costFunction.getYs());
+    }
+
+    /**
+     * @return the position of the point on the Hilbert curve filling a side x side grid
+     */
+    static long hilbertIndex(int side, int x, int y) {
+        long index = 0;
+        for (int s = side / 2; s > 0; s /= 2) {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int ry = (y & s) > 0 ? 1 : 0;
+            index += (long) s * s * ((3 * rx) ^ ry);
+            // rotates the quadrant so that the curve inside it has the standard orientation
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = side - 1 - x;
+                    y = side - 1 - y;
+                }
+                int swap = x;
+                x = y;
+                y = swap;
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,333 @@
+package graphlab.algorithms.travelingsalesmanproblem;
+
+import graphlab.utils.CancellationToken;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Lin-Kernighan variable depth search, in the variant that builds the exchange as a chain of
+ * 2-opt moves: the edge (t1, t2) is removed, a new edge goes from t2 to a neighbor t3 and the
+ * edge (t3, t4) is removed, so that closing the tour with (t4, t1) is a 2-opt move; then the
+ * closing edge is removed again and the search goes on from t4, up to a maximum depth, as long
+ * as the total gain of the removed edges minus the added ones stays positive. At every step the
+ * neighbor that leaves the largest gain is chosen (all the neighbors are tried for the first
+ * step), an added edge is never removed again, and at the end the tour is rolled back to the
+ * best closed tour met along the chain.
+ *
+ * optimize() turns it into an anytime algorithm: after the first local optimum, the tour is
+ * perturbed with random double bridge kicks on short segments and optimized again from the
+ * cities around the kick, keeping the result only if it's better, until the time budget ends.
+ * Big tours are kept in a TwoLevelTour, so that every reversal costs O(sqrt(n)).
+ */
+public class LinKernighan implements Neighborhood {
+
+    public static final int DEFAULT_MAX_DEPTH = 50;
+    public static final int DEFAULT_CANDIDATES = 5;
+    private static final int TWO_LEVEL_TOUR_THRESHOLD = 1000;
+    private static final int MAX_KICK_SEGMENT = 50;
+
+    private final CostFunction costFunction;
+    private final NeighborLists neighborLists;
+    private final int maxDepth;
+
+    // the moves of the current chain, four cities each, and the cities touched by the best prefix
+    private final int[] chain;
+    private double totalGain;
+    private long moves;
+
+    public LinKernighan(CostFunction costFunction, NeighborLists neighborLists) {
+        this(costFunction, neighborLists, DEFAULT_MAX_DEPTH);
+    }
+
+    public LinKernighan(CostFunction costFunction, NeighborLists neighborLists, int maxDepth) {
+        this.costFunction = costFunction;
+        this.neighborLists = neighborLists;
+        this.maxDepth = maxDepth;
+        this.chain = new int[4 * maxDepth];
+    }
+
+    /**
+     * Lin-Kernighan with the default depth on the 5 nearest neighbors of every city
+     */
+    public static LinKernighan of(CostFunction costFunction) {
+        return new LinKernighan(costFunction, NeighborLists.nearest(costFunction, DEFAULT_CANDIDATES));
+    }
+
+    @Override
+    public int[] improve(Tour tour, int t1) {
+        if (tour.size() < 8) {
+            return null;
+        }
+        for (int side = 0; side < 2; side++) {
+            int t2 = side == 0 ? tour.next(t1) : tour.previous(t1);
+            double removedCost = costFunction.cost(t1, t2);
+            for (int t3 : neighborLists.get(t2)) {
+                double gain = removedCost - costFunction.cost(t2, t3);
+                if (gain <= TwoOpt.EPSILON) {
+                    break;
+                }
+                int t4 = successor(tour, t1, t2, t3);
+                if (t4 < 0) {
+                    continue;
+                }
+                int[] touched = deepen(tour, t1, t2, t3, t4, gain);
+                if (touched != null) {
+                    return touched;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the city t4 next to t3 such that removing (t3, t4) and closing with (t4, t1) is a
+     * valid 2-opt move, or -1 if there's none
+     */
+    private static int successor(Tour tour, int t1, int t2, int t3) {
+        if (t3 == t1 || t3 == tour.next(t2) || t3 == tour.previous(t2)) {
+            return -1;
+        }
+        int t4 = tour.next(t2) == t1 ? tour.next(t3) : tour.previous(t3);
+        return t4 == t1 ? -1 : t4;
+    }
+
+    /**
+     * applies the first move of the chain and goes on greedily
+     * @return the cities touched by the best prefix of the chain, or null if no prefix improves
+     */
+    private int[] deepen(Tour tour, int t1, int t2, int t3, int t4, double gain) {
+        int depth = 0;
+        double bestGain = 0;
+        int bestDepth = 0;
+
+        while (true) {
+            tour.exchange(t2, t1, t3, t4);
+            chain[4 * depth] = t2;
+            chain[4 * depth + 1] = t1;
+            chain[4 * depth + 2] = t3;
+            chain[4 * depth + 3] = t4;
+            depth++;
+            gain += costFunction.cost(t3, t4);
+            double closedGain = gain - costFunction.cost(t4, t1);
+            if (closedGain > bestGain) {
+                bestGain = closedGain;
+                bestDepth = depth;
+            }
+            if (depth == maxDepth) {
+                break;
+            }
+
+            // the next step removes the closing edge (t1, t4) again
+            t2 = t4;
+            int bestT3 = -1;
+            int bestT4 = -1;
+            double bestNextGain = -Double.MAX_VALUE;
+            for (int candidate : neighborLists.get(t2)) {
+                double partialGain = gain - costFunction.cost(t2, candidate);
+                if (partialGain <= TwoOpt.EPSILON) {
+                    break;
+                }
+                int candidateT4 = successor(tour, t1, t2, candidate);
+                if (candidateT4 < 0 || wasAdded(depth, candidate, candidateT4)) {
+                    continue;
+                }
+                double nextGain = partialGain + costFunction.cost(candidate, candidateT4);
+                if (nextGain > bestNextGain) {
+                    bestNextGain = nextGain;
+                    bestT3 = candidate;
+                    bestT4 = candidateT4;
+                }
+            }
+            if (bestT3 < 0) {
+                break;
+            }
+            gain -= costFunction.cost(t2, bestT3);
+            t3 = bestT3;
+            t4 = bestT4;
+        }
+
+        while (depth > bestDepth) {
+            depth--;
+            tour.exchange(chain[4 * depth], chain[4 * depth + 2], chain[4 * depth + 1], chain[4 * depth + 3]);
+        }
+        if (bestDepth == 0 || bestGain <= TwoOpt.EPSILON) {
+            return null;
+        }
+        totalGain += bestGain;
+        int[] touched = new int[1 + 2 * bestDepth];
+        touched[0] = chain[1];
+        for (int move = 0; move < bestDepth; move++) {
+            touched[1 + 2 * move] = chain[4 * move + 2];
+            touched[2 + 2 * move] = chain[4 * move + 3];
+        }
+        return touched;
+    }
+
+    /**
+     * @return true if the edge (a, b) has been added by one of the moves of the chain
+     */
+    private boolean wasAdded(int depth, int a, int b) {
+        for (int move = 0; move < depth; move++) {
+            int from = chain[4 * move];
+            int to = chain[4 * move + 2];
+            if ((from == a && to == b) || (from == b && to == a)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * improves the tour until the time budget ends
+     * @return the best tour found
+     */
+    public Tour optimize(Tour tour, long timeLimitMillis) {
+        return optimize(tour, timeLimitMillis, new Random());
+    }
+
+    /**
+     * improves the tour until the time budget ends, using the random generator for the kicks
+     * @return the best tour found
+     */
+    public Tour optimize(Tour tour, long timeLimitMillis, Random random) {
+        return optimize(tour, CancellationToken.withTimeout(timeLimitMillis), random);
+    }
+
+    /**
+     * improves the tour until the token is canceled, using the random generator for the kicks
+     * @return the best tour found
+     */
+    public Tour optimize(Tour tour, CancellationToken cancellationToken, Random random) {
+        int n = tour.size();
+        JournaledTour current = new JournaledTour(n >= TWO_LEVEL_TOUR_THRESHOLD ? new TwoLevelTour(tour) : new ArrayTour(tour));
+        LocalSearch search = new LocalSearch(this);
+        search.optimize(current, current.getOrder(), cancellationToken);
+        current.commit();
+
+        while (n >= 8 && !cancellationToken.isCanceled()) {
+            totalGain = 0;
+            int[] kicked = new int[6];
+            double kickCost = kick(current, random, kicked);
+            search.optimize(current, kicked, cancellationToken);
+            if (kickCost - totalGain < -TwoOpt.EPSILON) {
+                current.commit();
+            }
+            else {
+                current.rollback();
+            }
+        }
+        moves += search.getMoves();
+        return new ArrayTour(current.getOrder());
+    }
+
+    /**
+     * @return the number of improving moves found by optimize() so far, including the ones
+     * rolled back with their kick
+     */
+    public long getMoves() {
+        return moves;
+    }
+
+    /**
+     * swaps two consecutive random segments B and C, turning x B C y into x C B y
+     * @return the increase of the tour length
+     */
+    private double kick(Tour tour, Random random, int[] kicked) {
+        int n = tour.size();
+        int maxLength = Math.min(MAX_KICK_SEGMENT, (n - 2) / 2);
+        int lengthB = 1 + random.nextInt(maxLength);
+        int lengthC = 1 + random.nextInt(maxLength);
+        int b1 = tour.getCity(random.nextInt(n));
+        int b2 = b1;
+        for (int k = 1; k < lengthB; k++) {
+            b2 = tour.next(b2);
+        }
+        int c1 = tour.next(b2);
+        int c2 = c1;
+        for (int k = 1; k < lengthC; k++) {
+            c2 = tour.next(c2);
+        }
+        int x = tour.previous(b1);
+        int y = tour.next(c2);
+
+        double cost = costFunction.cost(x, c1) + costFunction.cost(c2, b1) + costFunction.cost(b2, y)
+                    - costFunction.cost(x, b1) - costFunction.cost(b2, c1) - costFunction.cost(c2, y);
+        tour.moveSegment(b1, b2, c2, y, b1);
+        kicked[0] = x;
+        kicked[1] = b1;
+        kicked[2] = b2;
+        kicked[3] = c1;
+        kicked[4] = c2;
+        kicked[5] = y;
+        return cost;
+    }
+
+    /**
+     * A tour that records its reversals since the last commit, so that they can be undone.
+     */
+    private static class JournaledTour extends Tour {
+
+        private final Tour tour;
+        private int[] journal = new int[64];
+        private int journalSize;
+
+        JournaledTour(Tour tour) {
+            this.tour = tour;
+        }
+
+        @Override
+        public int size() {
+            return tour.size();
+        }
+
+        @Override
+        public int getCity(int position) {
+            return tour.getCity(position);
+        }
+
+        @Override
+        public int getPosition(int city) {
+            return tour.getPosition(city);
+        }
+
+        @Override
+        public int next(int city) {
+            return tour.next(city);
+        }
+
+        @Override
+        public int previous(int city) {
+            return tour.previous(city);
+        }
+
+        @Override
+        public void reverse(int i, int j) {
+            if (journalSize + 2 > journal.length) {
+                journal = Arrays.copyOf(journal, 2 * journal.length);
+            }
+            journal[journalSize++] = i;
+            journal[journalSize++] = j;
+            tour.reverse(i, j);
+        }
+
+        @Override
+        public int[] getOrder() {
+            return tour.getOrder();
+        }
+
+        void commit() {
+            journalSize = 0;
+        }
+
+        /**
+         * undoes the reversals since the last commit, in reverse order: every reversal undoes itself
+         */
+        void rollback() {
+            while (journalSize > 0) {
+                journalSize -= 2;
+                tour.reverse(journal[journalSize], journal[journalSize + 1]);
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package graphlab.algorithms.travelingsalesmanproblem;
+
+import graphlab.utils.CancellationToken;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Improves a tour with one or more neighborhoods until no improving move is left.
+ *
+ * Every city has a don't-look bit: the cities to look at are kept in a queue, a city leaves the
+ * queue when no neighborhood finds an improving move around it, and gets back only when one of
+ * its tour edges changes. The neighborhoods are tried in order on every city, so the cheaper
+ * ones should come first; this way every pass after the first one only looks at the parts of
+ * the tour that changed.
+ */
+public class LocalSearch {
+
+    // how often the cancellation token is checked, in cities looked at
+    private static final int CANCELLATION_CHECK_STEPS = 64;
+
+    private final Neighborhood[] neighborhoods;
+    private long moves;
+
+    public LocalSearch(Neighborhood... neighborhoods) {
+        this.neighborhoods = neighborhoods;
+    }
+
+    /**
+     * 2-opt, Or-opt and segment insertion
+     */
+    public static LocalSearch of(CostFunction costFunction, NeighborLists neighborLists) {
+        return new LocalSearch(new TwoOpt(costFunction, neighborLists), new OrOpt(costFunction, neighborLists), new SegmentInsertion(costFunction, neighborLists));
+    }
+
+    /**
+     * improves the tour until it's a local optimum for all the neighborhoods
+     * @return the number of moves applied
+     */
+    public long optimize(Tour tour) {
+        int[] cities = new int[tour.size()];
+        for (int position = 0; position < cities.length; position++) {
+            cities[position] = tour.getCity(position);
+        }
+        return optimize(tour, cities);
+    }
+
+    /**
+     * improves the tour looking only at the given cities and at the ones touched by the moves
+     * @return the number of moves applied
+     */
+    public long optimize(Tour tour, int[] cities) {
+        return optimize(tour, cities, CancellationToken.NONE);
+    }
+
+    /**
+     * improves the tour looking only at the given cities and at the ones touched by the moves,
+     * stopping early when the token is canceled
+     * @return the number of moves applied
+     */
+    public long optimize(Tour tour, int[] cities, CancellationToken cancellationToken) {
+        if (tour.size() < 4) {
+            return 0;
+        }
+        long startingMoves = moves;
+        boolean[] inQueue = new boolean[tour.size()];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int city : cities) {
+            push(city, queue, inQueue);
+        }
+
+        for (int steps = 1; !queue.isEmpty(); steps++) {
+            if (steps % CANCELLATION_CHECK_STEPS == 0 && cancellationToken.isCanceled()) {
+                break;
+            }
+            int city = queue.poll();
+            inQueue[city] = false;
+            for (Neighborhood neighborhood : neighborhoods) {
+                int[] touched = neighborhood.improve(tour, city);
+                if (touched != null) {
+                    moves++;
+                    for (int touchedCity : touched) {
+                        push(touchedCity, queue, inQueue);
+                    }
+                    break;
+                }
+            }
+        }
+        return moves - startingMoves;
+    }
+
+    private static void push(int city, Deque<Integer> queue, boolean[] inQueue) {
+        if (!inQueue[city]) {
+            inQueue[city] = true;
+            queue.add(city);
+        }
+    }
+
+    /**
+     * @return the number of moves applied since the creation
+     */
+    public long getMoves() {
+        return moves;
+    }
+}
@@ -0,0 +1,52 @@
+package graphlab.algorithms.travelingsalesmanproblem;
+
+import java.util.stream.IntStream;
+
+/**
+ * The costs precomputed in a row-major float matrix: a lookup is a single array read, instead of
+ * a square root or a search among the edges, and the row of a city is contiguous in memory. It
+ * takes 4n^2 bytes, so it's meant for up to some tens of thousands of cities; the costs need not
+ * be symmetric.
+ */
+public class MatrixCostFunction implements CostFunction {
+
+    public static final int MAX_SIZE = 20_000;
+
+    private final int n;
+    private final float[] costs;
+
+    public MatrixCostFunction(int n, float[] costs) throws Exception {
+        if ((long) n * n != costs.length) {
+            throw new Exception("A matrix of " + n + " cities needs " + (long) n * n + " costs, not " + costs.length + ".");
+        }
+        this.n = n;
+        this.costs = costs;
+    }
+
+    /**
+     * precomputes all the costs of the cost function, in parallel
+     */
+    public static MatrixCostFunction of(CostFunction costFunction) throws Exception {
+        int n = costFunction.size();
+        if (n > MAX_SIZE) {
+            throw new Exception("The cost matrix is limited to " + MAX_SIZE + " cities, and there are " + n + ".");
+        }
+        float[] costs = new float[n * n];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            for (int j = 0; j < n; j++) {
+                costs[i * n + j] = (float) costFunction.cost(i, j);
+            }
+        });
+        return new MatrixCostFunction(n, costs);
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    @Override
+    public double cost(int i, int j) {
+        return costs[i * n + j];
+    }
+}
@@ -0,0 +1,150 @@
+package graphlab.algorithms.travelingsalesmanproblem;
+
+import graphlab.utils.CancellationToken;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs many independent searches in parallel, each one from a different starting tour (the
+ * space filling curve for the first one, then nearest neighbour from a random city and random
+ * tours in turn), improving it with the local search and then with iterated Lin-Kernighan. The
+ * best tour found so far is shared through an AtomicReference and replaced with a compare and set
+ * only when a worker finds a shorter one, so the workers never wait for each other. Everything
+ * stops at the deadline, or as soon as the cancellation token is canceled.
+ */
+public class MultiStart {
+
+    private final CostFunction costFunction;
+    private final NeighborLists neighborLists;
+    private final double[] xs;
+    private final double[] ys;
+    private final AtomicReference<Solution> best = new AtomicReference<>();
+
+    public MultiStart(CostFunction costFunction, NeighborLists neighborLists) {
+        this(costFunction, neighborLists,
+                costFunction instanceof EuclideanCostFunction ? ((EuclideanCostFunction) costFunction).getXs() : null,
+                costFunction instanceof EuclideanCostFunction ? ((EuclideanCostFunction) costFunction).getYs() : null);
+    }
+
+    /**
+     * with the coordinates of the cities, null if there are none, that build the starting tours
+     * on the spatial grid even when the costs are not the euclidean distances
+     */
+    public MultiStart(CostFunction costFunction, NeighborLists neighborLists, double[] xs, double[] ys) {
+        this.costFunction = costFunction;
+        this.neighborLists = neighborLists;
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    public MultiStart(CostFunction costFunction) {
+        this(costFunction, NeighborLists.nearest(costFunction, NeighborLists.DEFAULT_SIZE));
+    }
+
+    /**
+     * runs the starts on the common pool
+     * @return the best tour found
+     */
+    public Tour run(int starts, long timeLimitMillis) {
+        return run(ForkJoinPool.commonPool(), starts, timeLimitMillis);
+    }
+
+    /**
+     * runs the starts on the pool, giving each one an equal share of the time of the threads
+     * @return the best tour found
+     */
+    public Tour run(ForkJoinPool pool, int starts, long timeLimitMillis) {
+        return run(pool, starts, timeLimitMillis, CancellationToken.NONE);
+    }
+
+    /**
+     * runs the starts on the pool, giving each one an equal share of the time of the threads,
+     * until the time budget ends or the token is canceled
+     * @return the best tour found
+     */
+    public Tour run(ForkJoinPool pool, int starts, long timeLimitMillis, CancellationToken cancellationToken) {
+        CancellationToken runToken = cancellationToken.child(timeLimitMillis);
+        long sliceMillis = timeLimitMillis * pool.getParallelism() / Math.max(1, starts);
+
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (int start = 0; start < starts; start++) {
+            final int startNumber = start;
+            // the slice starts when the worker picks the start up
+            tasks.add(pool.submit(() -> search(startNumber, runToken.child(sliceMillis))));
+        }
+        tasks.forEach(ForkJoinTask::join);
+        return new ArrayTour(best.get().order);
+    }
+
+    private void search(int start, CancellationToken cancellationToken) {
+        // the first start always runs, so that there's a tour even with a tiny budget
+        if (start > 0 && cancellationToken.isCanceled()) {
+            return;
+        }
+        Random random = new Random(start);
+        Tour tour = initialTour(start, random);
+        new LocalSearch(new TwoOpt(costFunction, neighborLists), new OrOpt(costFunction, neighborLists)).optimize(tour, tour.getOrder(), cancellationToken);
+        publish(tour);
+
+        if (!cancellationToken.isCanceled()) {
+            publish(new LinKernighan(costFunction, neighborLists).optimize(tour, cancellationToken, random));
+        }
+    }
+
+    /**
+     * the space filling curve for the first start only, since it's always the same tour, and
+     * then nearest neighbour from a random city and random tours in turn
+     */
+    private Tour initialTour(int start, Random random) {
+        int n = costFunction.size();
+        if (start == 0) {
+            return xs != null ? InitialTours.spaceFillingCurve(xs, ys) : nearestNeighbor(0);
+        }
+        if (start % 2 == 1) {
+            return nearestNeighbor(random.nextInt(n));
+        }
+        return InitialTours.random(n, random);
+    }
+
+    private Tour nearestNeighbor(int startingCity) {
+        return xs != null ? InitialTours.nearestNeighbor(xs, ys, startingCity) : InitialTours.nearestNeighbor(costFunction, startingCity);
+    }
+
+    /**
+     * replaces the shared best tour if this one is shorter
+     */
+    private void publish(Tour tour) {
+        Solution solution = new Solution(tour.getOrder(), tour.length(costFunction));
+        Solution current = best.get();
+        while (current == null || solution.length < current.length) {
+            if (best.compareAndSet(current, solution)) {
+                return;
+            }
+            current = best.get();
+        }
+    }
+
+    /**
+     * @return the length of the best tour found so far, Double.MAX_VALUE if none yet
+     */
+    public double getBestLength() {
+        Solution solution = best.get();
+        return solution == null ? Double.MAX_VALUE : solution.length;
+    }
+
+    private static class Solution {
+
+        final int[] order;
+        final double length;
+
+        Solution(int[] order, double length) {
+            this.order = order;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package graphlab.algorithms.travelingsalesmanproblem;
+
+import graphlab.datastructures.SpatialGrid;
+
+import java.util.stream.IntStream;
+
+/**
+ * The candidate lists of the local search: for every city, its k nearest cities sorted by cost.
+ * Good moves almost always add an edge towards one of the nearest cities, so looking only at
+ * these makes every search step O(k) instead of O(n).
+ */
+public class NeighborLists {
+
+    public static final int DEFAULT_SIZE = 10;
+
+    private final int[][] neighbors;
+
+    private NeighborLists(int[][] neighbors) {
+        this.neighbors = neighbors;
+    }
+
+    /**
+     * the nearest cities on the plane, found with a spatial grid in about O(n k log k); the
+     * cities are queried cell by cell, so that close queries read the same memory
+     */
+    public static NeighborLists nearest(double[] xs, double[] ys, int k) {
+        SpatialGrid grid = new SpatialGrid(xs, ys);
+        int size = Math.min(k, xs.length - 1);
+        int[] cities = grid.getPointsByCell();
+        int[][] neighbors = new int[xs.length][];
+        IntStream.range(0, cities.length).parallel().forEach(position -> neighbors[cities[position]] = grid.nearest(cities[position], size));
+        return new NeighborLists(neighbors);
+    }
+
+    public static NeighborLists nearest(EuclideanCostFunction costFunction, int k) {
+        return nearest(costFunction.getXs(), costFunction.getYs(), k);
+    }
+
+    /**
+     * the nearest cities for any cost function, comparing every pair of cities: O(n^2 k), unless
+     * the costs are euclidean distances
+     */
+    public static NeighborLists nearest(CostFunction costFunction, int k) {
+        if (costFunction instanceof EuclideanCostFunction) {
+            return nearest((EuclideanCostFunction) costFunction, k);
+        }
+        int n = costFunction.size();
+        int size = Math.max(0, Math.min(k, n - 1));
+        return new NeighborLists(IntStream.range(0, n).parallel().mapToObj(city -> {
+            int[] best = new int[size];
+            double[] bestCosts = new double[size];
+            int found = 0;
+            for (int other = 0; other < n; other++) {
+                if (other == city) {
+                    continue;
+                }
+                double cost = costFunction.cost(city, other);
+                if (found < size || cost < bestCosts[found - 1]) {
+                    int position = found < size ? found++ : found - 1;
+                    while (position > 0 && bestCosts[position - 1] > cost) {
+                        best[position] = best[position - 1];
+                        bestCosts[position] = bestCosts[position - 1];
+                        position--;
+                    }
+                    best[position] = other;
+                    bestCosts[position] = cost;
+                }
+            }
+            return best;
+        }).toArray(int[][]::new));
+    }
+
+    /**
+     * @return the neighbors of the city, the nearest first
+     */
+    public int[] get(int city) {
+        return neighbors[city];
+    }
+
+    public int size() {
+        return neighbors.length;
+    }
+}
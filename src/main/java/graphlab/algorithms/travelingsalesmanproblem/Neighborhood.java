@@ -0,0 +1,13 @@
+package graphlab.algorithms.travelingsalesmanproblem;
+
+/**
+ * A kind of improving move of the local search.
+ */
+public interface Neighborhood {
+
+    /**
+     * applies the first improving move found around the city
+     * @return the cities whose tour edges changed, or null if there's no improving move
+     */
+    int[] improve(Tour tour, int city);
+}
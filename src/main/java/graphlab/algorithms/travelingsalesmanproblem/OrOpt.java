@@ -0,0 +1,90 @@
+package graphlab.algorithms.travelingsalesmanproblem;
+
+/**
+ * Or-opt: a path of one to three cities is removed from the tour, its two neighbours are joined,
+ * and the path is put back between two other adjacent cities, either as it was or reversed. The
+ * new position is searched only next to the neighbors of the two ends of the path, and every
+ * gain is computed in O(1).
+ */
+public class OrOpt implements Neighborhood {
+
+    public static final int MAX_SEGMENT_LENGTH = 3;
+
+    private final CostFunction costFunction;
+    private final NeighborLists neighborLists;
+
+    public OrOpt(CostFunction costFunction, NeighborLists neighborLists) {
+        this.costFunction = costFunction;
+        this.neighborLists = neighborLists;
+    }
+
+    /**
+     * tries the paths that start or end with the city
+     */
+    @Override
+    public int[] improve(Tour tour, int city) {
+        for (int length = 1; length <= MAX_SEGMENT_LENGTH && length + 4 <= tour.size(); length++) {
+            for (int direction = 0; direction < 2; direction++) {
+                // s1..s2 is the path going forward
+                int s1 = city;
+                int s2 = city;
+                for (int k = 1; k < length; k++) {
+                    if (direction == 0) {
+                        s2 = tour.next(s2);
+                    }
+                    else {
+                        s1 = tour.previous(s1);
+                    }
+                }
+                if (direction == 1 && length == 1) {
+                    continue;
+                }
+                int[] touched = improve(tour, s1, s2, length);
+                if (touched != null) {
+                    return touched;
+                }
+            }
+        }
+        return null;
+    }
+
+    private int[] improve(Tour tour, int s1, int s2, int length) {
+        int p = tour.previous(s1);
+        int nx = tour.next(s2);
+        double removalGain = costFunction.cost(p, s1) + costFunction.cost(s2, nx) - costFunction.cost(p, nx);
+        if (removalGain <= TwoOpt.EPSILON) {
+            return null;
+        }
+
+        for (int end = 0; end < 2; end++) {
+            for (int x : neighborLists.get(end == 0 ? s1 : s2)) {
+                if (isInPath(tour, x, s1, length)) {
+                    continue;
+                }
+                for (int side = 0; side < 2; side++) {
+                    int y = side == 0 ? tour.next(x) : tour.previous(x);
+                    if (isInPath(tour, y, s1, length)) {
+                        continue;
+                    }
+                    double edgeCost = costFunction.cost(x, y);
+                    double straight = costFunction.cost(x, s1) + costFunction.cost(s2, y) - edgeCost;
+                    double reversed = costFunction.cost(x, s2) + costFunction.cost(s1, y) - edgeCost;
+                    if (removalGain - Math.min(straight, reversed) > TwoOpt.EPSILON) {
+                        tour.moveSegment(s1, s2, x, y, straight <= reversed ? s1 : s2);
+                        return new int[]{p, nx, s1, s2, x, y};
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isInPath(Tour tour, int city, int s1, int length) {
+        for (int k = 0, c = s1; k < length; k++, c = tour.next(c)) {
+            if (c == city) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,236 @@
+package graphlab.algorithms.travelingsalesmanproblem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * 2-opt on a single tour with many threads. The positions of the array tour are split in as many
+ * contiguous chunks as the threads, and every thread improves its own chunk with the moves whose
+ * four cities are all inside it: such a move only reverses positions of the chunk, so the threads
+ * never write the same cells and the moves of a round are applied together without locks. A
+ * thread may read the position of a city of another chunk while it's being written, but any
+ * value it reads is outside its own chunk, so that move is just skipped.
+ *
+ * The moves across the borders of the chunks are left out, so at every round the tour is rotated
+ * by half a chunk, moving the borders, and only the cities that had a move out of their chunk
+ * are looked at again; when a round finds few moves, a last sequential 2-opt from those cities
+ * finishes the work, including the long reversals that no chunk holds.
+ */
+public class ParallelTwoOpt {
+
+    // the parallel rounds stop when a round finds less than this part of the moves of the first
+    private static final double LAST_ROUND_MOVES = 0.01;
+    // below this number of cities per chunk, the sequential 2-opt is used directly
+    private static final int MIN_CHUNK_SIZE = 1000;
+
+    private final CostFunction costFunction;
+    private final NeighborLists neighborLists;
+    private long moves;
+
+    public ParallelTwoOpt(CostFunction costFunction, NeighborLists neighborLists) {
+        this.costFunction = costFunction;
+        this.neighborLists = neighborLists;
+    }
+
+    /**
+     * improves the tour on the common pool until it's 2-optimal with respect to the neighbor lists
+     * @return the improved tour
+     */
+    public ArrayTour optimize(Tour tour) {
+        return optimize(ForkJoinPool.commonPool(), tour, report -> {});
+    }
+
+    /**
+     * improves the tour on the pool until it's 2-optimal with respect to the neighbor lists,
+     * reporting the moves per second of every thread
+     * @return the improved tour
+     */
+    public ArrayTour optimize(ForkJoinPool pool, Tour tour, Consumer<String> onReport) {
+        int n = tour.size();
+        int threads = pool.getParallelism();
+        int chunkSize = n / threads;
+        int[] order = tour.getOrder();
+        int[] positions = new int[n];
+        long[] threadMoves = new long[threads];
+        long[] threadNanos = new long[threads];
+        // the cities that may still have an improving move, because one was out of their chunk
+        boolean[] pending = new boolean[n];
+        Arrays.fill(pending, true);
+        boolean[] inQueue = new boolean[n];
+
+        long firstRoundMoves = -1;
+        for (int round = 0; chunkSize >= MIN_CHUNK_SIZE; round++) {
+            if (round > 0) {
+                rotate(order, chunkSize / 2);
+            }
+            for (int position = 0; position < n; position++) {
+                positions[order[position]] = position;
+            }
+
+            long roundMoves = -sum(threadMoves);
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                int start = thread * chunkSize;
+                int end = thread == threads - 1 ? n : start + chunkSize;
+                int slot = thread;
+                tasks.add(pool.submit(() -> {
+                    long startTime = System.nanoTime();
+                    threadMoves[slot] += improveChunk(order, positions, pending, inQueue, start, end);
+                    threadNanos[slot] += System.nanoTime() - startTime;
+                }));
+            }
+            tasks.forEach(ForkJoinTask::join);
+            roundMoves += sum(threadMoves);
+
+            if (firstRoundMoves < 0) {
+                firstRoundMoves = roundMoves;
+            }
+            if (roundMoves <= LAST_ROUND_MOVES * firstRoundMoves) {
+                break;
+            }
+        }
+        long parallelMoves = sum(threadMoves);
+        for (int thread = 0; thread < threads; thread++) {
+            double seconds = threadNanos[thread] / 1e9;
+            onReport.accept(String.format("thread %d: %d moves in %.3f s, %.0f moves/s", thread, threadMoves[thread], seconds, seconds > 0 ? threadMoves[thread] / seconds : 0));
+        }
+
+        ArrayTour result = new ArrayTour(order);
+        long startTime = System.nanoTime();
+        int[] pendingCities = IntStream.range(0, n).filter(city -> pending[city]).toArray();
+        long sequentialMoves = new LocalSearch(new TwoOpt(costFunction, neighborLists)).optimize(result, pendingCities);
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        onReport.accept(String.format("sequential: %d moves in %.3f s, %.0f moves/s", sequentialMoves, seconds, seconds > 0 ? sequentialMoves / seconds : 0));
+        moves += parallelMoves + sequentialMoves;
+        return result;
+    }
+
+    /**
+     * 2-opt restricted to the positions from start (included) to end (excluded), with a queue of
+     * the pending cities to look at as in LocalSearch; a city stays pending only if one of its
+     * moves was skipped because it was out of the chunk
+     * @return the number of moves applied
+     */
+    private long improveChunk(int[] order, int[] positions, boolean[] pending, boolean[] inQueue, int start, int end) {
+        int size = end - start;
+        // a circular queue of the cities of the chunk; every thread only marks its own cities
+        int[] queue = new int[size];
+        int head = 0;
+        int queueSize = 0;
+        for (int position = start; position < end; position++) {
+            if (pending[order[position]]) {
+                queue[queueSize++] = order[position];
+                inQueue[order[position]] = true;
+            }
+        }
+
+        long chunkMoves = 0;
+        while (queueSize > 0) {
+            int a = queue[head];
+            head = head + 1 == size ? 0 : head + 1;
+            queueSize--;
+            inQueue[a] = false;
+            pending[a] = false;
+
+            int[] touched = improve(order, positions, pending, start, end, a, positions[a]);
+            if (touched != null) {
+                chunkMoves++;
+                for (int city : touched) {
+                    if (!inQueue[city]) {
+                        inQueue[city] = true;
+                        queue[(head + queueSize++) % size] = city;
+                    }
+                }
+            }
+        }
+        return chunkMoves;
+    }
+
+    /**
+     * looks for an improving move of the chunk with a new edge from a, at position i, to one of
+     * its neighbors, and applies the first one found; a is left pending if a move that might
+     * improve the tour was out of the chunk
+     * @return the four cities of the move, null if none improves the tour
+     */
+    private int[] improve(int[] order, int[] positions, boolean[] pending, int start, int end, int a, int i) {
+        for (int direction = 0; direction < 2; direction++) {
+            boolean forward = direction == 0;
+            int j = forward ? i + 1 : i - 1;
+            if (j < start || j >= end) {
+                pending[a] = true;
+                continue;
+            }
+            int b = order[j];
+            double removedCost = costFunction.cost(a, b);
+            for (int c : neighborLists.get(a)) {
+                double partialGain = removedCost - costFunction.cost(a, c);
+                if (partialGain <= TwoOpt.EPSILON) {
+                    break;
+                }
+                int k = positions[c];
+                int l = forward ? k + 1 : k - 1;
+                if (k < start || k >= end || l < start || l >= end) {
+                    pending[a] = true;
+                    continue;
+                }
+                if (c == b || l == i) {
+                    continue;
+                }
+                int d = order[l];
+                if (partialGain + costFunction.cost(c, d) - costFunction.cost(b, d) > TwoOpt.EPSILON) {
+                    // reverses the path between the two removed edges
+                    if (forward) {
+                        reverse(order, positions, Math.min(i, k) + 1, Math.max(i, k));
+                    }
+                    else {
+                        reverse(order, positions, Math.min(i, k), Math.max(i, k) - 1);
+                    }
+                    return new int[]{a, b, c, d};
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void reverse(int[] order, int[] positions, int i, int j) {
+        for (; i < j; i++, j--) {
+            int cityI = order[i];
+            int cityJ = order[j];
+            order[i] = cityJ;
+            positions[cityJ] = i;
+            order[j] = cityI;
+            positions[cityI] = j;
+        }
+    }
+
+    /**
+     * moves the city at every position shift positions back
+     */
+    private static void rotate(int[] order, int shift) {
+        int[] rotated = new int[order.length];
+        for (int position = 0; position < order.length; position++) {
+            rotated[position] = order[(position + shift) % order.length];
+        }
+        System.arraycopy(rotated, 0, order, 0, order.length);
+    }
+
+    private static long sum(long[] values) {
+        long sum = 0;
+        for (long value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    /**
+     * @return the number of moves applied so far
+     */
+    public long getMoves() {
+        return moves;
+    }
+}
@@ -0,0 +1,84 @@
+package graphlab.algorithms.travelingsalesmanproblem;
+
+/**
+ * Restricted 3-opt, the "segment insertion" moves: a path b..c of any length is cut out between
+ * a and d and inserted between two adjacent cities e and f elsewhere in the tour, either as it
+ * is (e b .. c f) or reversed (e c .. b f); these are the 3-opt moves that keep the rest of the
+ * tour as it is, and that 2-opt cannot do in one step.
+ *
+ * The moves are searched sequentially, as in Lin-Kernighan: starting from the removed edge
+ * (a, b), the first new edge goes from b to one of its neighbors, then the second one goes from
+ * the other end of the removed edge to one of its neighbors, and the move is closed with (a, d);
+ * the search stops as soon as the partial gain is not positive, so only O(k^2) moves are
+ * evaluated for every city.
+ */
+public class SegmentInsertion implements Neighborhood {
+
+    private final CostFunction costFunction;
+    private final NeighborLists neighborLists;
+
+    public SegmentInsertion(CostFunction costFunction, NeighborLists neighborLists) {
+        this.costFunction = costFunction;
+        this.neighborLists = neighborLists;
+    }
+
+    @Override
+    public int[] improve(Tour tour, int a) {
+        if (tour.size() < 8) {
+            return null;
+        }
+        for (int direction = 0; direction < 2; direction++) {
+            boolean forward = direction == 0;
+            int b = step(tour, a, forward);
+            double removedCost = costFunction.cost(a, b);
+
+            for (int t3 : neighborLists.get(b)) {
+                double gain1 = removedCost - costFunction.cost(b, t3);
+                if (gain1 <= TwoOpt.EPSILON) {
+                    break;
+                }
+                if (t3 == a) {
+                    continue;
+                }
+                // straight: new edge (b, e), then (f, c); reversed: new edge (b, f), then (e, c)
+                for (int variant = 0; variant < 2; variant++) {
+                    boolean reversed = variant == 1;
+                    int e = reversed ? step(tour, t3, !forward) : t3;
+                    int f = reversed ? t3 : step(tour, t3, forward);
+                    int t4 = reversed ? e : f;
+                    if (e == a || e == b || f == b) {
+                        continue;
+                    }
+                    double gain2 = gain1 + costFunction.cost(e, f);
+                    for (int c : neighborLists.get(t4)) {
+                        double gain3 = gain2 - costFunction.cost(t4, c);
+                        if (gain3 <= TwoOpt.EPSILON) {
+                            break;
+                        }
+                        // c must be on the path from b to e, with its successor d not beyond e
+                        if (c == e || !isBetween(tour, b, c, e, forward)) {
+                            continue;
+                        }
+                        int d = step(tour, c, forward);
+                        double gain = gain3 + costFunction.cost(c, d) - costFunction.cost(d, a);
+                        if (gain > TwoOpt.EPSILON && !(d == e && f == a)) {
+                            int s1 = forward ? b : c;
+                            int s2 = forward ? c : b;
+                            tour.moveSegment(s1, s2, e, f, reversed ? c : b);
+                            return new int[]{a, b, c, d, e, f};
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static int step(Tour tour, int city, boolean forward) {
+        return forward ? tour.next(city) : tour.previous(city);
+    }
+
+    private static boolean isBetween(Tour tour, int a, int b, int c, boolean forward) {
+        return forward ? tour.between(a, b, c) : tour.between(c, b, a);
+    }
+}
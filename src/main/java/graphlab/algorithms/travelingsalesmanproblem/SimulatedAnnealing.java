@@ -0,0 +1,310 @@
+package graphlab.algorithms.travelingsalesmanproblem;
+
+import graphlab.utils.CancellationToken;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * Anytime simulated annealing with parallel tempering: some replicas of the tour are annealed at
+ * the same time, each one on its own thread and at its own temperature, from the coldest to the
+ * hottest. A move is a 2-opt move towards one of the neighbors of a random city, and its gain is
+ * computed in O(1) from the four costs; a worsening move of delta is accepted with probability
+ * exp(-delta / T). The replicas run in rounds, and between rounds:
+ * <ul>
+ * <li>every temperature is adapted so that its rate of accepted moves follows a target that
+ * decreases with the elapsed part of the time budget (the colder the replica, the lower the
+ * target), so the schedule doesn't depend on the scale of the costs nor on the budget</li>
+ * <li>adjacent replicas swap their tours with probability
+ * min(1, exp((length(i) - length(i + 1)) * (1 / T(i) - 1 / T(i + 1)))), so that the good tours
+ * sink to the cold replicas and the cold ones can escape their local minima going up</li>
+ * <li>the best tour found so far, if improved, is passed to the callback, at most once every
+ * report interval</li>
+ * </ul>
+ * Every replica keeps the shortest tour it went through, also in the middle of a round, so no
+ * improvement is lost. Everything stops at the deadline, or as soon as the cancellation token is
+ * canceled, and the best tour is returned.
+ */
+public class SimulatedAnnealing {
+
+    public static final int DEFAULT_REPLICAS = 4;
+    public static final long DEFAULT_REPORT_INTERVAL_MILLIS = 100;
+    private static final int SAMPLED_MOVES = 1000;
+    private static final int CANCELLATION_CHECK_INTERVAL = 256;
+
+    // the targets of the rates of accepted moves, at the start and at the end of the budget
+    private static final double START_ACCEPTANCE = 0.4;
+    private static final double END_ACCEPTANCE_COLDEST = 0.001;
+    private static final double END_ACCEPTANCE_HOTTEST = 0.05;
+
+    private final CostFunction costFunction;
+    private final NeighborLists neighborLists;
+    private final int replicasNumber;
+    private final long reportIntervalMillis;
+    private long moves;
+
+    public SimulatedAnnealing(CostFunction costFunction, NeighborLists neighborLists) {
+        this(costFunction, neighborLists, DEFAULT_REPLICAS, DEFAULT_REPORT_INTERVAL_MILLIS);
+    }
+
+    public SimulatedAnnealing(CostFunction costFunction, NeighborLists neighborLists, int replicasNumber, long reportIntervalMillis) {
+        this.costFunction = costFunction;
+        this.neighborLists = neighborLists;
+        this.replicasNumber = Math.max(1, replicasNumber);
+        this.reportIntervalMillis = reportIntervalMillis;
+    }
+
+    /**
+     * simulated annealing on the 10 nearest neighbors of every city, with the default replicas
+     */
+    public static SimulatedAnnealing of(CostFunction costFunction) {
+        return new SimulatedAnnealing(costFunction, NeighborLists.nearest(costFunction, NeighborLists.DEFAULT_SIZE));
+    }
+
+    /**
+     * anneals the tour until the time budget ends
+     * @return the best tour found
+     */
+    public Tour optimize(Tour tour, long timeLimitMillis) {
+        return optimize(ForkJoinPool.commonPool(), tour, timeLimitMillis, new Random(), t -> {});
+    }
+
+    /**
+     * anneals the tour until the time budget ends, passing the improved tours to the callback
+     * @return the best tour found
+     */
+    public Tour optimize(Tour tour, long timeLimitMillis, Consumer<Tour> onImprovedTour) {
+        return optimize(ForkJoinPool.commonPool(), tour, timeLimitMillis, new Random(), onImprovedTour);
+    }
+
+    /**
+     * anneals the tour running the replicas on the pool until the time budget ends; the callback
+     * is called on the calling thread
+     * @return the best tour found
+     */
+    public Tour optimize(ForkJoinPool pool, Tour tour, long timeLimitMillis, Random random, Consumer<Tour> onImprovedTour) {
+        return optimize(pool, tour, timeLimitMillis, random, onImprovedTour, CancellationToken.NONE);
+    }
+
+    /**
+     * anneals the tour running the replicas on the pool until the time budget ends or the token
+     * is canceled; the schedule of the temperatures always follows the whole time budget
+     * @return the best tour found
+     */
+    public Tour optimize(ForkJoinPool pool, Tour tour, long timeLimitMillis, Random random, Consumer<Tour> onImprovedTour, CancellationToken cancellationToken) {
+        long startTime = System.nanoTime();
+        long budget = timeLimitMillis * 1_000_000;
+        CancellationToken runToken = cancellationToken.child(timeLimitMillis);
+        int n = tour.size();
+        int[] bestOrder = tour.getOrder();
+        double bestLength = tour.length(costFunction);
+        if (n < 5) {
+            return new ArrayTour(bestOrder);
+        }
+
+        Replica[] replicas = new Replica[replicasNumber];
+        for (int k = 0; k < replicasNumber; k++) {
+            replicas[k] = new Replica(new ArrayTour(bestOrder), bestLength, new Random(random.nextLong()));
+        }
+        double[] temperatures = initialTemperatures(replicas[0]);
+        int movesPerRound = Math.max(10_000, 2 * n);
+
+        long lastReport = startTime;
+        boolean reported = true;
+        while (!runToken.isCanceled()) {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            for (int k = 0; k < replicasNumber; k++) {
+                Replica replica = replicas[k];
+                double temperature = temperatures[k];
+                tasks.add(pool.submit(() -> replica.anneal(temperature, movesPerRound, runToken)));
+            }
+            tasks.forEach(ForkJoinTask::join);
+
+            double elapsed = Math.min(1, (System.nanoTime() - startTime) / (double) budget);
+            for (int k = 0; k < replicasNumber; k++) {
+                moves += replicas[k].accepted;
+                temperatures[k] *= adaptation(replicas[k], targetAcceptance(k, elapsed));
+                if (k > 0 && temperatures[k] < temperatures[k - 1]) {
+                    temperatures[k] = temperatures[k - 1];
+                }
+                if (replicas[k].bestLength < bestLength - TwoOpt.EPSILON) {
+                    bestLength = replicas[k].bestLength;
+                    bestOrder = replicas[k].bestOrder;
+                    reported = false;
+                }
+            }
+            exchange(replicas, temperatures, random);
+
+            long now = System.nanoTime();
+            if (!reported && (now - lastReport) / 1_000_000 >= reportIntervalMillis) {
+                onImprovedTour.accept(new ArrayTour(bestOrder));
+                lastReport = now;
+                reported = true;
+            }
+        }
+        if (!reported) {
+            onImprovedTour.accept(new ArrayTour(bestOrder));
+        }
+        return new ArrayTour(bestOrder);
+    }
+
+    /**
+     * @return the number of moves accepted by all the replicas so far
+     */
+    public long getMoves() {
+        return moves;
+    }
+
+    /**
+     * sets the temperatures so that the hottest accepts the average worsening move with the
+     * starting target probability, and the others are spaced geometrically below it
+     */
+    private double[] initialTemperatures(Replica replica) {
+        double uphill = 0;
+        int uphillNumber = 0;
+        for (int sample = 0; sample < SAMPLED_MOVES; sample++) {
+            double delta = replica.proposeMove();
+            if (delta > 0 && delta != Double.MAX_VALUE) {
+                uphill += delta;
+                uphillNumber++;
+            }
+        }
+        double hottest = uphillNumber == 0 ? 1 : -(uphill / uphillNumber) / Math.log(START_ACCEPTANCE);
+        double[] temperatures = new double[replicasNumber];
+        for (int k = 0; k < replicasNumber; k++) {
+            temperatures[k] = hottest * Math.pow(0.5, replicasNumber - 1 - k);
+        }
+        return temperatures;
+    }
+
+    /**
+     * @return the target rate of accepted moves of the replica, when the elapsed part of the
+     * budget is elapsed; it goes geometrically from the start target to the end one, which is
+     * lower for the colder replicas
+     */
+    private double targetAcceptance(int k, double elapsed) {
+        double heat = replicasNumber == 1 ? 0 : k / (double) (replicasNumber - 1);
+        double end = END_ACCEPTANCE_COLDEST * Math.pow(END_ACCEPTANCE_HOTTEST / END_ACCEPTANCE_COLDEST, heat);
+        return START_ACCEPTANCE * Math.pow(end / START_ACCEPTANCE, elapsed);
+    }
+
+    /**
+     * @return the factor for the temperature of the replica, lower than 1 if it accepted more
+     * moves than the target and greater otherwise, limited so that the changes are smooth
+     */
+    private static double adaptation(Replica replica, double target) {
+        if (replica.proposed == 0) {
+            return 1;
+        }
+        double accepted = Math.max(replica.accepted, 1) / (double) replica.proposed;
+        return Math.max(0.8, Math.min(1.25, Math.sqrt(target / accepted)));
+    }
+
+    /**
+     * tries to swap the tours of every couple of adjacent replicas, from the coldest up
+     */
+    private static void exchange(Replica[] replicas, double[] temperatures, Random random) {
+        for (int k = 0; k + 1 < replicas.length; k++) {
+            double exponent = (replicas[k].length - replicas[k + 1].length) * (1 / temperatures[k] - 1 / temperatures[k + 1]);
+            if (exponent >= 0 || random.nextDouble() < Math.exp(exponent)) {
+                Replica swap = replicas[k];
+                replicas[k] = replicas[k + 1];
+                replicas[k + 1] = swap;
+            }
+        }
+    }
+
+    /**
+     * A tour being annealed, with its length, the shortest tour it went through and the
+     * statistics of its last round.
+     */
+    private class Replica {
+
+        final ArrayTour tour;
+        final Random random;
+        double length;
+        long proposed;
+        long accepted;
+        // null until the replica goes below the length of the starting tour
+        int[] bestOrder;
+        double bestLength;
+
+        // the proposed move: removes (a, b) and (c, d), adds (a, c) and (b, d)
+        int a;
+        int b;
+        int c;
+        int d;
+
+        Replica(ArrayTour tour, double length, Random random) {
+            this.tour = tour;
+            this.length = length;
+            this.random = random;
+            this.bestLength = length;
+        }
+
+        /**
+         * picks a random 2-opt move towards a neighbor
+         * @return the increase of the length of the tour, Double.MAX_VALUE if the move is not valid
+         */
+        double proposeMove() {
+            a = random.nextInt(tour.size());
+            int[] neighbors = neighborLists.get(a);
+            if (neighbors.length == 0) {
+                return Double.MAX_VALUE;
+            }
+            c = neighbors[random.nextInt(neighbors.length)];
+            boolean forward = random.nextBoolean();
+            b = forward ? tour.next(a) : tour.previous(a);
+            d = forward ? tour.next(c) : tour.previous(c);
+            if (c == b || d == a) {
+                return Double.MAX_VALUE;
+            }
+            return costFunction.cost(a, c) + costFunction.cost(b, d) - costFunction.cost(a, b) - costFunction.cost(c, d);
+        }
+
+        /**
+         * runs the moves at the temperature, keeping the shortest tour met along the way: the
+         * length is followed with the deltas, and the order is copied only when the tour is at a
+         * new minimum and a worsening move is about to leave it (or the round ends), so that a
+         * run of improving moves costs a single copy
+         */
+        void anneal(double temperature, int moves, CancellationToken cancellationToken) {
+            proposed = 0;
+            accepted = 0;
+            double currentLength = length;
+            boolean atBest = false;
+            for (int move = 0; move < moves; move++) {
+                if (move % CANCELLATION_CHECK_INTERVAL == 0 && cancellationToken.isCanceled()) {
+                    break;
+                }
+                double delta = proposeMove();
+                if (delta == Double.MAX_VALUE) {
+                    continue;
+                }
+                proposed++;
+                if (delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature)) {
+                    if (atBest && delta > 0) {
+                        bestOrder = tour.getOrder();
+                        atBest = false;
+                    }
+                    tour.exchange(a, b, c, d);
+                    accepted++;
+                    currentLength += delta;
+                    if (currentLength < bestLength - TwoOpt.EPSILON) {
+                        bestLength = currentLength;
+                        atBest = true;
+                    }
+                }
+            }
+            if (atBest) {
+                bestOrder = tour.getOrder();
+            }
+            // recomputed instead of summing the deltas, that would accumulate rounding errors
+            length = tour.length(costFunction);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package graphlab.algorithms.travelingsalesmanproblem;
+
+import graphlab.algorithms.MinimumSpanningTree;
+
+import java.util.Arrays;
+
+/**
+ * Construction heuristics built on the minimum spanning tree, that is never longer than the
+ * optimal tour (removing an edge from the tour leaves a spanning tree). With costs that respect
+ * the triangle inequality:
+ * <ul>
+ * <li>double tree: walking around the tree uses every edge twice, and skipping the cities already
+ * visited doesn't make the walk longer, so the tour is at most twice the optimal one</li>
+ * <li>Christofides: the cities with an odd degree in the tree are paired with a matching, so that
+ * the tree plus the matching has an Euler circuit, that is then shortcut in the same way; with a
+ * minimum matching the tour is at most 1.5 times the optimal one. Here the matching is greedy (the
+ * cheapest pairs first, looking only at the nearest odd cities), that loses the guarantee but in
+ * practice stays close to it</li>
+ * </ul>
+ * The tree is the euclidean one, O(n log n), when the costs are euclidean distances, and a dense
+ * Prim, O(n^2), otherwise.
+ */
+public class SpanningTreeTours {
+
+    private static final int MATCHING_CANDIDATES = 10;
+    private static final int ALL_PAIRS_THRESHOLD = 100;
+
+    /**
+     * visits the cities in the preorder of the minimum spanning tree, from city 0
+     */
+    public static ArrayTour doubleTree(CostFunction costFunction) {
+        int n = costFunction.size();
+        int[][] tree = spanningTree(costFunction);
+        int[][] adjacency = adjacency(n, tree[0], tree[1]);
+
+        int[] order = new int[n];
+        int visitedNumber = 0;
+        boolean[] visited = new boolean[n];
+        int[] stack = new int[Math.max(1, 2 * n)];
+        int stackSize = 0;
+        for (int root = 0; root < n; root++) {
+            if (visited[root]) {
+                continue;
+            }
+            stack[stackSize++] = root;
+            while (stackSize > 0) {
+                int city = stack[--stackSize];
+                if (visited[city]) {
+                    continue;
+                }
+                visited[city] = true;
+                order[visitedNumber++] = city;
+                int[] edges = adjacency[city];
+                for (int k = edges.length - 1; k >= 0; k--) {
+                    int other = other(tree, edges[k], city);
+                    if (!visited[other]) {
+                        stack[stackSize++] = other;
+                    }
+                }
+            }
+        }
+        return new ArrayTour(order);
+    }
+
+    /**
+     * shortcuts the Euler circuit of the minimum spanning tree plus a greedy matching of its odd
+     * degree cities, from city 0
+     */
+    public static ArrayTour christofides(CostFunction costFunction) {
+        int n = costFunction.size();
+        if (n < 3) {
+            return doubleTree(costFunction);
+        }
+        int[][] tree = spanningTree(costFunction);
+
+        int[] degrees = new int[n];
+        for (int k = 0; k < tree[0].length; k++) {
+            degrees[tree[0][k]]++;
+            degrees[tree[1][k]]++;
+        }
+        int[] odd = new int[n];
+        int oddNumber = 0;
+        for (int city = 0; city < n; city++) {
+            if (degrees[city] % 2 == 1) {
+                odd[oddNumber++] = city;
+            }
+        }
+        int[][] matching = greedyMatching(costFunction, Arrays.copyOf(odd, oddNumber));
+
+        // the tree and the matching together, as a multigraph
+        int treeSize = tree[0].length;
+        int[] sources = Arrays.copyOf(tree[0], treeSize + matching[0].length);
+        int[] targets = Arrays.copyOf(tree[1], sources.length);
+        System.arraycopy(matching[0], 0, sources, treeSize, matching[0].length);
+        System.arraycopy(matching[1], 0, targets, treeSize, matching[1].length);
+        int[][] circuit = new int[][]{sources, targets};
+
+        int[] order = new int[n];
+        int visitedNumber = 0;
+        boolean[] visited = new boolean[n];
+        for (int city : eulerCircuit(n, circuit)) {
+            if (!visited[city]) {
+                visited[city] = true;
+                order[visitedNumber++] = city;
+            }
+        }
+        return new ArrayTour(order);
+    }
+
+    /**
+     * @return the edges of the minimum spanning tree as two arrays, the sources and the targets
+     */
+    private static int[][] spanningTree(CostFunction costFunction) {
+        if (costFunction instanceof EuclideanCostFunction) {
+            EuclideanCostFunction euclidean = (EuclideanCostFunction) costFunction;
+            return MinimumSpanningTree.euclidean(euclidean.getXs(), euclidean.getYs());
+        }
+        int n = costFunction.size();
+        // the bits of a non negative float keep its order, so they can be compared as ints
+        int[] parents = MinimumSpanningTree.densePrim(n, (i, j) -> Float.floatToIntBits((float) costFunction.cost(i, j)));
+        int[] sources = new int[Math.max(0, n - 1)];
+        int[] targets = new int[sources.length];
+        int treeSize = 0;
+        for (int city = 0; city < n; city++) {
+            if (parents[city] >= 0) {
+                sources[treeSize] = parents[city];
+                targets[treeSize++] = city;
+            }
+        }
+        return new int[][]{Arrays.copyOf(sources, treeSize), Arrays.copyOf(targets, treeSize)};
+    }
+
+    /**
+     * pairs the cities taking the cheapest pairs first, looking only at the nearest cities of
+     * every city; the cities left alone are paired again in the same way among themselves, and
+     * the last few comparing all the couples
+     * @return the pairs as two arrays
+     */
+    private static int[][] greedyMatching(CostFunction costFunction, int[] cities) {
+        int[] sources = new int[cities.length / 2];
+        int[] targets = new int[sources.length];
+        int pairsNumber = 0;
+        while (cities.length > 0) {
+            CostFunction citiesCost = restrict(costFunction, cities);
+            int m = cities.length;
+            int candidatesSize = m <= ALL_PAIRS_THRESHOLD ? m - 1 : MATCHING_CANDIDATES;
+            NeighborLists neighborLists = NeighborLists.nearest(citiesCost, candidatesSize);
+
+            // every candidate pair packed as (cost << 32 | first city * size + position of the second)
+            long[] packedCandidates = new long[m * candidatesSize];
+            int candidatesNumber = 0;
+            for (int k = 0; k < m; k++) {
+                int[] neighbors = neighborLists.get(k);
+                for (int position = 0; position < neighbors.length; position++) {
+                    if (k < neighbors[position]) {
+                        float cost = (float) citiesCost.cost(k, neighbors[position]);
+                        packedCandidates[candidatesNumber++] = ((long) Float.floatToIntBits(cost) << 32) | (k * candidatesSize + position);
+                    }
+                }
+            }
+            Arrays.parallelSort(packedCandidates, 0, candidatesNumber);
+
+            boolean[] matched = new boolean[m];
+            for (int c = 0; c < candidatesNumber; c++) {
+                int candidate = (int) packedCandidates[c];
+                int first = candidate / candidatesSize;
+                int second = neighborLists.get(first)[candidate % candidatesSize];
+                if (!matched[first] && !matched[second]) {
+                    matched[first] = true;
+                    matched[second] = true;
+                    sources[pairsNumber] = cities[first];
+                    targets[pairsNumber++] = cities[second];
+                }
+            }
+
+            int[] left = new int[m];
+            int leftNumber = 0;
+            for (int k = 0; k < m; k++) {
+                if (!matched[k]) {
+                    left[leftNumber++] = cities[k];
+                }
+            }
+            cities = Arrays.copyOf(left, leftNumber);
+        }
+        return new int[][]{sources, targets};
+    }
+
+    /**
+     * @return the cost function among the cities, numbered by their position in the array
+     */
+    private static CostFunction restrict(CostFunction costFunction, int[] cities) {
+        if (costFunction instanceof EuclideanCostFunction) {
+            EuclideanCostFunction euclidean = (EuclideanCostFunction) costFunction;
+            double[] xs = new double[cities.length];
+            double[] ys = new double[cities.length];
+            for (int k = 0; k < cities.length; k++) {
+                xs[k] = euclidean.getXs()[cities[k]];
+                ys[k] = euclidean.getYs()[cities[k]];
+            }
+            return new EuclideanCostFunction(xs, ys);
+        }
+        return new CostFunction() {
+
+            @Override
+            public int size() {
+                return cities.length;
+            }
+
+            @Override
+            public double cost(int i, int j) {
+                return costFunction.cost(cities[i], cities[j]);
+            }
+        };
+    }
+
+    /**
+     * Hierholzer's algorithm, without recursion: walks unused edges until it gets stuck, and then
+     * backtracks adding the cities to the circuit, starting new walks from the cities that still
+     * have unused edges
+     * @return the cities of the Euler circuit from city 0, every degree must be even
+     */
+    private static int[] eulerCircuit(int n, int[][] edges) {
+        int[][] adjacency = adjacency(n, edges[0], edges[1]);
+        int[] nextEdges = new int[n];
+        boolean[] used = new boolean[edges[0].length];
+        int[] stack = new int[edges[0].length + 1];
+        int[] circuit = new int[edges[0].length + 1];
+        int stackSize = 0;
+        int circuitSize = 0;
+
+        stack[stackSize++] = 0;
+        while (stackSize > 0) {
+            int city = stack[stackSize - 1];
+            int[] cityEdges = adjacency[city];
+            while (nextEdges[city] < cityEdges.length && used[cityEdges[nextEdges[city]]]) {
+                nextEdges[city]++;
+            }
+            if (nextEdges[city] == cityEdges.length) {
+                circuit[circuitSize++] = city;
+                stackSize--;
+            }
+            else {
+                int edge = cityEdges[nextEdges[city]];
+                used[edge] = true;
+                stack[stackSize++] = other(edges, edge, city);
+            }
+        }
+        return Arrays.copyOf(circuit, circuitSize);
+    }
+
+    /**
+     * @return the ids of the edges of every city
+     */
+    private static int[][] adjacency(int n, int[] sources, int[] targets) {
+        int[] degrees = new int[n];
+        for (int k = 0; k < sources.length; k++) {
+            degrees[sources[k]]++;
+            degrees[targets[k]]++;
+        }
+        int[][] adjacency = new int[n][];
+        for (int city = 0; city < n; city++) {
+            adjacency[city] = new int[degrees[city]];
+        }
+        int[] filled = new int[n];
+        for (int k = 0; k < sources.length; k++) {
+            adjacency[sources[k]][filled[sources[k]]++] = k;
+            adjacency[targets[k]][filled[targets[k]]++] = k;
+        }
+        return adjacency;
+    }
+
+    private static int other(int[][] edges, int edge, int city) {
+        return edges[0][edge] == city ? edges[1][edge] : edges[0][edge];
+    }
+}
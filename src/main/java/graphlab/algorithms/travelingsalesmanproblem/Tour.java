@@ -0,0 +1,130 @@
+package graphlab.algorithms.travelingsalesmanproblem;
+
+import java.util.Arrays;
+
+/**
+ * A tour visiting every city once: the cities are numbered 0..size()-1 and the tour is read
+ * forward from position 0. The moves of the local search are all made of reversals of paths,
+ * and reversing a path or the rest of the tour gives the same cycle, so after a move the tour
+ * can be read in the opposite direction; the moves are then described by the edges they change,
+ * which don't depend on the direction.
+ */
+public abstract class Tour {
+
+    public abstract int size();
+
+    public abstract int getCity(int position);
+
+    public abstract int getPosition(int city);
+
+    public int next(int city) {
+        int position = getPosition(city) + 1;
+        return getCity(position == size() ? 0 : position);
+    }
+
+    public int previous(int city) {
+        int position = getPosition(city);
+        return getCity(position == 0 ? size() - 1 : position - 1);
+    }
+
+    /**
+     * reverses the path going forward from position i to position j, or the rest of the tour
+     */
+    public abstract void reverse(int i, int j);
+
+    /**
+     * @return true if going forward from a, b is met before (or at the same time of) c
+     */
+    public boolean between(int a, int b, int c) {
+        int positionA = getPosition(a);
+        int positionB = getPosition(b);
+        int positionC = getPosition(c);
+        if (positionA <= positionC) {
+            return positionA <= positionB && positionB <= positionC;
+        }
+        return positionB >= positionA || positionB <= positionC;
+    }
+
+    /**
+     * removes the edges (a, next(a)) and (c, next(c)) and adds (a, c) and (next(a), next(c)),
+     * reversing the path from next(a) to c
+     */
+    public void twoOptMove(int a, int c) {
+        reverse(getPosition(next(a)), getPosition(c));
+    }
+
+    /**
+     * removes the edges (a, b) and (c, d) and adds (a, c) and (b, d); b must follow a in the
+     * same direction in which d follows c, either forward or backward
+     */
+    public void exchange(int a, int b, int c, int d) {
+        if (next(a) == b) {
+            reverse(getPosition(b), getPosition(c));
+        }
+        else {
+            reverse(getPosition(a), getPosition(d));
+        }
+    }
+
+    /**
+     * moves the path going forward from s1 to s2 between the adjacent cities x and y, which must
+     * be out of the path, connecting x to xPartner (either s1 or s2) and y to the other end of
+     * the path. It's done with up to three exchanges.
+     */
+    public void moveSegment(int s1, int s2, int x, int y, int xPartner) {
+        int p = previous(s1);
+        int nx = next(s2);
+        // names the edge (c, d) so that the tour reads p s1 .. s2 nx .. c d
+        int c = next(x) == y ? x : y;
+        int d = c == x ? y : x;
+        int cPartner = c == x ? xPartner : (xPartner == s1 ? s2 : s1);
+        if (d == p) {
+            // reads the tour backward, so that the edge comes after the path
+            int swap = s1;
+            s1 = s2;
+            s2 = swap;
+            swap = p;
+            p = nx;
+            nx = swap;
+            swap = c;
+            c = d;
+            d = swap;
+            cPartner = cPartner == s1 ? s2 : s1;
+        }
+
+        // p c .. nx s2 .. s1 d
+        exchange(p, s1, c, d);
+        // p nx .. c s2 .. s1 d
+        if (c != nx) {
+            exchange(p, c, nx, s2);
+        }
+        // p nx .. c s1 .. s2 d
+        if (cPartner == s1 && s1 != s2) {
+            exchange(c, s2, s1, d);
+        }
+    }
+
+    public double length(CostFunction costFunction) {
+        double length = 0;
+        for (int position = 0; position < size(); position++) {
+            length += costFunction.cost(getCity(position), getCity(position + 1 == size() ? 0 : position + 1));
+        }
+        return length;
+    }
+
+    /**
+     * @return the cities in tour order
+     */
+    public int[] getOrder() {
+        int[] order = new int[size()];
+        for (int position = 0; position < order.length; position++) {
+            order[position] = getCity(position);
+        }
+        return order;
+    }
+
+    @Override
+    public String toString() {
+        return "Tour " + Arrays.toString(getOrder());
+    }
+}
@@ -0,0 +1,55 @@
+package graphlab.algorithms.travelingsalesmanproblem;
+
+/**
+ * A TSP instance read from a file: its name, its cost function and, when the costs grow with the
+ * euclidean distance on the plane, the coordinates of the cities, that let the engines use the
+ * spatial grid instead of comparing every pair of cities.
+ */
+public class TspInstance {
+
+    private final String name;
+    private final CostFunction costFunction;
+    private final double[] xs;
+    private final double[] ys;
+
+    public TspInstance(String name, CostFunction costFunction, double[] xs, double[] ys) {
+        this.name = name;
+        this.costFunction = costFunction;
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return costFunction.size();
+    }
+
+    public CostFunction getCostFunction() {
+        return costFunction;
+    }
+
+    /**
+     * @return true if the coordinates on the plane are available
+     */
+    public boolean isPlanar() {
+        return xs != null;
+    }
+
+    public double[] getXs() {
+        return xs;
+    }
+
+    public double[] getYs() {
+        return ys;
+    }
+
+    /**
+     * @return the k nearest cities of every city, with the spatial grid when the instance is planar
+     */
+    public NeighborLists neighborLists(int k) {
+        return isPlanar() ? NeighborLists.nearest(xs, ys, k) : NeighborLists.nearest(costFunction, k);
+    }
+}
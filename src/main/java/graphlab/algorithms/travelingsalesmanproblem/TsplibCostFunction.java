@@ -0,0 +1,89 @@
+package graphlab.algorithms.travelingsalesmanproblem;
+
+/**
+ * The distances of the TSPLIB instances with coordinates, rounded to integers as the library
+ * defines them, so that the tour lengths can be compared with the published optima:
+ * <ul>
+ * <li>EUC_2D: the euclidean distance rounded to the nearest integer</li>
+ * <li>CEIL_2D: the euclidean distance rounded up</li>
+ * <li>ATT: the pseudo euclidean distance of the att instances, sqrt((dx^2 + dy^2) / 10) rounded up</li>
+ * <li>GEO: the distance in kilometers on the Earth, the coordinates being DDD.MM latitudes and
+ * longitudes</li>
+ * </ul>
+ */
+public class TsplibCostFunction implements CostFunction {
+
+    public enum Type { EUC_2D, CEIL_2D, ATT, GEO }
+
+    private static final double PI = 3.141592;
+    private static final double EARTH_RADIUS = 6378.388;
+
+    private final Type type;
+    private final double[] xs;
+    private final double[] ys;
+
+    public TsplibCostFunction(Type type, double[] xs, double[] ys) {
+        this.type = type;
+        if (type == Type.GEO) {
+            // converts the coordinates to latitudes and longitudes in radians once for all
+            this.xs = new double[xs.length];
+            this.ys = new double[ys.length];
+            for (int i = 0; i < xs.length; i++) {
+                this.xs[i] = radians(xs[i]);
+                this.ys[i] = radians(ys[i]);
+            }
+        }
+        else {
+            this.xs = xs;
+            this.ys = ys;
+        }
+    }
+
+    /**
+     * @return the DDD.MM coordinate in radians, with the approximated pi of TSPLIB
+     */
+    private static double radians(double coordinate) {
+        int degrees = (int) coordinate;
+        double minutes = coordinate - degrees;
+        return PI * (degrees + 5.0 * minutes / 3.0) / 180.0;
+    }
+
+    @Override
+    public int size() {
+        return xs.length;
+    }
+
+    @Override
+    public double cost(int i, int j) {
+        switch (type) {
+            case EUC_2D:
+                return (int) (Math.sqrt(squaredDistance(i, j)) + 0.5);
+            case CEIL_2D:
+                return Math.ceil(Math.sqrt(squaredDistance(i, j)));
+            case ATT: {
+                double distance = Math.sqrt(squaredDistance(i, j) / 10.0);
+                int rounded = (int) (distance + 0.5);
+                return rounded < distance ? rounded + 1 : rounded;
+            }
+            default: {
+                if (i == j) {
+                    return 0;
+                }
+                double q1 = Math.cos(ys[i] - ys[j]);
+                double q2 = Math.cos(xs[i] - xs[j]);
+                double q3 = Math.cos(xs[i] + xs[j]);
+                return (int) (EARTH_RADIUS * Math.acos(0.5 * ((1.0 + q1) * q2 - (1.0 - q1) * q3)) + 1.0);
+            }
+        }
+    }
+
+    private double squaredDistance(int i, int j) {
+        double dx = xs[i] - xs[j];
+        double dy = ys[i] - ys[j];
+        return dx * dx + dy * dy;
+    }
+
+    public Type getType() {
+        return type;
+    }
+}
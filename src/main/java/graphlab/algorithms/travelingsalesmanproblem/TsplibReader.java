@@ -0,0 +1,241 @@
+package graphlab.algorithms.travelingsalesmanproblem;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads the symmetric TSP instances and the tours of TSPLIB
+ * (http://comopt.ifi.uni-heidelberg.de/software/TSPLIB95/). The files are read line by line and
+ * the numbers go straight into primitive arrays, the coordinates or the cost matrix, so that
+ * no object is created per city. Supported edge weight types are EUC_2D, CEIL_2D, ATT, GEO and
+ * EXPLICIT, with the matrix in any of the formats FULL_MATRIX, UPPER_ROW, LOWER_ROW,
+ * UPPER_DIAG_ROW, LOWER_DIAG_ROW and their column variants.
+ */
+public class TsplibReader {
+
+    private final BufferedReader reader;
+    private String[] tokens = new String[0];
+    private int nextToken;
+
+    private TsplibReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    public static TspInstance read(Path path) throws Exception {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.ISO_8859_1)) {
+            return new TsplibReader(reader).readInstance(path.getFileName().toString());
+        }
+    }
+
+    /**
+     * reads a .tour or .opt.tour file
+     * @return the cities of the tour, numbered from 0
+     */
+    public static int[] readTour(Path path) throws Exception {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.ISO_8859_1)) {
+            return new TsplibReader(reader).readTour();
+        }
+    }
+
+    private TspInstance readInstance(String fileName) throws Exception {
+        Map<String, String> header = new HashMap<>();
+        double[] xs = null;
+        double[] ys = null;
+        float[] matrix = null;
+
+        String keyword;
+        while ((keyword = nextKeyword(header)) != null && !keyword.equals("EOF")) {
+            int n = dimension(header);
+            switch (keyword) {
+                case "NODE_COORD_SECTION":
+                    xs = new double[n];
+                    ys = new double[n];
+                    for (int k = 0; k < n; k++) {
+                        int city = city(nextInt(), n);
+                        xs[city] = nextDouble();
+                        ys[city] = nextDouble();
+                    }
+                    break;
+                case "EDGE_WEIGHT_SECTION":
+                    matrix = readMatrix(n, header.getOrDefault("EDGE_WEIGHT_FORMAT", "FULL_MATRIX"));
+                    break;
+                case "DISPLAY_DATA_SECTION":
+                    // the coordinates to draw an explicit instance, not needed for the costs
+                    for (int k = 0; k < 3 * n; k++) {
+                        nextToken();
+                    }
+                    break;
+                case "FIXED_EDGES_SECTION":
+                    while (nextInt() != -1) {
+                        nextInt();
+                    }
+                    break;
+                default:
+                    throw new Exception("Unsupported TSPLIB section " + keyword + ".");
+            }
+        }
+
+        String type = header.getOrDefault("TYPE", "TSP");
+        if (!type.equals("TSP")) {
+            throw new Exception("Only symmetric TSP instances are supported, not " + type + ".");
+        }
+        String name = header.getOrDefault("NAME", fileName);
+        String edgeWeightType = header.get("EDGE_WEIGHT_TYPE");
+        if ("EXPLICIT".equals(edgeWeightType)) {
+            if (matrix == null) {
+                throw new Exception("The EDGE_WEIGHT_SECTION is missing.");
+            }
+            return new TspInstance(name, new MatrixCostFunction(dimension(header), matrix), null, null);
+        }
+        TsplibCostFunction.Type costType;
+        try {
+            costType = TsplibCostFunction.Type.valueOf(String.valueOf(edgeWeightType));
+        }
+        catch (IllegalArgumentException e) {
+            throw new Exception("Unsupported EDGE_WEIGHT_TYPE " + edgeWeightType + ".");
+        }
+        if (xs == null) {
+            throw new Exception("The NODE_COORD_SECTION is missing.");
+        }
+        boolean planar = costType != TsplibCostFunction.Type.GEO;
+        return new TspInstance(name, new TsplibCostFunction(costType, xs, ys), planar ? xs : null, planar ? ys : null);
+    }
+
+    /**
+     * reads the costs into a full matrix; the column formats are the row formats of the other
+     * triangle, that is the same matrix for symmetric costs
+     */
+    private float[] readMatrix(int n, String format) throws Exception {
+        if (n > MatrixCostFunction.MAX_SIZE) {
+            throw new Exception("The cost matrix is limited to " + MatrixCostFunction.MAX_SIZE + " cities, and there are " + n + ".");
+        }
+        float[] matrix = new float[n * n];
+        switch (format) {
+            case "FULL_MATRIX":
+                for (int k = 0; k < n * n; k++) {
+                    matrix[k] = (float) nextDouble();
+                }
+                return matrix;
+            case "UPPER_ROW":
+            case "LOWER_COL":
+                return readTriangle(matrix, n, true, false);
+            case "LOWER_ROW":
+            case "UPPER_COL":
+                return readTriangle(matrix, n, false, false);
+            case "UPPER_DIAG_ROW":
+            case "LOWER_DIAG_COL":
+                return readTriangle(matrix, n, true, true);
+            case "LOWER_DIAG_ROW":
+            case "UPPER_DIAG_COL":
+                return readTriangle(matrix, n, false, true);
+            default:
+                throw new Exception("Unsupported EDGE_WEIGHT_FORMAT " + format + ".");
+        }
+    }
+
+    private float[] readTriangle(float[] matrix, int n, boolean upper, boolean diagonal) throws Exception {
+        for (int i = 0; i < n; i++) {
+            int from = upper ? (diagonal ? i : i + 1) : 0;
+            int to = upper ? n - 1 : (diagonal ? i : i - 1);
+            for (int j = from; j <= to; j++) {
+                float cost = (float) nextDouble();
+                matrix[i * n + j] = cost;
+                matrix[j * n + i] = cost;
+            }
+        }
+        return matrix;
+    }
+
+    private int[] readTour() throws Exception {
+        Map<String, String> header = new HashMap<>();
+        String keyword;
+        while ((keyword = nextKeyword(header)) != null && !keyword.equals("TOUR_SECTION")) {
+            if (keyword.equals("EOF")) {
+                throw new Exception("The TOUR_SECTION is missing.");
+            }
+        }
+        if (keyword == null) {
+            throw new Exception("The TOUR_SECTION is missing.");
+        }
+        int n = dimension(header);
+        int[] tour = new int[n];
+        int size = 0;
+        for (int city = nextInt(); city != -1; city = nextInt()) {
+            if (size == n) {
+                throw new Exception("The tour has more than " + n + " cities.");
+            }
+            tour[size++] = city(city, n);
+        }
+        if (size < n) {
+            throw new Exception("The tour has " + size + " cities instead of " + n + ".");
+        }
+        return tour;
+    }
+
+    /**
+     * reads the header lines ("KEY : VALUE") into the map
+     * @return the keyword of the next section, null at the end of the file
+     */
+    private String nextKeyword(Map<String, String> header) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            int colon = line.indexOf(':');
+            if (colon < 0) {
+                return line;
+            }
+            String key = line.substring(0, colon).trim();
+            String value = line.substring(colon + 1).trim();
+            if (value.isEmpty()) {
+                // some files write the sections as "NODE_COORD_SECTION :"
+                return key;
+            }
+            header.put(key, value);
+        }
+        return null;
+    }
+
+    private int dimension(Map<String, String> header) throws Exception {
+        String dimension = header.get("DIMENSION");
+        if (dimension == null) {
+            throw new Exception("The DIMENSION is missing.");
+        }
+        return Integer.parseInt(dimension);
+    }
+
+    private static int city(int number, int n) throws Exception {
+        if (number < 1 || number > n) {
+            throw new Exception("City " + number + " is out of 1.." + n + ".");
+        }
+        return number - 1;
+    }
+
+    private String nextToken() throws Exception {
+        while (nextToken == tokens.length) {
+            String line = reader.readLine();
+            if (line == null) {
+                throw new Exception("Unexpected end of file.");
+            }
+            line = line.trim();
+            tokens = line.isEmpty() ? new String[0] : line.split("\\s+");
+            nextToken = 0;
+        }
+        return tokens[nextToken++];
+    }
+
+    private int nextInt() throws Exception {
+        return Integer.parseInt(nextToken());
+    }
+
+    private double nextDouble() throws Exception {
+        return Double.parseDouble(nextToken());
+    }
+}
@@ -0,0 +1,223 @@
+package graphlab.algorithms.travelingsalesmanproblem;
+
+/**
+ * A tour split in about sqrt(n) blocks, each one a range of an array of cities that can be read
+ * backward: reversing a path splits the blocks at its two ends and then reverses the order of
+ * the blocks in between, flipping their direction, so it costs O(sqrt(n)) however long the path
+ * is. Every split adds a block, and when they become too many the tour is copied back into
+ * blocks of the same size. Successor, predecessor and position of a city are still O(1).
+ */
+public class TwoLevelTour extends Tour {
+
+    private final int n;
+    private final int blockSize;
+    private final int maxBlocks;
+
+    // the cities as they were at the last rebuild, and the index of every city in it
+    private final int[] cities;
+    private final int[] indexes;
+    private final int[] blockOf;
+
+    // for every block: the range lows..highs-1 of cities, its direction, its first position in
+    // the tour and its rank in the list of blocks
+    private final int[] lows;
+    private final int[] highs;
+    private final boolean[] reversed;
+    private final int[] starts;
+    private final int[] ranks;
+    private final int[] blockOrder;
+    private int blocksNumber;
+
+    public TwoLevelTour(int[] order) {
+        n = order.length;
+        blockSize = Math.max(1, (int) Math.ceil(Math.sqrt(n)));
+        int initialBlocks = (n + blockSize - 1) / blockSize;
+        maxBlocks = 2 * initialBlocks + 2;
+        cities = new int[n];
+        indexes = new int[n];
+        blockOf = new int[n];
+        lows = new int[maxBlocks];
+        highs = new int[maxBlocks];
+        reversed = new boolean[maxBlocks];
+        starts = new int[maxBlocks];
+        ranks = new int[maxBlocks];
+        blockOrder = new int[maxBlocks];
+        rebuild(order);
+    }
+
+    public TwoLevelTour(Tour tour) {
+        this(tour.getOrder());
+    }
+
+    private void rebuild(int[] order) {
+        System.arraycopy(order, 0, cities, 0, n);
+        blocksNumber = 0;
+        for (int low = 0; low < n; low += blockSize) {
+            int block = blocksNumber++;
+            lows[block] = low;
+            highs[block] = Math.min(n, low + blockSize);
+            reversed[block] = false;
+            starts[block] = low;
+            ranks[block] = block;
+            blockOrder[block] = block;
+        }
+        for (int index = 0; index < n; index++) {
+            indexes[cities[index]] = index;
+            blockOf[cities[index]] = index / blockSize;
+        }
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    @Override
+    public int getCity(int position) {
+        int block = blockOrder[rankAt(position)];
+        int offset = position - starts[block];
+        return cities[reversed[block] ? highs[block] - 1 - offset : lows[block] + offset];
+    }
+
+    @Override
+    public int getPosition(int city) {
+        int block = blockOf[city];
+        int index = indexes[city];
+        return starts[block] + (reversed[block] ? highs[block] - 1 - index : index - lows[block]);
+    }
+
+    @Override
+    public int next(int city) {
+        int block = blockOf[city];
+        int index = indexes[city] + (reversed[block] ? -1 : 1);
+        if (index >= lows[block] && index < highs[block]) {
+            return cities[index];
+        }
+        int nextBlock = blockOrder[ranks[block] + 1 == blocksNumber ? 0 : ranks[block] + 1];
+        return cities[reversed[nextBlock] ? highs[nextBlock] - 1 : lows[nextBlock]];
+    }
+
+    @Override
+    public int previous(int city) {
+        int block = blockOf[city];
+        int index = indexes[city] + (reversed[block] ? 1 : -1);
+        if (index >= lows[block] && index < highs[block]) {
+            return cities[index];
+        }
+        int previousBlock = blockOrder[ranks[block] == 0 ? blocksNumber - 1 : ranks[block] - 1];
+        return cities[reversed[previousBlock] ? lows[previousBlock] : highs[previousBlock] - 1];
+    }
+
+    /**
+     * reverses the path from position i to position j; if the path wraps around the end of the
+     * tour, the rest of the tour is reversed instead
+     */
+    @Override
+    public void reverse(int i, int j) {
+        if (i > j) {
+            if (j + 1 == i) {
+                return;
+            }
+            int swap = i;
+            i = j + 1;
+            j = swap - 1;
+        }
+        if (blocksNumber + 2 > maxBlocks) {
+            rebuild(getOrder());
+        }
+        split(i);
+        if (j + 1 < n) {
+            split(j + 1);
+        }
+        int firstRank = rankAt(i);
+        int lastRank = j + 1 < n ? rankAt(j + 1) - 1 : blocksNumber - 1;
+
+        for (int low = firstRank, high = lastRank; low < high; low++, high--) {
+            int swap = blockOrder[low];
+            blockOrder[low] = blockOrder[high];
+            blockOrder[high] = swap;
+        }
+        int start = i;
+        for (int rank = firstRank; rank <= lastRank; rank++) {
+            int block = blockOrder[rank];
+            reversed[block] = !reversed[block];
+            ranks[block] = rank;
+            starts[block] = start;
+            start += highs[block] - lows[block];
+        }
+    }
+
+    /**
+     * splits the block containing the position so that a block starts there
+     */
+    private void split(int position) {
+        int rank = rankAt(position);
+        int block = blockOrder[rank];
+        int offset = position - starts[block];
+        if (offset == 0) {
+            return;
+        }
+
+        int newBlock = blocksNumber++;
+        if (reversed[block]) {
+            lows[newBlock] = lows[block];
+            highs[newBlock] = highs[block] - offset;
+            lows[block] = highs[newBlock];
+        }
+        else {
+            lows[newBlock] = lows[block] + offset;
+            highs[newBlock] = highs[block];
+            highs[block] = lows[newBlock];
+        }
+        reversed[newBlock] = reversed[block];
+        starts[newBlock] = position;
+        for (int index = lows[newBlock]; index < highs[newBlock]; index++) {
+            blockOf[cities[index]] = newBlock;
+        }
+
+        for (int r = blocksNumber - 1; r > rank + 1; r--) {
+            blockOrder[r] = blockOrder[r - 1];
+            ranks[blockOrder[r]] = r;
+        }
+        blockOrder[rank + 1] = newBlock;
+        ranks[newBlock] = rank + 1;
+    }
+
+    /**
+     * @return the rank of the block containing the position, found with a binary search
+     */
+    private int rankAt(int position) {
+        int low = 0;
+        int high = blocksNumber - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (starts[blockOrder[middle]] <= position) {
+                low = middle;
+            }
+            else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public int[] getOrder() {
+        int[] order = new int[n];
+        int position = 0;
+        for (int rank = 0; rank < blocksNumber; rank++) {
+            int block = blockOrder[rank];
+            if (reversed[block]) {
+                for (int index = highs[block] - 1; index >= lows[block]; index--) {
+                    order[position++] = cities[index];
+                }
+            }
+            else {
+                for (int index = lows[block]; index < highs[block]; index++) {
+                    order[position++] = cities[index];
+                }
+            }
+        }
+        return order;
+    }
+}
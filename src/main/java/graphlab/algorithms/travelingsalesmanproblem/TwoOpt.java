@@ -0,0 +1,54 @@
+package graphlab.algorithms.travelingsalesmanproblem;
+
+/**
+ * 2-opt over an array tour: a move removes two edges (a, b) and (c, d) and reconnects the tour
+ * with (a, c) and (b, d), and its gain is computed in O(1) from the four costs. For every city a
+ * only the cities c in its neighbor list are tried as new neighbour, and the search on a stops as
+ * soon as cost(a, c) exceeds the cost of the edge being removed, since no move can gain anything
+ * from there on. Used with the don't-look bits of LocalSearch, every pass is close to linear.
+ */
+public class TwoOpt implements Neighborhood {
+
+    static final double EPSILON = 1e-7;
+
+    private final CostFunction costFunction;
+    private final NeighborLists neighborLists;
+
+    public TwoOpt(CostFunction costFunction, NeighborLists neighborLists) {
+        this.costFunction = costFunction;
+        this.neighborLists = neighborLists;
+    }
+
+    /**
+     * improves the tour until it's 2-optimal with respect to the neighbor lists
+     * @return the number of moves applied
+     */
+    public long optimize(Tour tour) {
+        return new LocalSearch(this).optimize(tour);
+    }
+
+    @Override
+    public int[] improve(Tour tour, int a) {
+        for (int direction = 0; direction < 2; direction++) {
+            boolean forward = direction == 0;
+            int b = forward ? tour.next(a) : tour.previous(a);
+            double removedCost = costFunction.cost(a, b);
+            for (int c : neighborLists.get(a)) {
+                double partialGain = removedCost - costFunction.cost(a, c);
+                if (partialGain <= EPSILON) {
+                    break;
+                }
+                int d = forward ? tour.next(c) : tour.previous(c);
+                if (c == b || d == a) {
+                    continue;
+                }
+                double gain = partialGain + costFunction.cost(c, d) - costFunction.cost(b, d);
+                if (gain > EPSILON) {
+                    tour.exchange(a, b, c, d);
+                    return new int[]{a, b, c, d};
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,341 @@
+package graphlab.cli;
+
+import graphlab.algorithms.Algorithm;
+import graphlab.algorithms.ConnectedComponents;
+import graphlab.algorithms.CoreDecomposition;
+import graphlab.algorithms.MinimumSpanningTree;
+import graphlab.algorithms.Search;
+import graphlab.algorithms.ShortestPath;
+import graphlab.algorithms.TravelingSalesmanProblem;
+import graphlab.algorithms.TriangleCounting;
+import graphlab.algorithms.travelingsalesmanproblem.ArrayTour;
+import graphlab.algorithms.travelingsalesmanproblem.EuclideanCostFunction;
+import graphlab.datastructures.AdjacencyListGraph;
+import graphlab.datastructures.CsrGraph;
+import graphlab.datastructures.Edge;
+import graphlab.datastructures.Node;
+import graphlab.utils.CancellationToken;
+import graphlab.utils.ConsumerWithException;
+import graphlab.utils.GraphUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Runs the algorithms as the panels of the GUI do, but without drawing: the callbacks only
+ * record what the algorithm found, and the run is timed from the call to its return. The keys of
+ * the nodes must be their positions in the graph, as for the generated and the read graphs.
+ */
+public class AlgorithmRunner {
+
+    public static final long DEFAULT_TIME_LIMIT_MILLIS = 1000;
+
+    private final long timeLimitMillis;
+    private final boolean stopAtTarget;
+    private final boolean withResults;
+    private final long timeoutMillis;
+
+    public AlgorithmRunner(long timeLimitMillis, boolean stopAtTarget, boolean withResults) {
+        this(timeLimitMillis, stopAtTarget, withResults, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param timeLimitMillis the budget of the time limited algorithms
+     * @param stopAtTarget    if true the traversals stop at the target node, as in the search tab
+     * @param withResults     if false only the timing, the counts and the cost are kept
+     * @param timeoutMillis   the time after which any algorithm is canceled, Long.MAX_VALUE for none
+     */
+    public AlgorithmRunner(long timeLimitMillis, boolean stopAtTarget, boolean withResults, long timeoutMillis) {
+        this.timeLimitMillis = timeLimitMillis;
+        this.stopAtTarget = stopAtTarget;
+        this.withResults = withResults;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * runs the algorithm on a copy of the graph, so that the same graph can be reused
+     */
+    public RunResult run(String graphName, AdjacencyListGraph graph, Algorithm algorithm) {
+        return run(graphName, graph, algorithm, new CancellationToken());
+    }
+
+    /**
+     * runs the algorithm on a copy of the graph until it ends, the timeout passes or the token is
+     * canceled; a canceled run keeps what the algorithm found so far, with an error
+     */
+    public RunResult run(String graphName, AdjacencyListGraph graph, Algorithm algorithm, CancellationToken cancellationToken) {
+        AdjacencyListGraph copy = new AdjacencyListGraph(graph);
+        int edgesNumber = copy.getNodes().stream().mapToInt(node -> node.getEdges().size()).sum();
+        RunResult result = new RunResult(graphName, copy.getNodes().size(), edgesNumber, algorithm);
+        CancellationToken runToken = cancellationToken.child(timeoutMillis);
+        try {
+            run(copy, algorithm, result, runToken);
+            if (runToken.isCanceled()) {
+                result.setError(cancellationToken.isCanceled() ? "Canceled." : "Canceled after the timeout of " + timeoutMillis + " ms.");
+            }
+        }
+        catch (Exception e) {
+            result.setError(e.getMessage() != null ? e.getMessage() : e.toString());
+        }
+        return result;
+    }
+
+    private void run(AdjacencyListGraph graph, Algorithm algorithm, RunResult result, CancellationToken cancellationToken) throws Exception {
+        int n = graph.getNodes().size();
+        IntStream.Builder visitedOrder = IntStream.builder();
+        boolean[] processed = new boolean[n];
+        List<Edge> foundEdges = new ArrayList<>();
+        // the edges of the tour, undirected, as (smaller key << 32 | bigger key)
+        Set<Long> tourEdges = new HashSet<>();
+        long[] counts = new long[2];
+
+        ConsumerWithException<Node> visitNode = node -> {
+            counts[0]++;
+            visitedOrder.add(node.getKey());
+        };
+        Consumer<Node> plainVisitNode = node -> {
+            counts[0]++;
+            visitedOrder.add(node.getKey());
+        };
+        Consumer<Node> processNode = node -> processed[node.getKey()] = true;
+        ConsumerWithException<Edge> visitEdge = edge -> counts[1]++;
+        ConsumerWithException<Edge> foundEdge = foundEdges::add;
+        ConsumerWithException<Edge> visitTourEdge = edge -> {
+            counts[1]++;
+            tourEdges.add(undirectedKey(edge));
+        };
+        ConsumerWithException<Edge> unvisitTourEdge = edge -> tourEdges.remove(undirectedKey(edge));
+        // the components start from the nodes that are visited without an edge leading to them
+        boolean[] reached = new boolean[n];
+        List<Integer> componentStarts = new ArrayList<>();
+        ConsumerWithException<Node> visitComponentNode = node -> {
+            if (!reached[node.getKey()]) {
+                componentStarts.add((int) counts[0]);
+            }
+            visitNode.accept(node);
+        };
+        ConsumerWithException<Edge> visitComponentEdge = edge -> {
+            counts[1]++;
+            reached[edge.getDestination().getKey()] = true;
+        };
+
+        TriangleCounting.Triangles triangles = null;
+
+        long startTime = System.nanoTime();
+        switch (algorithm) {
+            case DFS:
+                Search.dfs(graph, visitNode, visitEdge, processNode, cancellationToken, stopAtTarget);
+                break;
+            case BFS:
+                Search.bfs(graph, visitNode, visitEdge, processNode, cancellationToken, stopAtTarget);
+                break;
+            case UCS:
+                Search.ucs(graph, visitNode, visitEdge, processNode, cancellationToken);
+                break;
+            case ASTAR:
+                Search.astar(graph, visitNode, visitEdge, processNode, cancellationToken);
+                break;
+            case DIJKSTRA:
+                // on directed acyclic graphs a single pass in topological order is enough
+                if (!graph.isDirected() || !ShortestPath.dag(graph, visitNode, visitEdge, processNode, cancellationToken)) {
+                    ShortestPath.dijkstra(graph, visitNode, visitEdge, processNode, cancellationToken);
+                }
+                break;
+            case BELLMANFORD:
+                ShortestPath.bellmanFord(graph, visitNode, visitEdge, processNode, () -> null, cancellationToken);
+                graph.getNodes().forEach(node -> processed[node.getKey()] = node.getPathCost() != Integer.MAX_VALUE);
+                break;
+            case BORUVKA:
+                MinimumSpanningTree.boruvka(graph, plainVisitNode, visitEdge, foundEdge, cancellationToken);
+                break;
+            case PRIM:
+                MinimumSpanningTree.prim(graph, plainVisitNode, processNode, visitEdge, foundEdge, cancellationToken);
+                break;
+            case KRUSKAL:
+                MinimumSpanningTree.kruskal(graph, plainVisitNode, visitEdge, foundEdge, cancellationToken);
+                break;
+            case FILTER_KRUSKAL:
+                MinimumSpanningTree.filterKruskal(graph, plainVisitNode, visitEdge, foundEdge, cancellationToken);
+                break;
+            case EUCLIDEAN_MST:
+                MinimumSpanningTree.euclidean(graph, plainVisitNode, visitEdge, foundEdge, cancellationToken);
+                break;
+            case CONNECTED_COMPONENTS_BFS:
+                ConnectedComponents.connectedComponents(graph, visitComponentNode, visitComponentEdge, processNode, cancellationToken);
+                break;
+            case K_CORE:
+                CoreDecomposition.kCore(graph, visitNode, visitEdge, processNode, cancellationToken);
+                break;
+            case TRIANGLE_COUNTING:
+                triangles = TriangleCounting.count(CsrGraph.undirected(graph), cancellationToken);
+                break;
+            case NEAREST_NEIGHBOR_TSP:
+                TravelingSalesmanProblem.nearestNeighbor(graph, visitNode, visitTourEdge, cancellationToken);
+                break;
+            case TWO_OPT_TSP:
+                TravelingSalesmanProblem.twoOpt(graph, unvisitTourEdge, visitNode, visitTourEdge, processNode, cancellationToken);
+                break;
+            case HILBERT_TSP:
+                TravelingSalesmanProblem.hilbertCurve(graph, visitNode, visitTourEdge, cancellationToken);
+                break;
+            case HELD_KARP_TSP:
+                TravelingSalesmanProblem.heldKarp(graph, message -> putResult(result, "memory", message), visitNode, visitTourEdge, cancellationToken);
+                break;
+            case SIMULATED_ANNEALING_TSP:
+                TravelingSalesmanProblem.simulatedAnnealing(graph, timeLimitMillis, edges -> { }, visitNode, visitTourEdge, cancellationToken);
+                break;
+        }
+        result.setMillis((System.nanoTime() - startTime) / 1e6);
+        result.setVisitedNodes(counts[0]);
+        result.setVisitedEdges(counts[1]);
+        int[] order = visitedOrder.build().toArray();
+
+        switch (algorithm) {
+            case DFS:
+            case BFS:
+            case UCS:
+            case ASTAR:
+                putResult(result, "order", order);
+                break;
+            case DIJKSTRA:
+            case BELLMANFORD:
+                addShortestPaths(graph, processed, result);
+                break;
+            case BORUVKA:
+            case PRIM:
+            case KRUSKAL:
+            case FILTER_KRUSKAL:
+            case EUCLIDEAN_MST:
+                List<int[]> tree = new ArrayList<>();
+                long treeCost = 0;
+                for (Edge edge : foundEdges) {
+                    tree.add(new int[]{edge.getSource().getKey(), edge.getDestination().getKey()});
+                    treeCost += edge.getCost();
+                }
+                result.setCost(treeCost);
+                putResult(result, "edges", tree);
+                break;
+            case CONNECTED_COMPONENTS_BFS:
+                List<int[]> components = new ArrayList<>();
+                for (int k = 0; k < componentStarts.size(); k++) {
+                    int end = k + 1 < componentStarts.size() ? componentStarts.get(k + 1) : order.length;
+                    components.add(Arrays.copyOfRange(order, componentStarts.get(k), end));
+                }
+                result.putResult("componentsNumber", components.size());
+                putResult(result, "components", components);
+                break;
+            case K_CORE:
+                CsrGraph csrGraph = CsrGraph.undirected(graph);
+                int[] coreNumbers = CoreDecomposition.coreNumbers(csrGraph);
+                int[] coreNumbersByKey = new int[n];
+                for (int v = 0; v < coreNumbers.length; v++) {
+                    coreNumbersByKey[csrGraph.getNode(v).getKey()] = coreNumbers[v];
+                }
+                result.putResult("maxCore", CoreDecomposition.maxCore(coreNumbers));
+                putResult(result, "coreNumbers", coreNumbersByKey);
+                break;
+            case TRIANGLE_COUNTING:
+                if (triangles != null) {
+                    result.putResult("triangles", triangles.getTotal());
+                    result.putResult("transitivity", triangles.getTransitivity());
+                    result.putResult("averageClusteringCoefficient", triangles.getAverageClusteringCoefficient());
+                    // the nodes of the CSR graph are in the order of the keys
+                    putResult(result, "perNode", Arrays.stream(triangles.getPerNode()).boxed().collect(Collectors.toList()));
+                    putResult(result, "clusteringCoefficients", Arrays.stream(triangles.getClusteringCoefficients()).boxed().collect(Collectors.toList()));
+                }
+                break;
+            default:
+                addTour(graph, tourEdges, order, result);
+                break;
+        }
+    }
+
+    /**
+     * the distances of the nodes whose distance is final, and the path to the target
+     */
+    private void addShortestPaths(AdjacencyListGraph graph, boolean[] processed, RunResult result) throws Exception {
+        List<int[]> distances = new ArrayList<>();
+        for (Node node : graph.getNodes()) {
+            if (processed[node.getKey()] && node.getPathCost() != Integer.MAX_VALUE) {
+                distances.add(new int[]{node.getKey(), node.getPathCost()});
+            }
+        }
+        Node startingNode = GraphUtils.getStartingNode(graph);
+        Node targetNode = GraphUtils.getTargetNode(graph);
+        if (processed[targetNode.getKey()] && targetNode.getPathCost() != Integer.MAX_VALUE) {
+            IntStream.Builder path = IntStream.builder();
+            Node node = targetNode;
+            for (int steps = 0; node != null && node != startingNode && steps < graph.getNodes().size(); steps++) {
+                path.add(node.getKey());
+                node = node.getPathParent();
+            }
+            // the path is kept only if the parents lead back to the starting node
+            if (node == startingNode) {
+                path.add(node.getKey());
+                int[] reversed = path.build().toArray();
+                int[] forward = new int[reversed.length];
+                for (int k = 0; k < reversed.length; k++) {
+                    forward[k] = reversed[reversed.length - 1 - k];
+                }
+                result.setCost(targetNode.getPathCost());
+                putResult(result, "path", forward);
+            }
+        }
+        putResult(result, "distances", distances);
+    }
+
+    /**
+     * the tour as the sequence of its nodes, from the edges left at the end when they form a
+     * cycle, or else from the order of the visits
+     */
+    private void addTour(AdjacencyListGraph graph, Set<Long> tourEdges, int[] order, RunResult result) throws Exception {
+        int n = graph.getNodes().size();
+        Map<Integer, List<Integer>> adjacency = new HashMap<>();
+        for (long edge : tourEdges) {
+            int a = (int) (edge >>> 32);
+            int b = (int) edge;
+            adjacency.computeIfAbsent(a, key -> new ArrayList<>()).add(b);
+            adjacency.computeIfAbsent(b, key -> new ArrayList<>()).add(a);
+        }
+        int[] tour = null;
+        if (n >= 3 && adjacency.size() == n && adjacency.values().stream().allMatch(neighbors -> neighbors.size() == 2)) {
+            tour = new int[n];
+            int previous = -1;
+            int current = GraphUtils.getStartingNode(graph).getKey();
+            for (int position = 0; position < n; position++) {
+                tour[position] = current;
+                List<Integer> neighbors = adjacency.get(current);
+                int next = neighbors.get(0) != previous ? neighbors.get(0) : neighbors.get(1);
+                previous = current;
+                current = next;
+            }
+        }
+        else if (order.length == n) {
+            tour = order;
+        }
+        if (tour != null && IntStream.of(tour).distinct().count() == n) {
+            result.setCost(new ArrayTour(tour).length(EuclideanCostFunction.of(graph.getNodes())));
+            putResult(result, "tour", tour);
+        }
+    }
+
+    private void putResult(RunResult result, String name, Object value) {
+        if (withResults) {
+            result.putResult(name, value);
+        }
+    }
+
+    private static long undirectedKey(Edge edge) {
+        int a = edge.getSource().getKey();
+        int b = edge.getDestination().getKey();
+        return (long) Math.min(a, b) << 32 | Math.max(a, b);
+    }
+}
@@ -0,0 +1,260 @@
+package graphlab.cli;
+
+import graphlab.algorithms.Algorithm;
+import graphlab.datastructures.AdjacencyListGraph;
+import graphlab.utils.Constants;
+import graphlab.utils.GraphUtils;
+
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * The command line entry point, to run the algorithms without a display: it never loads the
+ * Swing classes, and sets java.awt.headless so that nothing in the algorithms can open a window.
+ *
+ * <pre>
+ * run [options]                     runs the algorithms on one graph
+ * batch job-file [output options]   runs every line of the job file, that holds the options of a run
+ * tsp-report [--time-limit millis] file.tsp...   see TspReport
+ *
+ * --algorithm NAME[,NAME...]        the names of Algorithm, or "all"
+ * --graph random|delaunay|FILE      a generated graph (default random) or a file read by GraphUtils.readGraph
+ * --nodes N, --edges E              the size of the generated graph (default 100 nodes, 3 edges per node)
+ * --max-value V                     the largest coordinate of the generated nodes (default 500)
+ * --directed, --seed S, --name NAME
+ * --time-limit MILLIS               the budget of the time limited algorithms (default 1000)
+ * --timeout MILLIS                  cancels any algorithm still running after this time (default none)
+ * --stop-at-target                  stops the traversals at the target node
+ * --format json|csv, --output FILE  where and how to write the results (default JSON Lines on stdout)
+ * --summary                         writes only the timing, the counts and the cost of every run
+ * </pre>
+ */
+public class Main {
+
+    private static final String USAGE = "Usage: graphlab.cli.Main run [options] | batch job-file [options] | tsp-report [--time-limit millis] file.tsp...";
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        if (args.length == 0) {
+            exitWithUsage(null);
+        }
+        String[] options = Arrays.copyOfRange(args, 1, args.length);
+        try {
+            switch (args[0]) {
+                case "run":
+                    Job job = Job.parse(options);
+                    if (job.algorithms.isEmpty()) {
+                        exitWithUsage("The algorithm is missing.");
+                    }
+                    run(Arrays.asList(job), job);
+                    break;
+                case "batch":
+                    if (options.length == 0) {
+                        exitWithUsage("The job file is missing.");
+                    }
+                    run(readJobs(Paths.get(options[0])), Job.parse(Arrays.copyOfRange(options, 1, options.length)));
+                    break;
+                case "tsp-report":
+                    TspReport.main(options);
+                    break;
+                default:
+                    exitWithUsage("Unknown command " + args[0] + ".");
+            }
+        }
+        catch (IllegalArgumentException e) {
+            exitWithUsage(e.getMessage());
+        }
+    }
+
+    /**
+     * runs the jobs one after the other, writing the results as specified by the output job
+     */
+    private static void run(List<Job> jobs, Job output) throws Exception {
+        PrintStream out = output.outputPath == null ? System.out : new PrintStream(new FileOutputStream(output.outputPath), false, StandardCharsets.UTF_8.name());
+        try {
+            ResultWriter writer = new ResultWriter(out, output.format);
+            for (Job job : jobs) {
+                AdjacencyListGraph graph = job.createGraph();
+                AlgorithmRunner runner = new AlgorithmRunner(job.timeLimitMillis, job.stopAtTarget, !(job.summary || output.summary), job.timeoutMillis);
+                for (Algorithm algorithm : job.algorithms) {
+                    writer.write(runner.run(job.graphName(), graph, algorithm));
+                }
+            }
+        }
+        finally {
+            if (out != System.out) {
+                out.close();
+            }
+        }
+    }
+
+    /**
+     * @return the jobs of the lines of the file, skipping the empty ones and the # comments
+     */
+    private static List<Job> readJobs(Path path) throws Exception {
+        List<Job> jobs = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            int comment = line.indexOf('#');
+            String options = (comment >= 0 ? line.substring(0, comment) : line).trim();
+            if (options.isEmpty()) {
+                continue;
+            }
+            try {
+                Job job = Job.parse(options.split("\\s+"));
+                if (job.algorithms.isEmpty()) {
+                    throw new IllegalArgumentException("The algorithm is missing.");
+                }
+                jobs.add(job);
+            }
+            catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + " of " + path + ": " + e.getMessage());
+            }
+        }
+        return jobs;
+    }
+
+    private static void exitWithUsage(String message) {
+        if (message != null) {
+            System.err.println(message);
+        }
+        System.err.println(USAGE);
+        System.exit(1);
+    }
+
+    /**
+     * A graph with the algorithms to run on it, and the options of the output.
+     */
+    private static class Job {
+
+        List<Algorithm> algorithms = new ArrayList<>();
+        String graph = "random";
+        int nodesNumber = 100;
+        int edgesNumber = 3;
+        int maxValue = Constants.MAX_NODE_VALUE;
+        boolean directed;
+        long seed = new Random().nextLong();
+        String name;
+        long timeLimitMillis = AlgorithmRunner.DEFAULT_TIME_LIMIT_MILLIS;
+        long timeoutMillis = Long.MAX_VALUE;
+        boolean stopAtTarget;
+        ResultWriter.Format format = ResultWriter.Format.JSON;
+        String outputPath;
+        boolean summary;
+
+        static Job parse(String[] options) {
+            Job job = new Job();
+            for (int k = 0; k < options.length; k++) {
+                String option = options[k];
+                switch (option) {
+                    case "--directed":
+                        job.directed = true;
+                        continue;
+                    case "--stop-at-target":
+                        job.stopAtTarget = true;
+                        continue;
+                    case "--summary":
+                        job.summary = true;
+                        continue;
+                }
+                if (k + 1 == options.length) {
+                    throw new IllegalArgumentException("The value of " + option + " is missing.");
+                }
+                String value = options[++k];
+                switch (option) {
+                    case "--algorithm":
+                        job.algorithms = parseAlgorithms(value);
+                        break;
+                    case "--graph":
+                        job.graph = value;
+                        break;
+                    case "--nodes":
+                        job.nodesNumber = Integer.parseInt(value);
+                        break;
+                    case "--edges":
+                        job.edgesNumber = Integer.parseInt(value);
+                        break;
+                    case "--max-value":
+                        job.maxValue = Integer.parseInt(value);
+                        break;
+                    case "--seed":
+                        job.seed = Long.parseLong(value);
+                        break;
+                    case "--name":
+                        job.name = value;
+                        break;
+                    case "--time-limit":
+                        job.timeLimitMillis = Long.parseLong(value);
+                        break;
+                    case "--timeout":
+                        job.timeoutMillis = Long.parseLong(value);
+                        break;
+                    case "--format":
+                        job.format = ResultWriter.Format.valueOf(value.toUpperCase(Locale.ROOT));
+                        break;
+                    case "--output":
+                        job.outputPath = value;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + option + ".");
+                }
+            }
+            return job;
+        }
+
+        private static List<Algorithm> parseAlgorithms(String value) {
+            if (value.equals("all")) {
+                return Arrays.asList(Algorithm.values());
+            }
+            List<Algorithm> algorithms = new ArrayList<>();
+            for (String name : value.split(",")) {
+                try {
+                    algorithms.add(Algorithm.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+                }
+                catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unknown algorithm " + name + ", expected one of " + Arrays.stream(Algorithm.values()).map(Algorithm::name).collect(Collectors.joining(", ")) + ".");
+                }
+            }
+            return algorithms;
+        }
+
+        AdjacencyListGraph createGraph() throws Exception {
+            switch (graph) {
+                case "random":
+                    return GraphUtils.createRandomGraph(nodesNumber, edgesNumber, maxValue, directed, new Random(seed));
+                case "delaunay":
+                    return GraphUtils.createDelaunayGraph(nodesNumber, maxValue, directed, new Random(seed));
+                default:
+                    return GraphUtils.readGraph(Paths.get(graph));
+            }
+        }
+
+        /**
+         * @return the given name, or else one that is enough to generate the same graph again
+         */
+        String graphName() {
+            if (name != null) {
+                return name;
+            }
+            switch (graph) {
+                case "random":
+                    return "random-" + nodesNumber + "-" + edgesNumber + "-" + maxValue + (directed ? "-directed" : "") + "-seed" + seed;
+                case "delaunay":
+                    return "delaunay-" + nodesNumber + "-" + maxValue + (directed ? "-directed" : "") + "-seed" + seed;
+                default:
+                    return Paths.get(graph).getFileName().toString();
+            }
+        }
+    }
+}
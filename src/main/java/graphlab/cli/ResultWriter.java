@@ -0,0 +1,154 @@
+package graphlab.cli;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes the results, one line per run: a JSON object per line (JSON Lines), or a CSV row after a
+ * header. In the CSV the results of the algorithm go in the last column as name=value pairs
+ * separated by ';', with the arrays as values separated by spaces and the lists of arrays
+ * separated by '|'.
+ */
+public class ResultWriter {
+
+    public enum Format { JSON, CSV }
+
+    private static final String CSV_HEADER = "graph,nodes,edges,algorithm,millis,visited_nodes,visited_edges,cost,error,results";
+
+    private final PrintStream out;
+    private final Format format;
+    private boolean headerWritten;
+
+    public ResultWriter(PrintStream out, Format format) {
+        this.out = out;
+        this.format = format;
+    }
+
+    public void write(RunResult result) {
+        if (format == Format.JSON) {
+            out.println(toJson(result));
+        }
+        else {
+            if (!headerWritten) {
+                out.println(CSV_HEADER);
+                headerWritten = true;
+            }
+            out.println(toCsv(result));
+        }
+        out.flush();
+    }
+
+    private static String toJson(RunResult result) {
+        StringBuilder json = new StringBuilder("{");
+        json.append("\"graph\":").append(jsonString(result.getGraphName()));
+        json.append(",\"nodes\":").append(result.getNodesNumber());
+        json.append(",\"edges\":").append(result.getEdgesNumber());
+        json.append(",\"algorithm\":").append(jsonString(result.getAlgorithm().name()));
+        json.append(",\"millis\":").append(number(result.getMillis()));
+        json.append(",\"visitedNodes\":").append(result.getVisitedNodes());
+        json.append(",\"visitedEdges\":").append(result.getVisitedEdges());
+        json.append(",\"cost\":").append(Double.isNaN(result.getCost()) ? "null" : number(result.getCost()));
+        json.append(",\"error\":").append(result.getError() == null ? "null" : jsonString(result.getError()));
+        json.append(",\"results\":{");
+        boolean first = true;
+        for (Map.Entry<String, Object> entry : result.getResults().entrySet()) {
+            json.append(first ? "" : ",").append(jsonString(entry.getKey())).append(':');
+            appendJsonValue(json, entry.getValue());
+            first = false;
+        }
+        return json.append("}}").toString();
+    }
+
+    private static void appendJsonValue(StringBuilder json, Object value) {
+        if (value instanceof int[]) {
+            int[] values = (int[]) value;
+            json.append('[');
+            for (int k = 0; k < values.length; k++) {
+                json.append(k == 0 ? "" : ",").append(values[k]);
+            }
+            json.append(']');
+        }
+        else if (value instanceof List) {
+            List<?> values = (List<?>) value;
+            json.append('[');
+            for (int k = 0; k < values.size(); k++) {
+                json.append(k == 0 ? "" : ",");
+                appendJsonValue(json, values.get(k));
+            }
+            json.append(']');
+        }
+        else if (value instanceof Number) {
+            json.append(value);
+        }
+        else {
+            json.append(jsonString(String.valueOf(value)));
+        }
+    }
+
+    private static String jsonString(String value) {
+        StringBuilder json = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            }
+            else if (c < ' ') {
+                json.append(String.format("\\u%04x", (int) c));
+            }
+            else {
+                json.append(c);
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    private static String toCsv(RunResult result) {
+        StringBuilder results = new StringBuilder();
+        for (Map.Entry<String, Object> entry : result.getResults().entrySet()) {
+            results.append(results.length() == 0 ? "" : ";").append(entry.getKey()).append('=');
+            appendCsvValue(results, entry.getValue());
+        }
+        return String.join(",",
+                csvString(result.getGraphName()),
+                Integer.toString(result.getNodesNumber()),
+                Integer.toString(result.getEdgesNumber()),
+                result.getAlgorithm().name(),
+                number(result.getMillis()),
+                Long.toString(result.getVisitedNodes()),
+                Long.toString(result.getVisitedEdges()),
+                Double.isNaN(result.getCost()) ? "" : number(result.getCost()),
+                result.getError() == null ? "" : csvString(result.getError()),
+                csvString(results.toString()));
+    }
+
+    private static void appendCsvValue(StringBuilder csv, Object value) {
+        if (value instanceof int[]) {
+            int[] values = (int[]) value;
+            for (int k = 0; k < values.length; k++) {
+                csv.append(k == 0 ? "" : " ").append(values[k]);
+            }
+        }
+        else if (value instanceof List) {
+            List<?> values = (List<?>) value;
+            for (int k = 0; k < values.size(); k++) {
+                csv.append(k == 0 ? "" : "|");
+                appendCsvValue(csv, values.get(k));
+            }
+        }
+        else {
+            csv.append(value);
+        }
+    }
+
+    private static String csvString(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String number(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value) : String.format(Locale.ROOT, "%.3f", value);
+    }
+}
@@ -0,0 +1,104 @@
+package graphlab.cli;
+
+import graphlab.algorithms.Algorithm;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The outcome of one algorithm on one graph: the timing, the counts of the visited nodes and
+ * edges, and the results of the algorithm (distances, tree, tour, components...) by name.
+ */
+public class RunResult {
+
+    private final String graphName;
+    private final int nodesNumber;
+    private final int edgesNumber;
+    private final Algorithm algorithm;
+    private final Map<String, Object> results = new LinkedHashMap<>();
+    private double millis;
+    private long visitedNodes;
+    private long visitedEdges;
+    private double cost = Double.NaN;
+    private String error;
+
+    public RunResult(String graphName, int nodesNumber, int edgesNumber, Algorithm algorithm) {
+        this.graphName = graphName;
+        this.nodesNumber = nodesNumber;
+        this.edgesNumber = edgesNumber;
+        this.algorithm = algorithm;
+    }
+
+    public String getGraphName() {
+        return graphName;
+    }
+
+    public int getNodesNumber() {
+        return nodesNumber;
+    }
+
+    public int getEdgesNumber() {
+        return edgesNumber;
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * @return the results by name; the values are numbers, int arrays or lists of int arrays
+     */
+    public Map<String, Object> getResults() {
+        return results;
+    }
+
+    public void putResult(String name, Object value) {
+        results.put(name, value);
+    }
+
+    public double getMillis() {
+        return millis;
+    }
+
+    public void setMillis(double millis) {
+        this.millis = millis;
+    }
+
+    public long getVisitedNodes() {
+        return visitedNodes;
+    }
+
+    public void setVisitedNodes(long visitedNodes) {
+        this.visitedNodes = visitedNodes;
+    }
+
+    public long getVisitedEdges() {
+        return visitedEdges;
+    }
+
+    public void setVisitedEdges(long visitedEdges) {
+        this.visitedEdges = visitedEdges;
+    }
+
+    /**
+     * @return the cost of the result (path to the target, tree, tour), NaN if it has none
+     */
+    public double getCost() {
+        return cost;
+    }
+
+    public void setCost(double cost) {
+        this.cost = cost;
+    }
+
+    /**
+     * @return the message of the exception that stopped the algorithm, null if it ended
+     */
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
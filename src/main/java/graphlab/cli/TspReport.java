@@ -0,0 +1,202 @@
+package graphlab.cli;
+
+import graphlab.algorithms.travelingsalesmanproblem.ArrayTour;
+import graphlab.algorithms.travelingsalesmanproblem.CostFunction;
+import graphlab.algorithms.travelingsalesmanproblem.EuclideanCostFunction;
+import graphlab.algorithms.travelingsalesmanproblem.HeldKarp;
+import graphlab.algorithms.travelingsalesmanproblem.InitialTours;
+import graphlab.algorithms.travelingsalesmanproblem.LinKernighan;
+import graphlab.algorithms.travelingsalesmanproblem.LocalSearch;
+import graphlab.algorithms.travelingsalesmanproblem.MultiStart;
+import graphlab.algorithms.travelingsalesmanproblem.NeighborLists;
+import graphlab.algorithms.travelingsalesmanproblem.ParallelTwoOpt;
+import graphlab.algorithms.travelingsalesmanproblem.SimulatedAnnealing;
+import graphlab.algorithms.travelingsalesmanproblem.SpanningTreeTours;
+import graphlab.algorithms.travelingsalesmanproblem.Tour;
+import graphlab.algorithms.travelingsalesmanproblem.TspInstance;
+import graphlab.algorithms.travelingsalesmanproblem.TsplibReader;
+import graphlab.algorithms.travelingsalesmanproblem.TwoOpt;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongSupplier;
+
+/**
+ * Runs every TSP algorithm on some TSPLIB instances and prints, for each one, the tour length,
+ * the gap to the optimal tour (read from the .opt.tour file next to the instance, when there's
+ * one), the wall time and the improving moves per second. The improvement heuristics start from
+ * the space filling curve tour, or the nearest neighbour one when the instance has no
+ * coordinates, and the time limited ones get the same budget. The parallel 2-opt also prints
+ * the moves per second of every thread.
+ *
+ * Usage: TspReport [--time-limit millis] file.tsp...
+ */
+public class TspReport {
+
+    public static final long DEFAULT_TIME_LIMIT_MILLIS = 1000;
+    // the largest table of Held-Karp, in parts of the maximum heap
+    private static final int HELD_KARP_HEAP_FRACTION = 4;
+    private static final String ROW_FORMAT = "%-12s %-28s %14s %8s %10s %12s %14s%n";
+    private static final String DETAIL_FORMAT = "%-12s   %s%n";
+
+    public static void main(String[] args) throws Exception {
+        long timeLimitMillis = DEFAULT_TIME_LIMIT_MILLIS;
+        List<Path> paths = new ArrayList<>();
+        for (int k = 0; k < args.length; k++) {
+            if (args[k].equals("--time-limit") && k + 1 < args.length) {
+                timeLimitMillis = Long.parseLong(args[++k]);
+            }
+            else {
+                paths.add(Paths.get(args[k]));
+            }
+        }
+        if (paths.isEmpty()) {
+            System.err.println("Usage: TspReport [--time-limit millis] file.tsp...");
+            System.exit(1);
+        }
+        run(paths, timeLimitMillis, System.out);
+    }
+
+    /**
+     * prints the report of the instances, one row per instance and algorithm
+     */
+    public static void run(List<Path> paths, long timeLimitMillis, PrintStream out) throws Exception {
+        out.printf(ROW_FORMAT, "instance", "algorithm", "length", "gap %", "time ms", "moves", "moves/s");
+        for (Path path : paths) {
+            TspInstance instance = TsplibReader.read(path);
+            new InstanceReport(instance, optimalLength(path, instance), timeLimitMillis, out).run();
+        }
+    }
+
+    /**
+     * @return the length of the tour of the .opt.tour file next to the instance, -1 if there's none
+     */
+    private static double optimalLength(Path path, TspInstance instance) throws Exception {
+        String fileName = path.getFileName().toString();
+        String baseName = fileName.endsWith(".tsp") ? fileName.substring(0, fileName.length() - 4) : fileName;
+        Path tourPath = path.resolveSibling(baseName + ".opt.tour");
+        if (!Files.exists(tourPath)) {
+            return -1;
+        }
+        return new ArrayTour(TsplibReader.readTour(tourPath)).length(instance.getCostFunction());
+    }
+
+    /**
+     * The rows of one instance.
+     */
+    private static class InstanceReport {
+
+        private final TspInstance instance;
+        private final CostFunction costFunction;
+        private final double optimalLength;
+        private final long timeLimitMillis;
+        private final PrintStream out;
+        private NeighborLists neighborLists;
+
+        InstanceReport(TspInstance instance, double optimalLength, long timeLimitMillis, PrintStream out) {
+            this.instance = instance;
+            this.costFunction = instance.getCostFunction();
+            this.optimalLength = optimalLength;
+            this.timeLimitMillis = timeLimitMillis;
+            this.out = out;
+        }
+
+        void run() throws Exception {
+            int n = instance.size();
+            long startTime = System.nanoTime();
+            neighborLists = instance.neighborLists(NeighborLists.DEFAULT_SIZE);
+            printRow("neighbor lists", -1, System.nanoTime() - startTime, -1);
+            if (optimalLength >= 0) {
+                printRow("optimal tour file", optimalLength, -1, -1);
+            }
+
+            Tour nearestNeighbor = construct("nearest neighbour", () -> instance.isPlanar()
+                    ? InitialTours.nearestNeighbor(instance.getXs(), instance.getYs(), 0)
+                    : InitialTours.nearestNeighbor(costFunction, 0));
+            Tour curve = null;
+            if (instance.isPlanar()) {
+                construct("greedy", () -> InitialTours.greedy(instance.getXs(), instance.getYs()));
+                curve = construct("space filling curve", () -> InitialTours.spaceFillingCurve(instance.getXs(), instance.getYs()));
+            }
+            Tour start = curve != null ? curve : nearestNeighbor;
+            // with coordinates, the trees are built on the exact distances, that the costs round
+            CostFunction treeCost = instance.isPlanar() ? new EuclideanCostFunction(instance.getXs(), instance.getYs()) : costFunction;
+            construct("double tree", () -> SpanningTreeTours.doubleTree(treeCost));
+            construct("christofides", () -> SpanningTreeTours.christofides(treeCost));
+
+            LocalSearch twoOpt = new LocalSearch(new TwoOpt(costFunction, neighborLists));
+            Tour twoOptTour = new ArrayTour(start);
+            improve("2-opt", () -> {
+                twoOpt.optimize(twoOptTour);
+                return twoOptTour;
+            }, twoOpt::getMoves);
+            LocalSearch localSearch = LocalSearch.of(costFunction, neighborLists);
+            Tour localSearchTour = new ArrayTour(start);
+            improve("2-opt + or-opt + insertion", () -> {
+                localSearch.optimize(localSearchTour);
+                return localSearchTour;
+            }, localSearch::getMoves);
+            ParallelTwoOpt parallelTwoOpt = new ParallelTwoOpt(costFunction, neighborLists);
+            // the moves per second of every thread, printed under the row of the parallel 2-opt
+            List<String> threadReports = new ArrayList<>();
+            improve("parallel 2-opt", () -> parallelTwoOpt.optimize(ForkJoinPool.commonPool(), start, threadReports::add), parallelTwoOpt::getMoves);
+            threadReports.forEach(this::printDetail);
+            LinKernighan linKernighan = new LinKernighan(costFunction, neighborLists);
+            improve("lin-kernighan", () -> linKernighan.optimize(start, timeLimitMillis), linKernighan::getMoves);
+            SimulatedAnnealing annealing = new SimulatedAnnealing(costFunction, neighborLists);
+            improve("simulated annealing", () -> annealing.optimize(start, timeLimitMillis), annealing::getMoves);
+            MultiStart multiStart = new MultiStart(costFunction, neighborLists, instance.getXs(), instance.getYs());
+            improve("multi-start", () -> multiStart.run(4 * ForkJoinPool.commonPool().getParallelism(), timeLimitMillis), () -> -1);
+
+            if (n <= HeldKarp.MAX_CITIES && HeldKarp.requiredBytes(n) <= Runtime.getRuntime().maxMemory() / HELD_KARP_HEAP_FRACTION) {
+                construct("held-karp", () -> HeldKarp.solve(costFunction, this::printDetail));
+            }
+        }
+
+        /**
+         * runs a construction heuristic and prints its row
+         * @return the tour built
+         */
+        private Tour construct(String algorithm, TourBuilder builder) throws Exception {
+            long startTime = System.nanoTime();
+            Tour tour = builder.build();
+            printRow(algorithm, tour.length(costFunction), System.nanoTime() - startTime, -1);
+            return tour;
+        }
+
+        /**
+         * runs an improvement heuristic and prints its row, with the moves it counted (-1 if
+         * it doesn't count them)
+         */
+        private void improve(String algorithm, TourBuilder improvement, LongSupplier moves) throws Exception {
+            long startTime = System.nanoTime();
+            Tour tour = improvement.build();
+            printRow(algorithm, tour.length(costFunction), System.nanoTime() - startTime, moves.getAsLong());
+        }
+
+        private void printDetail(String detail) {
+            out.printf(DETAIL_FORMAT, instance.getName(), detail);
+        }
+
+        private void printRow(String algorithm, double length, long nanos, long moves) {
+            double seconds = nanos / 1e9;
+            out.printf(ROW_FORMAT,
+                    instance.getName(),
+                    algorithm,
+                    length < 0 ? "-" : String.format("%.0f", length),
+                    length < 0 || optimalLength <= 0 ? "-" : String.format("%.2f", 100 * (length - optimalLength) / optimalLength),
+                    nanos < 0 ? "-" : String.format("%.1f", nanos / 1e6),
+                    moves < 0 ? "-" : Long.toString(moves),
+                    moves < 0 || seconds <= 0 ? "-" : String.format("%.0f", moves / seconds));
+        }
+    }
+
+    private interface TourBuilder {
+        Tour build() throws Exception;
+    }
+}
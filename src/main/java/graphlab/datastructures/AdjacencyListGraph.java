@@ -38,6 +38,14 @@ public class AdjacencyListGraph extends Graph {
         nodes.remove(node);
     }
 
+    @Override
+    public void removeEdge(Node source, Node destination) {
+        source.removeEdge(destination);
+        if (!directed) {
+            destination.removeEdge(source);
+        }
+    }
+
     @Override
     public void clear() {
         nodes.clear();
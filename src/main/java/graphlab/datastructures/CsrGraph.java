@@ -0,0 +1,253 @@
+package graphlab.datastructures;
+
+import java.util.*;
+
+/**
+ * An immutable compressed sparse row copy of a graph, for the algorithms that need to run
+ * over primitive arrays: the arcs leaving node i are the positions offsets[i]..offsets[i+1]-1
+ * of targets and costs, sorted by target. Nodes are identified by their position in
+ * graph.getNodes(); when the graph has been built from a Graph, the original nodes and edges
+ * can be retrieved with getNode() and getEdge().
+ */
+public class CsrGraph {
+
+    private final int nodesNumber;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] costs;
+    private final boolean directed;
+    private Node[] nodes;
+    private Edge[] edges;
+    private int[] sources;
+
+    private CsrGraph(int nodesNumber, int[] offsets, int[] targets, int[] costs, boolean directed) {
+        this.nodesNumber = nodesNumber;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.costs = costs;
+        this.directed = directed;
+    }
+
+    /**
+     * copies the arcs of the graph as they are
+     * @param graph
+     * @return
+     */
+    public static CsrGraph of(Graph graph) {
+        return of(graph, false);
+    }
+
+    /**
+     * copies the graph adding the reverse of every arc (when missing), for the algorithms
+     * that work on undirected graphs
+     * @param graph
+     * @return
+     */
+    public static CsrGraph undirected(Graph graph) {
+        return of(graph, true);
+    }
+
+    private static CsrGraph of(Graph graph, boolean symmetric) {
+        List<Node> nodeList = graph.getNodes();
+        int n = nodeList.size();
+        Map<Node, Integer> indexes = new IdentityHashMap<>();
+        for (int i = 0; i < n; i++) {
+            indexes.put(nodeList.get(i), i);
+        }
+
+        int arcsNumber = 0;
+        for (Node node : nodeList) {
+            arcsNumber += node.getEdges().size();
+        }
+        int capacity = symmetric ? arcsNumber * 2 : arcsNumber;
+        int[] sources = new int[capacity];
+        int[] targets = new int[capacity];
+        int[] costs = new int[capacity];
+        Edge[] edges = new Edge[capacity];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            for (Edge edge : nodeList.get(i).getEdges()) {
+                Integer j = indexes.get(edge.getDestination());
+                if (j == null) {
+                    continue;
+                }
+                sources[count] = i;
+                targets[count] = j;
+                costs[count] = edge.getCost();
+                edges[count++] = edge;
+                if (symmetric) {
+                    sources[count] = j;
+                    targets[count] = i;
+                    costs[count] = edge.getCost();
+                    edges[count++] = edge;
+                }
+            }
+        }
+
+        CsrGraph csr = build(n, sources, targets, costs, edges, count, !symmetric && graph.isDirected(), symmetric);
+        csr.nodes = nodeList.toArray(new Node[n]);
+        return csr;
+    }
+
+    /**
+     * builds the graph from a list of arcs
+     * @param nodesNumber the number of nodes
+     * @param sources the source of every arc
+     * @param targets the target of every arc
+     * @param costs the cost of every arc
+     * @param directed if false, the reverse of every arc is added
+     * @return
+     */
+    public static CsrGraph fromArcs(int nodesNumber, int[] sources, int[] targets, int[] costs, boolean directed) {
+        int count = sources.length;
+        if (directed) {
+            return build(nodesNumber, sources.clone(), targets.clone(), costs.clone(), null, count, true, false);
+        }
+        int[] allSources = Arrays.copyOf(sources, count * 2);
+        int[] allTargets = Arrays.copyOf(targets, count * 2);
+        int[] allCosts = Arrays.copyOf(costs, count * 2);
+        System.arraycopy(targets, 0, allSources, count, count);
+        System.arraycopy(sources, 0, allTargets, count, count);
+        System.arraycopy(costs, 0, allCosts, count, count);
+        return build(nodesNumber, allSources, allTargets, allCosts, null, count * 2, false, true);
+    }
+
+    /**
+     * sorts the arcs by source and target with a counting sort on the sources; parallel arcs
+     * are dropped when removeDuplicates is set (keeping the cheapest) and so are self loops
+     */
+    private static CsrGraph build(int n, int[] sources, int[] targets, int[] costs, Edge[] edges, int count, boolean directed, boolean removeDuplicates) {
+        int[] offsets = new int[n + 1];
+        for (int k = 0; k < count; k++) {
+            offsets[sources[k] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] next = Arrays.copyOf(offsets, n);
+        int[] order = new int[count];
+        for (int k = 0; k < count; k++) {
+            order[next[sources[k]]++] = k;
+        }
+
+        // sorts every row by target, keeping the input order for parallel arcs
+        long[] row = new long[16];
+        int[] sortedTargets = new int[count];
+        int[] sortedCosts = new int[count];
+        Edge[] sortedEdges = edges != null ? new Edge[count] : null;
+        int[] newOffsets = new int[n + 1];
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            int from = offsets[i];
+            int length = offsets[i + 1] - from;
+            if (row.length < length) {
+                row = new long[length];
+            }
+            for (int k = 0; k < length; k++) {
+                row[k] = ((long) targets[order[from + k]] << 32) | k;
+            }
+            Arrays.sort(row, 0, length);
+            int lastTarget = -1;
+            for (int k = 0; k < length; k++) {
+                int arc = order[from + (int) row[k]];
+                int target = targets[arc];
+                if (removeDuplicates && (target == i || target == lastTarget)) {
+                    if (target == lastTarget && costs[arc] < sortedCosts[size - 1]) {
+                        sortedCosts[size - 1] = costs[arc];
+                        if (sortedEdges != null) sortedEdges[size - 1] = edges[arc];
+                    }
+                    continue;
+                }
+                lastTarget = target;
+                sortedTargets[size] = target;
+                sortedCosts[size] = costs[arc];
+                if (sortedEdges != null) sortedEdges[size] = edges[arc];
+                size++;
+            }
+            newOffsets[i + 1] = size;
+        }
+
+        CsrGraph csr = new CsrGraph(n, newOffsets, Arrays.copyOf(sortedTargets, size), Arrays.copyOf(sortedCosts, size), directed);
+        csr.edges = sortedEdges != null ? Arrays.copyOf(sortedEdges, size) : null;
+        return csr;
+    }
+
+    public int getNodesNumber() {
+        return nodesNumber;
+    }
+
+    public int getArcsNumber() {
+        return targets.length;
+    }
+
+    public boolean isDirected() {
+        return directed;
+    }
+
+    public int getDegree(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    /**
+     * @return the array of the row offsets, of length getNodesNumber() + 1
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    public int[] getTargets() {
+        return targets;
+    }
+
+    public int[] getCosts() {
+        return costs;
+    }
+
+    /**
+     * @return the source of every arc (computed on first use)
+     */
+    public int[] getSources() {
+        if (sources == null) {
+            int[] result = new int[targets.length];
+            for (int i = 0; i < nodesNumber; i++) {
+                Arrays.fill(result, offsets[i], offsets[i + 1], i);
+            }
+            sources = result;
+        }
+        return sources;
+    }
+
+    /**
+     * @return the node of the original graph, or null if the graph was not built from a Graph
+     */
+    public Node getNode(int node) {
+        return nodes != null ? nodes[node] : null;
+    }
+
+    /**
+     * @return the edge of the original graph for the arc, or null if the graph was not built from
+     * a Graph; for undirected copies the reverse arc maps to the same edge.
+     */
+    public Edge getEdge(int arc) {
+        return edges != null ? edges[arc] : null;
+    }
+
+    /**
+     * @return the index of the node, or -1 if it's not in the graph
+     */
+    public int indexOf(Node node) {
+        if (nodes != null) {
+            for (int i = 0; i < nodes.length; i++) {
+                if (nodes[i] == node) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return "CsrGraph [nodes=" + nodesNumber + ", arcs=" + targets.length + ", directed=" + directed + "]";
+    }
+}
@@ -0,0 +1,405 @@
+package graphlab.datastructures;
+
+import java.util.*;
+
+/**
+ * Fully dynamic connectivity (Holm, de Lichtenberg and Thorup): edges can be added and removed
+ * in O(log^2 n) amortized time, while connectivity queries take O(log n).
+ *
+ * Every edge has a level, and F(i) is a spanning forest of the edges whose level is at least i,
+ * so that F(0) is a spanning forest of the whole graph. Each forest is stored as Euler tour trees
+ * (balanced by treaps). When a tree edge is removed, a replacement is searched among the non tree
+ * edges of the smaller of the two resulting trees; the edges that are not a replacement are moved
+ * one level up, and since a tree of F(i) has at most n / 2^i nodes an edge can move up at most
+ * log n times, which pays for the search.
+ */
+public class DynamicConnectivity {
+
+    private static final Random RANDOM = new Random();
+
+    private final int nodesNumber;
+    private final EulerTourForest[] forests;
+    private final List<Map<Integer, Set<Integer>>> nonTreeEdges = new ArrayList<>();
+    private final Map<Long, Integer> edgeLevels = new HashMap<>();
+    private final Set<Long> treeEdges = new HashSet<>();
+    private int componentsNumber;
+
+    public DynamicConnectivity(int nodesNumber) {
+        this.nodesNumber = nodesNumber;
+        this.componentsNumber = nodesNumber;
+        int levels = 32 - Integer.numberOfLeadingZeros(Math.max(1, nodesNumber)) + 1;
+        forests = new EulerTourForest[levels];
+        for (int i = 0; i < levels; i++) {
+            forests[i] = new EulerTourForest();
+            nonTreeEdges.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * creates the structure for the edges of the graph; nodes are identified by their
+     * position in graph.getNodes().
+     * @param graph
+     */
+    public DynamicConnectivity(Graph graph) {
+        this(graph.getNodes().size());
+        Map<Node, Integer> indexes = new IdentityHashMap<>();
+        List<Node> nodes = graph.getNodes();
+        for (int i = 0; i < nodes.size(); i++) {
+            indexes.put(nodes.get(i), i);
+        }
+        for (Node node : nodes) {
+            for (Edge edge : node.getEdges()) {
+                addEdge(indexes.get(node), indexes.get(edge.getDestination()));
+            }
+        }
+    }
+
+    public boolean connected(int u, int v) {
+        return u == v || forests[0].connected(u, v);
+    }
+
+    public boolean containsEdge(int u, int v) {
+        return edgeLevels.containsKey(key(u, v));
+    }
+
+    public int getComponentsNumber() {
+        return componentsNumber;
+    }
+
+    public int getNodesNumber() {
+        return nodesNumber;
+    }
+
+    /**
+     * adds the undirected edge (u, v)
+     * @return false if the edge was already present or it's a self loop
+     */
+    public boolean addEdge(int u, int v) {
+        long key = key(u, v);
+        if (u == v || edgeLevels.containsKey(key)) {
+            return false;
+        }
+        edgeLevels.put(key, 0);
+        if (forests[0].connected(u, v)) {
+            addNonTreeEdge(0, u, v);
+        }
+        else {
+            forests[0].link(u, v, key);
+            forests[0].setTreeEdge(key, true);
+            treeEdges.add(key);
+            componentsNumber--;
+        }
+        return true;
+    }
+
+    /**
+     * removes the undirected edge (u, v)
+     * @return false if the edge was not present
+     */
+    public boolean removeEdge(int u, int v) {
+        long key = key(u, v);
+        Integer level = edgeLevels.remove(key);
+        if (level == null) {
+            return false;
+        }
+        if (!treeEdges.remove(key)) {
+            removeNonTreeEdge(level, u, v);
+            return true;
+        }
+
+        for (int i = 0; i <= level; i++) {
+            forests[i].cut(key);
+        }
+        componentsNumber++;
+
+        for (int i = level; i >= 0; i--) {
+            if (replace(i, u, v)) {
+                componentsNumber--;
+                return true;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * looks for a replacement edge at the specified level after (u, v) has been cut
+     */
+    private boolean replace(int level, int u, int v) {
+        EulerTourForest forest = forests[level];
+        int smaller = forest.treeSize(u) <= forest.treeSize(v) ? u : v;
+
+        // the tree edges of the smaller tree move up one level
+        TreapNode arc;
+        while ((arc = findFlagged(forest.root(smaller), true)) != null) {
+            forest.setTreeEdge(arc.key, false);
+            edgeLevels.put(arc.key, level + 1);
+            forests[level + 1].link(arc.vertex, arc.destination, arc.key);
+            forests[level + 1].setTreeEdge(arc.key, true);
+        }
+
+        // every non tree edge either reconnects the trees or moves up one level
+        TreapNode vertexNode;
+        while ((vertexNode = findFlagged(forest.root(smaller), false)) != null) {
+            int x = vertexNode.vertex;
+            for (Integer y : new ArrayList<>(nonTreeEdges.get(level).get(x))) {
+                removeNonTreeEdge(level, x, y);
+                long key = key(x, y);
+                if (forest.connected(x, y)) {
+                    edgeLevels.put(key, level + 1);
+                    addNonTreeEdge(level + 1, x, y);
+                }
+                else {
+                    for (int i = 0; i <= level; i++) {
+                        forests[i].link(x, y, key);
+                    }
+                    forest.setTreeEdge(key, true);
+                    treeEdges.add(key);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void addNonTreeEdge(int level, int u, int v) {
+        Map<Integer, Set<Integer>> adjacency = nonTreeEdges.get(level);
+        adjacency.computeIfAbsent(u, k -> new HashSet<>()).add(v);
+        adjacency.computeIfAbsent(v, k -> new HashSet<>()).add(u);
+        forests[level].setNonTreeEdges(u, true);
+        forests[level].setNonTreeEdges(v, true);
+    }
+
+    private void removeNonTreeEdge(int level, int u, int v) {
+        removeHalfNonTreeEdge(level, u, v);
+        removeHalfNonTreeEdge(level, v, u);
+    }
+
+    private void removeHalfNonTreeEdge(int level, int u, int v) {
+        Map<Integer, Set<Integer>> adjacency = nonTreeEdges.get(level);
+        Set<Integer> neighbours = adjacency.get(u);
+        neighbours.remove(v);
+        if (neighbours.isEmpty()) {
+            adjacency.remove(u);
+            forests[level].setNonTreeEdges(u, false);
+        }
+    }
+
+    private static long key(int u, int v) {
+        return u < v ? ((long) u << 32) | v : ((long) v << 32) | u;
+    }
+
+    /**
+     * finds a node of the tree that carries a tree edge of the level (if treeEdge is true)
+     * or that has non tree edges at the level (if treeEdge is false)
+     */
+    private static TreapNode findFlagged(TreapNode node, boolean treeEdge) {
+        if (node == null || !(treeEdge ? node.anyTreeEdge : node.anyNonTreeEdges)) {
+            return null;
+        }
+        while (true) {
+            if (treeEdge ? node.treeEdge : node.nonTreeEdges) {
+                return node;
+            }
+            if (node.left != null && (treeEdge ? node.left.anyTreeEdge : node.left.anyNonTreeEdges)) {
+                node = node.left;
+            }
+            else {
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * The Euler tours of the trees of one forest. Every vertex has one occurrence in its tour,
+     * and every tree edge two arcs, so that a tree with k vertices has a tour of 3k - 2 nodes.
+     */
+    private class EulerTourForest {
+
+        private final TreapNode[] vertexNodes = new TreapNode[nodesNumber];
+        private final Map<Long, TreapNode[]> arcs = new HashMap<>();
+
+        private TreapNode vertexNode(int vertex) {
+            if (vertexNodes[vertex] == null) {
+                vertexNodes[vertex] = new TreapNode(vertex, -1, -1);
+            }
+            return vertexNodes[vertex];
+        }
+
+        TreapNode root(int vertex) {
+            return TreapNode.root(vertexNode(vertex));
+        }
+
+        boolean connected(int u, int v) {
+            return root(u) == root(v);
+        }
+
+        int treeSize(int vertex) {
+            return root(vertex).vertices;
+        }
+
+        private TreapNode reroot(int vertex) {
+            TreapNode node = vertexNode(vertex);
+            TreapNode[] parts = TreapNode.split(TreapNode.root(node), TreapNode.index(node));
+            return TreapNode.merge(parts[1], parts[0]);
+        }
+
+        void link(int u, int v, long key) {
+            TreapNode tourU = reroot(u);
+            TreapNode tourV = reroot(v);
+            TreapNode arcUV = new TreapNode(u, v, key);
+            TreapNode arcVU = new TreapNode(v, u, key);
+            arcs.put(key, new TreapNode[]{arcUV, arcVU});
+            TreapNode.merge(TreapNode.merge(TreapNode.merge(tourU, arcUV), tourV), arcVU);
+        }
+
+        void cut(long key) {
+            TreapNode[] pair = arcs.remove(key);
+            TreapNode first = pair[0];
+            TreapNode second = pair[1];
+            if (TreapNode.index(first) > TreapNode.index(second)) {
+                first = pair[1];
+                second = pair[0];
+            }
+            // the tour is A first B second C: B is the detached tree and A C the other one
+            TreapNode root = TreapNode.root(first);
+            int firstIndex = TreapNode.index(first);
+            int secondIndex = TreapNode.index(second);
+            TreapNode[] left = TreapNode.split(root, firstIndex);
+            TreapNode[] right = TreapNode.split(left[1], secondIndex - firstIndex + 1);
+            TreapNode[] middle = TreapNode.split(right[0], 1);
+            TreapNode.split(middle[1], middle[1].size - 1);
+            TreapNode.merge(left[0], right[1]);
+        }
+
+        void setTreeEdge(long key, boolean value) {
+            TreapNode arc = arcs.get(key)[0];
+            arc.treeEdge = value;
+            TreapNode.updateToRoot(arc);
+        }
+
+        void setNonTreeEdges(int vertex, boolean value) {
+            TreapNode node = vertexNode(vertex);
+            node.nonTreeEdges = value;
+            TreapNode.updateToRoot(node);
+        }
+    }
+
+    /**
+     * A node of the treap that stores an Euler tour in its in-order sequence.
+     */
+    private static class TreapNode {
+
+        TreapNode left;
+        TreapNode right;
+        TreapNode parent;
+        final int priority = RANDOM.nextInt();
+
+        // a vertex occurrence has destination -1, an arc goes from vertex to destination
+        final int vertex;
+        final int destination;
+        final long key;
+
+        int size = 1;
+        int vertices;
+        boolean treeEdge;
+        boolean nonTreeEdges;
+        boolean anyTreeEdge;
+        boolean anyNonTreeEdges;
+
+        TreapNode(int vertex, int destination, long key) {
+            this.vertex = vertex;
+            this.destination = destination;
+            this.key = key;
+            update();
+        }
+
+        void update() {
+            size = 1;
+            vertices = destination < 0 ? 1 : 0;
+            anyTreeEdge = treeEdge;
+            anyNonTreeEdges = nonTreeEdges;
+            if (left != null) {
+                size += left.size;
+                vertices += left.vertices;
+                anyTreeEdge |= left.anyTreeEdge;
+                anyNonTreeEdges |= left.anyNonTreeEdges;
+            }
+            if (right != null) {
+                size += right.size;
+                vertices += right.vertices;
+                anyTreeEdge |= right.anyTreeEdge;
+                anyNonTreeEdges |= right.anyNonTreeEdges;
+            }
+        }
+
+        static void updateToRoot(TreapNode node) {
+            for (; node != null; node = node.parent) {
+                node.update();
+            }
+        }
+
+        static TreapNode root(TreapNode node) {
+            while (node.parent != null) {
+                node = node.parent;
+            }
+            return node;
+        }
+
+        /**
+         * @return the position of the node in the sequence of its treap
+         */
+        static int index(TreapNode node) {
+            int index = node.left != null ? node.left.size : 0;
+            for (; node.parent != null; node = node.parent) {
+                if (node.parent.right == node) {
+                    index += 1 + (node.parent.left != null ? node.parent.left.size : 0);
+                }
+            }
+            return index;
+        }
+
+        static TreapNode merge(TreapNode a, TreapNode b) {
+            if (a == null) return b;
+            if (b == null) return a;
+            if (a.priority > b.priority) {
+                a.right = merge(a.right, b);
+                a.right.parent = a;
+                a.update();
+                a.parent = null;
+                return a;
+            }
+            b.left = merge(a, b.left);
+            b.left.parent = b;
+            b.update();
+            b.parent = null;
+            return b;
+        }
+
+        /**
+         * splits the treap in the first count nodes and the remaining ones
+         */
+        static TreapNode[] split(TreapNode node, int count) {
+            if (node == null) {
+                return new TreapNode[2];
+            }
+            int leftSize = node.left != null ? node.left.size : 0;
+            TreapNode[] result;
+            if (count <= leftSize) {
+                result = split(node.left, count);
+                node.left = result[1];
+                if (node.left != null) node.left.parent = node;
+                result[1] = node;
+            }
+            else {
+                result = split(node.right, count - leftSize - 1);
+                node.right = result[0];
+                if (node.right != null) node.right.parent = node;
+                result[0] = node;
+            }
+            node.update();
+            if (result[0] != null) result[0].parent = null;
+            if (result[1] != null) result[1].parent = null;
+            return result;
+        }
+    }
+}
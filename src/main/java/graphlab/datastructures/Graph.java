@@ -13,6 +13,8 @@ public abstract class Graph {
 
     public abstract void removeNode(Node node);
 
+    public abstract void removeEdge(Node source, Node destination);
+
     public abstract void clear();
 
     public abstract Set<Edge> getEdges();
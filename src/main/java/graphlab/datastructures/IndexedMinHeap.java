@@ -0,0 +1,123 @@
+package graphlab.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * A binary min heap of the integers 0..n-1 with int priorities; since the heap also keeps the
+ * position of every element, the priority of an element can be decreased in O(log n), which is
+ * not possible with java.util.PriorityQueue.
+ */
+public class IndexedMinHeap {
+
+    private final int[] heap;
+    private final int[] positions;
+    private final int[] keys;
+    private int size;
+
+    public IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        positions = new int[capacity];
+        keys = new int[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int element) {
+        return positions[element] >= 0;
+    }
+
+    public int getKey(int element) {
+        return keys[element];
+    }
+
+    public void insert(int element, int key) {
+        keys[element] = key;
+        heap[size] = element;
+        positions[element] = size;
+        siftUp(size++);
+    }
+
+    public void decreaseKey(int element, int key) {
+        keys[element] = key;
+        siftUp(positions[element]);
+    }
+
+    /**
+     * inserts the element, or decreases its key if it's already in the heap with a higher one
+     * @return true if the heap changed
+     */
+    public boolean insertOrDecrease(int element, int key) {
+        if (!contains(element)) {
+            insert(element, key);
+            return true;
+        }
+        if (key < keys[element]) {
+            decreaseKey(element, key);
+            return true;
+        }
+        return false;
+    }
+
+    public int peek() {
+        return heap[0];
+    }
+
+    /**
+     * removes the element with the lowest key
+     * @return the removed element
+     */
+    public int poll() {
+        int min = heap[0];
+        positions[min] = -1;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            positions[heap[0]] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    private void siftUp(int position) {
+        int element = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (keys[heap[parent]] <= keys[element]) {
+                break;
+            }
+            heap[position] = heap[parent];
+            positions[heap[position]] = position;
+            position = parent;
+        }
+        heap[position] = element;
+        positions[element] = position;
+    }
+
+    private void siftDown(int position) {
+        int element = heap[position];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) {
+                child++;
+            }
+            if (keys[heap[child]] >= keys[element]) {
+                break;
+            }
+            heap[position] = heap[child];
+            positions[heap[position]] = position;
+            position = child;
+        }
+        heap[position] = element;
+        positions[element] = position;
+    }
+}
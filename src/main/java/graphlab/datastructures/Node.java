@@ -38,6 +38,15 @@ public class Node {
         edges.add(edge);
     }
 
+    /**
+     * removes the edge to the specified node; the match is by reference since edges
+     * hash on the coordinates of their nodes, which change when a node is dragged.
+     * @param destination
+     */
+    public void removeEdge(Node destination) {
+        edges.removeIf(edge -> edge.getDestination() == destination);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
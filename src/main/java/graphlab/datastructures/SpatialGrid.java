@@ -0,0 +1,232 @@
+package graphlab.datastructures;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A uniform grid over a set of points on the plane, with about two points per cell, for the
+ * nearest neighbour queries: the cells are visited in rings of growing distance around the query
+ * point, and the search stops as soon as the next ring cannot contain anything closer than what
+ * has already been found. Points are identified by their index in the coordinates arrays.
+ *
+ * Points can be removed, as the visited cities when building a tour: the points of every cell are
+ * kept at the start of its slice, so a removal swaps the point with the last one of its cell, and
+ * the searches never look at removed points.
+ */
+public class SpatialGrid {
+
+    private static final int POINTS_PER_CELL = 2;
+
+    private final double[] xs;
+    private final double[] ys;
+    private final double minX;
+    private final double minY;
+    private final double cellSide;
+    private final int columns;
+    private final int rows;
+
+    // the points of cell c are cellPoints[cellStarts[c]]..cellPoints[cellStarts[c]+cellSizes[c]-1]
+    private final int[] cellStarts;
+    private final int[] cellSizes;
+    private final int[] cellPoints;
+    private final int[] pointPositions;
+    private final BitSet removed;
+    private int size;
+
+    public SpatialGrid(double[] xs, double[] ys) {
+        this.xs = xs;
+        this.ys = ys;
+        int n = xs.length;
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxX = Math.max(maxX, xs[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        if (n == 0) {
+            minX = minY = maxX = maxY = 0;
+        }
+        this.minX = minX;
+        this.minY = minY;
+
+        int cellsPerSide = Math.max(1, (int) Math.ceil(Math.sqrt(n / (double) POINTS_PER_CELL)));
+        double side = Math.max(maxX - minX, maxY - minY) / cellsPerSide;
+        this.cellSide = side > 0 ? side : 1;
+        this.columns = (int) ((maxX - minX) / cellSide) + 1;
+        this.rows = (int) ((maxY - minY) / cellSide) + 1;
+
+        cellStarts = new int[columns * rows + 1];
+        for (int i = 0; i < n; i++) {
+            cellStarts[cellOf(i) + 1]++;
+        }
+        for (int c = 0; c < columns * rows; c++) {
+            cellStarts[c + 1] += cellStarts[c];
+        }
+        cellPoints = new int[n];
+        pointPositions = new int[n];
+        cellSizes = new int[columns * rows];
+        for (int i = 0; i < n; i++) {
+            int cell = cellOf(i);
+            pointPositions[i] = cellStarts[cell] + cellSizes[cell]++;
+            cellPoints[pointPositions[i]] = i;
+        }
+        removed = new BitSet(n);
+        size = n;
+    }
+
+    /**
+     * removes the point from the grid, if it's still there
+     */
+    public void remove(int point) {
+        if (removed.get(point)) {
+            return;
+        }
+        removed.set(point);
+        size--;
+        int cell = cellOf(point);
+        int last = cellStarts[cell] + --cellSizes[cell];
+        int lastPoint = cellPoints[last];
+        cellPoints[pointPositions[point]] = lastPoint;
+        pointPositions[lastPoint] = pointPositions[point];
+        cellPoints[last] = point;
+        pointPositions[point] = last;
+    }
+
+    public boolean contains(int point) {
+        return !removed.get(point);
+    }
+
+    private int cellOf(int point) {
+        return row(ys[point]) * columns + column(xs[point]);
+    }
+
+    private int column(double x) {
+        return Math.min(columns - 1, Math.max(0, (int) ((x - minX) / cellSide)));
+    }
+
+    private int row(double y) {
+        return Math.min(rows - 1, Math.max(0, (int) ((y - minY) / cellSide)));
+    }
+
+    /**
+     * @return the k points closest to the point (excluding itself), sorted by distance; less
+     * than k if there are not enough points
+     */
+    public int[] nearest(int point, int k) {
+        int found = 0;
+        int[] best = new int[k];
+        double[] bestDistances = new double[k];
+        int column = column(xs[point]);
+        int row = row(ys[point]);
+        int maxRing = Math.max(columns, rows);
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int r = row - ring; r <= row + ring; r++) {
+                if (r < 0 || r >= rows) {
+                    continue;
+                }
+                boolean borderRow = r == row - ring || r == row + ring;
+                for (int c = column - ring; c <= column + ring; c += borderRow ? 1 : 2 * ring) {
+                    if (c >= 0 && c < columns) {
+                        int cell = r * columns + c;
+                        for (int p = cellStarts[cell]; p < cellStarts[cell] + cellSizes[cell]; p++) {
+                            int candidate = cellPoints[p];
+                            if (candidate == point) {
+                                continue;
+                            }
+                            double distance = squaredDistance(point, candidate);
+                            if (found < k || distance < bestDistances[found - 1]) {
+                                // insertion in the sorted arrays, dropping the farthest when full
+                                int position = found < k ? found++ : found - 1;
+                                while (position > 0 && bestDistances[position - 1] > distance) {
+                                    best[position] = best[position - 1];
+                                    bestDistances[position] = bestDistances[position - 1];
+                                    position--;
+                                }
+                                best[position] = candidate;
+                                bestDistances[position] = distance;
+                            }
+                        }
+                    }
+                    if (ring == 0) {
+                        break;
+                    }
+                }
+            }
+            // the cells of the next ring are at least ring * cellSide far from the point
+            double reach = ring * cellSide;
+            if (found == k && (k == 0 || bestDistances[k - 1] <= reach * reach)) {
+                break;
+            }
+        }
+        return found == k ? best : Arrays.copyOf(best, found);
+    }
+
+    /**
+     * @return the point closest to the point (excluding itself, that may have been removed), -1
+     * if there are no other points
+     */
+    public int nearest(int point) {
+        int best = -1;
+        double bestDistance = Double.MAX_VALUE;
+        int column = column(xs[point]);
+        int row = row(ys[point]);
+        int maxRing = Math.max(columns, rows);
+        boolean alone = size == 0 || (size == 1 && contains(point));
+
+        for (int ring = 0; ring <= maxRing && !alone; ring++) {
+            for (int r = Math.max(0, row - ring); r <= Math.min(rows - 1, row + ring); r++) {
+                boolean borderRow = r == row - ring || r == row + ring;
+                for (int c = column - ring; c <= column + ring; c += borderRow ? 1 : 2 * ring) {
+                    if (c >= 0 && c < columns) {
+                        int cell = r * columns + c;
+                        for (int p = cellStarts[cell]; p < cellStarts[cell] + cellSizes[cell]; p++) {
+                            int candidate = cellPoints[p];
+                            double distance = squaredDistance(point, candidate);
+                            if (distance < bestDistance && candidate != point) {
+                                best = candidate;
+                                bestDistance = distance;
+                            }
+                        }
+                    }
+                    if (ring == 0) {
+                        break;
+                    }
+                }
+            }
+            double reach = ring * cellSide;
+            if (best >= 0 && bestDistance <= reach * reach) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    private double squaredDistance(int i, int j) {
+        double dx = xs[i] - xs[j];
+        double dy = ys[i] - ys[j];
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * @return the points still in the grid, cell by cell: querying them in this order keeps the
+     * cells being read in the cache
+     */
+    public int[] getPointsByCell() {
+        int[] points = new int[size];
+        int count = 0;
+        for (int cell = 0; cell < cellSizes.length; cell++) {
+            System.arraycopy(cellPoints, cellStarts[cell], points, count, cellSizes[cell]);
+            count += cellSizes[cell];
+        }
+        return points;
+    }
+
+    /**
+     * @return the number of points still in the grid
+     */
+    public int size() {
+        return size;
+    }
+}
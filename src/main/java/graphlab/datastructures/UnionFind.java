@@ -0,0 +1,78 @@
+package graphlab.datastructures;
+
+/**
+ * Disjoint sets of the integers 0..n-1 over primitive arrays, with union by size and path
+ * halving, so that every operation takes almost constant amortized time.
+ */
+public class UnionFind {
+
+    private final int[] parents;
+    private final int[] sizes;
+    private int setsNumber;
+
+    public UnionFind(int size) {
+        parents = new int[size];
+        sizes = new int[size];
+        for (int i = 0; i < size; i++) {
+            parents[i] = i;
+            sizes[i] = 1;
+        }
+        setsNumber = size;
+    }
+
+    public int find(int element) {
+        while (parents[element] != element) {
+            parents[element] = parents[parents[element]];
+            element = parents[element];
+        }
+        return element;
+    }
+
+    /**
+     * finds the representative without compressing the path, so that it can be called
+     * concurrently from many threads as long as no union is running
+     */
+    public int root(int element) {
+        while (parents[element] != element) {
+            element = parents[element];
+        }
+        return element;
+    }
+
+    /**
+     * merges the sets of the two elements
+     * @return false if they were already in the same set
+     */
+    public boolean union(int element1, int element2) {
+        int root1 = find(element1);
+        int root2 = find(element2);
+        if (root1 == root2) {
+            return false;
+        }
+        if (sizes[root1] < sizes[root2]) {
+            int swap = root1;
+            root1 = root2;
+            root2 = swap;
+        }
+        parents[root2] = root1;
+        sizes[root1] += sizes[root2];
+        setsNumber--;
+        return true;
+    }
+
+    public boolean connected(int element1, int element2) {
+        return find(element1) == find(element2);
+    }
+
+    public int getSetsNumber() {
+        return setsNumber;
+    }
+
+    public int getSetSize(int element) {
+        return sizes[find(element)];
+    }
+
+    public int size() {
+        return parents.length;
+    }
+}
@@ -5,6 +5,7 @@ import graphlab.datastructures.AdjacencyListGraph;
 import graphlab.datastructures.Edge;
 import graphlab.datastructures.Node;
 import graphlab.datastructures.NodeStatus;
+import graphlab.utils.CancellationToken;
 import graphlab.utils.Constants;
 import graphlab.utils.GraphUtils;
 
@@ -83,6 +84,8 @@ public abstract class GenericGraphPanel extends JPanel implements ActionListener
     protected GenericTab genericTab;
     protected AdjacencyListGraph graph;
     protected Algorithm algorithm;
+    // polled by the running algorithm, a new one for every start
+    protected CancellationToken cancellationToken = new CancellationToken();
 
     public GenericGraphPanel(Algorithm algorithm, GenericTab genericTab, AdjacencyListGraph graph, boolean hasSearchedNode) {
         this.algorithm = algorithm;
@@ -126,6 +129,9 @@ public abstract class GenericGraphPanel extends JPanel implements ActionListener
                 return getPreferredSizeForThreePanels();
             case 4:
                 return getPreferredSizeForFourPanels();
+            case 5:
+            case 6:
+                return getPreferredSizeForSixPanels();
             default:
                 return getPreferredSizeForOnePanel();
         }
@@ -155,6 +161,13 @@ public abstract class GenericGraphPanel extends JPanel implements ActionListener
         return new Dimension(panelSide, panelSide);
     }
 
+    // three columns and two rows
+    private Dimension getPreferredSizeForSixPanels() {
+        Dimension dimension = genericTab.getGraphsContainer().getSize();
+        panelSide = (dimension.width * 2 < dimension.height * 3 ? dimension.width / 3 : dimension.height / 2) - 5;
+        return new Dimension(panelSide, panelSide);
+    }
+
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
@@ -467,12 +480,14 @@ public abstract class GenericGraphPanel extends JPanel implements ActionListener
         // recomputes all the edges costs (if any node has been moved on the canvas, cost has changed since it's the euclidean distance)
         graph.getNodes().forEach(node -> node.getEdges().forEach(edge -> edge.recomputeCost()));
 
+        cancellationToken = new CancellationToken();
         executeStart();
     }
 
     public void stop() {
         setBorder(WORKING_BORDER);
         isFinished = true;
+        cancellationToken.cancel();
         executeStop();
     }
 
@@ -24,6 +24,10 @@ public abstract class GenericTab extends JPanel implements ComponentListener {
         main.setProgressBar(value);
     }
 
+    public void updateStatusBar(String message) {
+        main.updateStatusBar(message);
+    }
+
     public GenericGraphsContainerPanel getGraphsContainer() {
         return graphsContainerPanel;
     }
@@ -2,6 +2,7 @@ package graphlab.gui.connectedcomponents;
 
 import graphlab.algorithms.Algorithm;
 import graphlab.algorithms.ConnectedComponents;
+import graphlab.algorithms.CoreDecomposition;
 import graphlab.datastructures.AdjacencyListGraph;
 import graphlab.datastructures.Edge;
 import graphlab.datastructures.Node;
@@ -69,8 +70,6 @@ public class CcGraphPanel extends GenericGraphPanel {
         @Override
         protected Void doInBackground() throws Exception {
 
-            Boolean isCanceled = new Boolean(false);
-
             ConsumerWithException<Node> visitNode = node -> {
                 visitedNodes.add(node);
                 setProgressBar((int) ((visitedNodes.size() / (float) graph.getNodes().size()) * 100));
@@ -84,7 +83,10 @@ public class CcGraphPanel extends GenericGraphPanel {
 
             switch (algorithm) {
                 case CONNECTED_COMPONENTS_BFS:
-                    ConnectedComponents.connectedComponents(graph, visitNode, visitEdge, processNode, isCanceled);
+                    ConnectedComponents.connectedComponents(graph, visitNode, visitEdge, processNode, cancellationToken);
+                    break;
+                case K_CORE:
+                    CoreDecomposition.kCore(graph, visitNode, visitEdge, processNode, cancellationToken);
                     break;
             }
 
@@ -15,6 +15,7 @@ import javax.swing.*;
 public class CcGraphsContainerPanel extends GenericGraphsContainerPanel {
 
     private final GenericGraphPanel bfsConnectedComponentsGraph;
+    private final GenericGraphPanel kCoreGraph;
 
     public CcGraphsContainerPanel(GenericTab ccTab, GenericControlPanel genericControlPanel) {
 
@@ -30,6 +31,14 @@ public class CcGraphsContainerPanel extends GenericGraphsContainerPanel {
         sl.putConstraint(SpringLayout.NORTH, bfsConnectedComponentsGraph, 5, SpringLayout.NORTH, this);
 
         addGraphPanel(bfsConnectedComponentsGraph);
+
+        kCoreGraph = new CcGraphPanel(Algorithm.K_CORE, ccTab, new AdjacencyListGraph(graph));
+        add(kCoreGraph);
+
+        sl.putConstraint(SpringLayout.WEST, kCoreGraph, 5, SpringLayout.EAST, bfsConnectedComponentsGraph);
+        sl.putConstraint(SpringLayout.NORTH, kCoreGraph, 5, SpringLayout.NORTH, this);
+
+        addGraphPanel(kCoreGraph);
     }
 }
 
@@ -1,6 +1,7 @@
 package graphlab.gui.minimumspanningtree;
 
 import graphlab.algorithms.Algorithm;
+import graphlab.algorithms.DynamicMinimumSpanningTree;
 import graphlab.algorithms.MinimumSpanningTree;
 import graphlab.datastructures.AdjacencyListGraph;
 import graphlab.datastructures.Edge;
@@ -11,8 +12,12 @@ import graphlab.utils.Constants;
 import graphlab.utils.ConsumerWithException;
 
 import javax.swing.*;
+import java.awt.event.MouseEvent;
 import java.util.function.Consumer;
 
+import static graphlab.utils.Constants.X_SHIFT;
+import static graphlab.utils.Constants.Y_SHIFT;
+
 /**
  * The square panel where the MST graph is drawn and animated.
  */
@@ -20,6 +25,10 @@ public class MstGraphPanel extends GenericGraphPanel {
 
     private GraphSearchWorker searchWorker;
 
+    // keeps the tree up to date while a node is dragged; built when the algorithm completes, and
+    // null while it runs, after it has been stopped and for the euclidean tree
+    private DynamicMinimumSpanningTree dynamicTree;
+
     public MstGraphPanel(Algorithm algorithm, GenericTab genericTab, AdjacencyListGraph graph) {
         super(algorithm, genericTab, graph, true);
 
@@ -32,6 +41,7 @@ public class MstGraphPanel extends GenericGraphPanel {
     }
 
     public void executeStart() {
+        dynamicTree = null;
         searchWorker = new GraphSearchWorker();
         searchWorker.execute();
     }
@@ -40,13 +50,41 @@ public class MstGraphPanel extends GenericGraphPanel {
         searchWorker.cancel(true);
     }
 
+    @Override
+    public void setGraph(AdjacencyListGraph graph) {
+        super.setGraph(graph);
+        dynamicTree = null;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        dynamicTree = null;
+    }
+
+    @Override
+    public void mouseDragged(MouseEvent e) {
+        if (isMousePressed && dynamicTree != null) {
+            clickedNode.setX((int) (e.getX() / mf) - X_SHIFT);
+            clickedNode.setY((int) (e.getY() / mf) - Y_SHIFT);
+            dynamicTree.nodeMoved(clickedNode, (removedEdge, addedEdge) -> {
+                if (removedEdge != null) {
+                    edgesOnPath.removeIf(edge -> edge == removedEdge);
+                }
+                edgesOnPath.add(addedEdge);
+            });
+            repaint();
+        }
+        else {
+            super.mouseDragged(e);
+        }
+    }
+
     class GraphSearchWorker extends SwingWorker<Void, Void> {
 
         @Override
         protected Void doInBackground() throws Exception {
 
-            Boolean isCanceled = new Boolean(false);
-
             Consumer<Node> visitNode = node -> visitedNodes.add(node);
             Consumer<Node> processNode = node -> processedNodes.add(node);
             ConsumerWithException<Edge> visitEdge = edge -> {
@@ -60,14 +98,27 @@ public class MstGraphPanel extends GenericGraphPanel {
 
             switch (algorithm) {
                 case BORUVKA:
-                    MinimumSpanningTree.boruvka(graph, visitNode, visitEdge, processEdge, isCanceled);
+                    MinimumSpanningTree.boruvka(graph, visitNode, visitEdge, processEdge, cancellationToken);
                     break;
                 case PRIM:
-                    MinimumSpanningTree.prim(graph, visitNode, processNode, visitEdge, processEdge, isCanceled);
+                    MinimumSpanningTree.prim(graph, visitNode, processNode, visitEdge, processEdge, cancellationToken);
                     break;
                 case KRUSKAL:
-                    MinimumSpanningTree.kruskal(graph, visitNode, visitEdge, processEdge, isCanceled);
+                    MinimumSpanningTree.kruskal(graph, visitNode, visitEdge, processEdge, cancellationToken);
+                    break;
+                case FILTER_KRUSKAL:
+                    MinimumSpanningTree.filterKruskal(graph, visitNode, visitEdge, processEdge, cancellationToken);
                     break;
+                case EUCLIDEAN_MST:
+                    MinimumSpanningTree.euclidean(graph, visitNode, visitEdge, processEdge, cancellationToken);
+                    break;
+            }
+
+            // the euclidean tree doesn't use the edges of the graph, so it can't be kept by the maintainer
+            if (!cancellationToken.isCanceled() && algorithm != Algorithm.EUCLIDEAN_MST) {
+                dynamicTree = new DynamicMinimumSpanningTree(graph);
+                // the same tree, unless there are ties, with the edges the maintainer will swap
+                edgesOnPath = dynamicTree.getTreeEdges();
             }
 
             setProgressBar(0);
@@ -16,6 +16,8 @@ public class MstGraphsContainerPanel extends GenericGraphsContainerPanel {
     private final MstGraphPanel prim;
     private final MstGraphPanel kruskal;
     private final MstGraphPanel boruvka;
+    private final MstGraphPanel filterKruskal;
+    private final MstGraphPanel euclidean;
 
     public MstGraphsContainerPanel(GenericTab mtsTab, GenericControlPanel genericControlPanel) {
 
@@ -45,14 +47,32 @@ public class MstGraphsContainerPanel extends GenericGraphsContainerPanel {
         addGraphPanel(kruskal);
         add(kruskal);
 
+        filterKruskal = new MstGraphPanel(Algorithm.FILTER_KRUSKAL, mtsTab, new AdjacencyListGraph(graph));
+        filterKruskal.setDrawEdgesWithColorGradient(false);
+        filterKruskal.setWorkingEdgesWidth(2);
+        addGraphPanel(filterKruskal);
+        add(filterKruskal);
+
+        euclidean = new MstGraphPanel(Algorithm.EUCLIDEAN_MST, mtsTab, new AdjacencyListGraph(graph));
+        euclidean.setDrawEdgesWithColorGradient(false);
+        euclidean.setWorkingEdgesWidth(2);
+        addGraphPanel(euclidean);
+        add(euclidean);
+
         sl.putConstraint(SpringLayout.WEST, boruvka, 5, SpringLayout.WEST, this);
         sl.putConstraint(SpringLayout.NORTH, boruvka, 5, SpringLayout.NORTH, this);
 
         sl.putConstraint(SpringLayout.WEST, prim, 5, SpringLayout.EAST, boruvka);
         sl.putConstraint(SpringLayout.NORTH, prim, 5, SpringLayout.NORTH, this);
 
-        sl.putConstraint(SpringLayout.WEST, kruskal, 5, SpringLayout.EAST, prim);
-        sl.putConstraint(SpringLayout.NORTH, kruskal, 5, SpringLayout.NORTH, this);
+        sl.putConstraint(SpringLayout.WEST, euclidean, 5, SpringLayout.EAST, prim);
+        sl.putConstraint(SpringLayout.NORTH, euclidean, 5, SpringLayout.NORTH, this);
+
+        sl.putConstraint(SpringLayout.WEST, kruskal, 5, SpringLayout.WEST, this);
+        sl.putConstraint(SpringLayout.NORTH, kruskal, 5, SpringLayout.SOUTH, boruvka);
+
+        sl.putConstraint(SpringLayout.WEST, filterKruskal, 5, SpringLayout.EAST, kruskal);
+        sl.putConstraint(SpringLayout.NORTH, filterKruskal, 5, SpringLayout.SOUTH, prim);
     }
 }
 
@@ -43,8 +43,6 @@ public class SearchGraphPanel extends GenericGraphPanel {
         @Override
         protected Void doInBackground() throws Exception {
 
-            Boolean isCanceled = new Boolean(false);
-
             ConsumerWithException<Node> visitNode = node -> {
                 visitedNodes.add(node);
                 setProgressBar((int) ((visitedNodes.size() / (float) graph.getNodes().size()) * 100));
@@ -58,16 +56,16 @@ public class SearchGraphPanel extends GenericGraphPanel {
 
             switch (algorithm) {
                 case BFS:
-                    Search.bfs(graph, visitNode, visitEdge, processNode, isCanceled, true);
+                    Search.bfs(graph, visitNode, visitEdge, processNode, cancellationToken, true);
                     break;
                 case DFS:
-                    Search.dfs(graph, visitNode, visitEdge, processNode, isCanceled, true);
+                    Search.dfs(graph, visitNode, visitEdge, processNode, cancellationToken, true);
                     break;
                 case UCS:
-                    Search.ucs(graph, visitNode, visitEdge, processNode, isCanceled);
+                    Search.ucs(graph, visitNode, visitEdge, processNode, cancellationToken);
                     break;
                 case ASTAR:
-                    Search.astar(graph, visitNode, visitEdge, processNode, isCanceled);
+                    Search.astar(graph, visitNode, visitEdge, processNode, cancellationToken);
                     break;
             }
 
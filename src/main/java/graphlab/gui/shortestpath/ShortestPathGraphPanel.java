@@ -61,8 +61,6 @@ public class ShortestPathGraphPanel extends GenericGraphPanel {
         @Override
         protected Void doInBackground() throws Exception {
 
-            Boolean isCanceled = new Boolean(false);
-
             ConsumerWithException<Node> visitNode = node -> {
                 visitedNodes.add(node);
                 setProgressBar((int) ((visitedNodes.size() / (float) graph.getNodes().size()) * 100));
@@ -80,11 +78,14 @@ public class ShortestPathGraphPanel extends GenericGraphPanel {
 
             switch (algorithm) {
                 case DIJKSTRA:
-                    graphlab.algorithms.ShortestPath.dijkstra(graph, visitNode, visitEdge, processNode, isCanceled);
+                    // on directed acyclic graphs a single pass in topological order is enough
+                    if (!graph.isDirected() || !graphlab.algorithms.ShortestPath.dag(graph, visitNode, visitEdge, processNode, cancellationToken)) {
+                        graphlab.algorithms.ShortestPath.dijkstra(graph, visitNode, visitEdge, processNode, cancellationToken);
+                    }
                     break;
                 case BELLMANFORD:
                     ShortestPathGraphPanel.this.drawThinEdges = true;
-                    graphlab.algorithms.ShortestPath.bellmanFord(graph, visitNode, visitEdge, processNode, incrementStep, isCanceled);
+                    graphlab.algorithms.ShortestPath.bellmanFord(graph, visitNode, visitEdge, processNode, incrementStep, cancellationToken);
                     ShortestPathGraphPanel.this.drawThinEdges = false;
                     break;
             }
@@ -21,6 +21,10 @@ import java.util.function.Consumer;
  */
 public class TspGraphPanel extends GenericGraphPanel {
 
+    private static final long ANNEALING_TIME_MILLIS = 1000;
+    // the exact tour is only drawn for the graphs that it solves in about a second
+    private static final int HELD_KARP_MAX_NODES = 20;
+
     private GraphCcWorker ccWorker;
 
     public TspGraphPanel(Algorithm algorithm, GenericTab ccTab, AdjacencyListGraph graph) {
@@ -55,6 +59,14 @@ public class TspGraphPanel extends GenericGraphPanel {
         ccWorker.cancel(true);
     }
 
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        if (algorithm == Algorithm.HELD_KARP_TSP && graph.getNodes().size() > HELD_KARP_MAX_NODES) {
+            g.drawString("Only for graphs up to " + HELD_KARP_MAX_NODES + " nodes", 5, 30);
+        }
+    }
+
     class GraphCcWorker extends SwingWorker<Void, Void> {
 
         List<Node> visitedNodes;
@@ -70,8 +82,6 @@ public class TspGraphPanel extends GenericGraphPanel {
         @Override
         protected Void doInBackground() throws Exception {
 
-            Boolean isCanceled = new Boolean(false);
-
             ConsumerWithException<Node> visitNode = node -> {
                 visitedNodes.add(node);
                 setProgressBar((int) ((visitedNodes.size() / (float) graph.getNodes().size()) * 100));
@@ -84,6 +94,12 @@ public class TspGraphPanel extends GenericGraphPanel {
                 updateGraph();
             };
 
+            // the annealing shows the best tour found so far while it runs
+            Consumer<List<Edge>> showImprovedTour = edges -> {
+                edgesOnPath = new ArrayList<>(edges);
+                repaint();
+            };
+
             ConsumerWithException<Edge> unvisitEdge = edge -> {
                 visitedEdges.remove(edge);
                 edgesOnPath.remove(edge);
@@ -92,10 +108,21 @@ public class TspGraphPanel extends GenericGraphPanel {
 
             switch (algorithm) {
                 case NEAREST_NEIGHBOR_TSP:
-                    TravelingSalesmanProblem.nearestNeighbor(graph, unvisitEdge, visitNode, visitEdge, processNode, isCanceled);
+                    TravelingSalesmanProblem.nearestNeighbor(graph, visitNode, visitEdge, cancellationToken);
                     break;
                 case TWO_OPT_TSP:
-                    TravelingSalesmanProblem.twoOpt(graph, unvisitEdge, visitNode, visitEdge, processNode, isCanceled);
+                    TravelingSalesmanProblem.twoOpt(graph, unvisitEdge, visitNode, visitEdge, processNode, cancellationToken);
+                    break;
+                case HILBERT_TSP:
+                    TravelingSalesmanProblem.hilbertCurve(graph, visitNode, visitEdge, cancellationToken);
+                    break;
+                case HELD_KARP_TSP:
+                    if (graph.getNodes().size() <= HELD_KARP_MAX_NODES) {
+                        TravelingSalesmanProblem.heldKarp(graph, genericTab::updateStatusBar, visitNode, visitEdge, cancellationToken);
+                    }
+                    break;
+                case SIMULATED_ANNEALING_TSP:
+                    TravelingSalesmanProblem.simulatedAnnealing(graph, ANNEALING_TIME_MILLIS, showImprovedTour, visitNode, visitEdge, cancellationToken);
                     break;
             }
 
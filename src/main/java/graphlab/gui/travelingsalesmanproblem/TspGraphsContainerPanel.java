@@ -16,6 +16,9 @@ public class TspGraphsContainerPanel extends GenericGraphsContainerPanel {
 
     private final GenericGraphPanel nearestNeighbor;
     private final GenericGraphPanel twoOpt;
+    private final GenericGraphPanel hilbertCurve;
+    private final GenericGraphPanel simulatedAnnealing;
+    private final GenericGraphPanel heldKarp;
 
     public TspGraphsContainerPanel(GenericTab tspTab, GenericControlPanel genericControlPanel) {
 
@@ -30,12 +33,30 @@ public class TspGraphsContainerPanel extends GenericGraphsContainerPanel {
         addGraphPanel(nearestNeighbor);
         add(twoOpt);
         addGraphPanel(twoOpt);
+        hilbertCurve = new TspGraphPanel(Algorithm.HILBERT_TSP, tspTab, new AdjacencyListGraph(graph));
+        simulatedAnnealing = new TspGraphPanel(Algorithm.SIMULATED_ANNEALING_TSP, tspTab, new AdjacencyListGraph(graph));
+        add(hilbertCurve);
+        addGraphPanel(hilbertCurve);
+        add(simulatedAnnealing);
+        addGraphPanel(simulatedAnnealing);
+        heldKarp = new TspGraphPanel(Algorithm.HELD_KARP_TSP, tspTab, new AdjacencyListGraph(graph));
+        add(heldKarp);
+        addGraphPanel(heldKarp);
 
         sl.putConstraint(SpringLayout.WEST, nearestNeighbor, 5, SpringLayout.WEST, this);
         sl.putConstraint(SpringLayout.NORTH, nearestNeighbor, 5, SpringLayout.NORTH, this);
 
         sl.putConstraint(SpringLayout.WEST, twoOpt, 5, SpringLayout.EAST, nearestNeighbor);
         sl.putConstraint(SpringLayout.NORTH, twoOpt, 5, SpringLayout.NORTH, this);
+
+        sl.putConstraint(SpringLayout.WEST, heldKarp, 5, SpringLayout.EAST, twoOpt);
+        sl.putConstraint(SpringLayout.NORTH, heldKarp, 5, SpringLayout.NORTH, this);
+
+        sl.putConstraint(SpringLayout.WEST, hilbertCurve, 5, SpringLayout.WEST, this);
+        sl.putConstraint(SpringLayout.NORTH, hilbertCurve, 5, SpringLayout.SOUTH, nearestNeighbor);
+
+        sl.putConstraint(SpringLayout.WEST, simulatedAnnealing, 5, SpringLayout.EAST, hilbertCurve);
+        sl.putConstraint(SpringLayout.NORTH, simulatedAnnealing, 5, SpringLayout.SOUTH, twoOpt);
     }
 }
 
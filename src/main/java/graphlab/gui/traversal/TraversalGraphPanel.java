@@ -65,8 +65,6 @@ public class TraversalGraphPanel extends GenericGraphPanel {
         @Override
         protected Void doInBackground() throws Exception {
 
-            Boolean isCanceled = new Boolean(false);
-
             ConsumerWithException<Node> visitNode = node -> {
                 visitedNodes.add(node);
                 setProgressBar((int) ((visitedNodes.size() / (float) graph.getNodes().size()) * 100));
@@ -80,10 +78,10 @@ public class TraversalGraphPanel extends GenericGraphPanel {
 
             switch (algorithm) {
                 case BFS:
-                    Search.bfs(graph, visitNode, visitEdge, processNode, isCanceled, false);
+                    Search.bfs(graph, visitNode, visitEdge, processNode, cancellationToken, false);
                     break;
                 case DFS:
-                    Search.dfs(graph, visitNode, visitEdge, processNode, isCanceled, false);
+                    Search.dfs(graph, visitNode, visitEdge, processNode, cancellationToken, false);
                     break;
             }
 
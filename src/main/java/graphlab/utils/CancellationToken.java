@@ -0,0 +1,95 @@
+package graphlab.utils;
+
+/**
+ * Asks a running algorithm to stop. The algorithm polls isCanceled() in its loops, which is cheap
+ * enough to do at every step: a volatile read, a comparison with the deadline (if any) and the
+ * same for the parents. A token is canceled when cancel() is called on it or on any of its
+ * parents, or when its deadline has passed; a child never outlives the deadline of its parent.
+ */
+public class CancellationToken {
+
+    /**
+     * a token that is never canceled, for the callers that don't need to stop the algorithm;
+     * it's shared, so cancel() does nothing on it (its children can still be canceled alone)
+     */
+    public static final CancellationToken NONE = new CancellationToken(null, Long.MAX_VALUE) {
+        @Override
+        public void cancel() {
+        }
+    };
+
+    private static final long MAX_TIMEOUT_MILLIS = Long.MAX_VALUE / 4_000_000;
+
+    private final CancellationToken parent;
+    private final long deadline;
+    private volatile boolean canceled;
+
+    public CancellationToken() {
+        this(null, Long.MAX_VALUE);
+    }
+
+    private CancellationToken(CancellationToken parent, long deadline) {
+        this.parent = parent;
+        this.deadline = deadline;
+    }
+
+    /**
+     * @return a token canceled after the given time
+     */
+    public static CancellationToken withTimeout(long timeoutMillis) {
+        return new CancellationToken(null, deadlineAfter(Long.MAX_VALUE, timeoutMillis));
+    }
+
+    /**
+     * @return a token canceled with this one, that can also be canceled alone
+     */
+    public CancellationToken child() {
+        return new CancellationToken(this, deadline);
+    }
+
+    /**
+     * @return a token canceled with this one or after the given time, whichever comes first
+     */
+    public CancellationToken child(long timeoutMillis) {
+        return new CancellationToken(this, deadlineAfter(deadline, timeoutMillis));
+    }
+
+    /**
+     * cancels this token and its children; it does nothing on NONE
+     */
+    public void cancel() {
+        canceled = true;
+    }
+
+    public boolean isCanceled() {
+        for (CancellationToken token = this; token != null; token = token.parent) {
+            if (token.canceled) {
+                return true;
+            }
+        }
+        return deadline != Long.MAX_VALUE && System.nanoTime() - deadline >= 0;
+    }
+
+    /**
+     * @return the System.nanoTime() deadline of the token, Long.MAX_VALUE if it has none
+     */
+    public long getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * @return the milliseconds before the deadline (0 if it has passed), Long.MAX_VALUE if there is none
+     */
+    public long remainingMillis() {
+        if (deadline == Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, (deadline - System.nanoTime()) / 1_000_000);
+    }
+
+    private static long deadlineAfter(long parentDeadline, long timeoutMillis) {
+        // beyond a few decades the timeout is taken as no deadline at all
+        long deadline = timeoutMillis >= MAX_TIMEOUT_MILLIS ? Long.MAX_VALUE : System.nanoTime() + timeoutMillis * 1_000_000;
+        return parentDeadline != Long.MAX_VALUE && parentDeadline - deadline < 0 ? parentDeadline : deadline;
+    }
+}
@@ -0,0 +1,119 @@
+package graphlab.algorithms;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DelaunayTriangulationTest {
+
+    @Test
+    public void euclideanTreeIsMinimumOnRandomPoints() {
+        Random random = new Random(3);
+        for (int run = 0; run < 100; run++) {
+            int n = 2 + random.nextInt(200);
+            // a small grid, so that there are many duplicated and collinear points
+            int side = 1 + random.nextInt(run % 2 == 0 ? 10 : 1000);
+            double[] xs = new double[n];
+            double[] ys = new double[n];
+            for (int k = 0; k < n; k++) {
+                xs[k] = random.nextInt(side);
+                ys[k] = random.nextInt(side);
+            }
+            assertMinimumTree(xs, ys);
+        }
+    }
+
+    @Test
+    public void euclideanTreeIsMinimumOnCollinearPoints() {
+        double[] xs = new double[50];
+        double[] ys = new double[50];
+        for (int k = 0; k < xs.length; k++) {
+            xs[k] = (k * 17) % 50;
+            ys[k] = 2 * xs[k] + 1;
+        }
+        assertMinimumTree(xs, ys);
+        assertMinimumTree(ys, new double[50]);
+    }
+
+    @Test
+    public void euclideanTreeIsMinimumOnDuplicatedPoints() {
+        assertMinimumTree(new double[]{3, 3, 3, 3}, new double[]{4, 4, 4, 4});
+        assertMinimumTree(new double[]{0, 5, 0, 5, 2, 0}, new double[]{0, 5, 0, 5, 1, 0});
+        assertMinimumTree(new double[]{7, 7}, new double[]{1, 2});
+    }
+
+    @Test
+    public void triangulationIsPlanarSized() {
+        Random random = new Random(11);
+        double[] xs = random.doubles(1000, 0, 1000).toArray();
+        double[] ys = random.doubles(1000, 0, 1000).toArray();
+        int[][] edges = DelaunayTriangulation.edges(xs, ys);
+
+        assertTrue(edges[0].length <= 3 * xs.length - 6);
+        for (int k = 0; k < edges[0].length; k++) {
+            assertNotEquals(edges[0][k], edges[1][k]);
+        }
+    }
+
+    /**
+     * checks that the euclidean tree spans all the points with the length of the tree of Prim
+     * on the complete graph; the trees themselves can differ when there are ties
+     */
+    private static void assertMinimumTree(double[] xs, double[] ys) {
+        int n = xs.length;
+        int[][] tree = MinimumSpanningTree.euclidean(xs, ys);
+        assertEquals(n - 1, tree[0].length);
+
+        int[] labels = new int[n];
+        for (int v = 0; v < n; v++) {
+            labels[v] = v;
+        }
+        double length = 0;
+        for (int k = 0; k < tree[0].length; k++) {
+            int from = labels[tree[0][k]];
+            int to = labels[tree[1][k]];
+            assertNotEquals("the tree has a cycle", from, to);
+            for (int v = 0; v < n; v++) {
+                if (labels[v] == from) {
+                    labels[v] = to;
+                }
+            }
+            length += distance(xs, ys, tree[0][k], tree[1][k]);
+        }
+        assertEquals(primLength(xs, ys), length, 1e-6);
+    }
+
+    private static double primLength(double[] xs, double[] ys) {
+        int n = xs.length;
+        double[] keys = new double[n];
+        boolean[] inTree = new boolean[n];
+        Arrays.fill(keys, Double.POSITIVE_INFINITY);
+        keys[0] = 0;
+        double length = 0;
+        for (int added = 0; added < n; added++) {
+            int v = -1;
+            for (int w = 0; w < n; w++) {
+                if (!inTree[w] && (v < 0 || keys[w] < keys[v])) {
+                    v = w;
+                }
+            }
+            inTree[v] = true;
+            length += keys[v];
+            for (int w = 0; w < n; w++) {
+                if (!inTree[w]) {
+                    keys[w] = Math.min(keys[w], distance(xs, ys, v, w));
+                }
+            }
+        }
+        return length;
+    }
+
+    private static double distance(double[] xs, double[] ys, int i, int j) {
+        return Math.hypot(xs[i] - xs[j], ys[i] - ys[j]);
+    }
+}
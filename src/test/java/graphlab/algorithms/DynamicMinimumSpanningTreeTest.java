@@ -0,0 +1,48 @@
+package graphlab.algorithms;
+
+import graphlab.datastructures.AdjacencyListGraph;
+import graphlab.datastructures.Edge;
+import graphlab.datastructures.Node;
+import graphlab.utils.GraphUtils;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DynamicMinimumSpanningTreeTest {
+
+    @Test
+    public void keepsMinimumTreeWhileNodesMove() {
+        Random random = new Random(9);
+        for (int run = 0; run < 20; run++) {
+            int n = 5 + random.nextInt(60);
+            AdjacencyListGraph graph = GraphUtils.createRandomGraph(n, n + random.nextInt(4 * n), 500, false, random);
+            DynamicMinimumSpanningTree dynamicTree = new DynamicMinimumSpanningTree(graph);
+            Set<Edge> shownTree = Collections.newSetFromMap(new IdentityHashMap<>());
+            shownTree.addAll(dynamicTree.getTreeEdges());
+
+            for (int move = 0; move < 50; move++) {
+                Node node = graph.getNodes().get(random.nextInt(n));
+                node.setX(random.nextInt(500));
+                node.setY(random.nextInt(500));
+                dynamicTree.nodeMoved(node, (removedEdge, addedEdge) -> {
+                    if (removedEdge != null) {
+                        assertTrue(shownTree.remove(removedEdge));
+                    }
+                    assertTrue(shownTree.add(addedEdge));
+                });
+
+                // the swapped edges alone keep the shown tree equal to the maintained one
+                Set<Edge> tree = Collections.newSetFromMap(new IdentityHashMap<>());
+                tree.addAll(dynamicTree.getTreeEdges());
+                assertEquals(tree, shownTree);
+                assertEquals(new DynamicMinimumSpanningTree(graph).getTotalCost(), dynamicTree.getTotalCost());
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package graphlab.algorithms;
+
+import graphlab.datastructures.CsrGraph;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MinimumSpanningTreeTest {
+
+    private static final int NO_EDGE = Integer.MAX_VALUE;
+
+    @Test
+    public void enginesMatchBruteForceKruskal() throws Exception {
+        Random random = new Random(7);
+        for (int run = 0; run < 300; run++) {
+            int n = 1 + random.nextInt(40);
+            // from forests with many components to multigraphs dense enough for the dense Prim
+            int arcsNumber = random.nextInt(2 * n * n);
+            // few distinct costs, so that there are many ties
+            int maxCost = run % 3 == 0 ? 3 : 1000;
+            int[] sources = new int[arcsNumber];
+            int[] targets = new int[arcsNumber];
+            int[] costs = new int[arcsNumber];
+            for (int k = 0; k < arcsNumber; k++) {
+                sources[k] = random.nextInt(n);
+                targets[k] = random.nextInt(n);
+                costs[k] = random.nextInt(maxCost);
+            }
+            CsrGraph graph = CsrGraph.fromArcs(n, sources, targets, costs, false);
+            int[][] matrix = cheapestCosts(n, sources, targets, costs);
+            long[] expected = bruteForceKruskal(n, sources, targets, costs);
+
+            assertArcTree(graph, MinimumSpanningTree.packedKruskal(graph), expected);
+            assertArcTree(graph, MinimumSpanningTree.filterKruskal(graph), expected);
+            assertArcTree(graph, MinimumSpanningTree.parallelBoruvka(graph), expected);
+            assertParentTree(matrix, MinimumSpanningTree.indexedPrim(graph), expected);
+            assertParentTree(matrix, MinimumSpanningTree.densePrim(n, (i, j) -> matrix[i][j]), expected);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parallelBoruvkaRejectsDirectedGraph() {
+        MinimumSpanningTree.parallelBoruvka(CsrGraph.fromArcs(2, new int[]{0}, new int[]{1}, new int[]{1}, true));
+    }
+
+    /**
+     * Kruskal on the arcs as they are, parallel ones and self loops included, sorting them with
+     * a comparator and merging the components by relabeling
+     * @return the cost of the minimum spanning forest and the number of its edges
+     */
+    private static long[] bruteForceKruskal(int n, int[] sources, int[] targets, int[] costs) {
+        Integer[] arcs = new Integer[sources.length];
+        for (int arc = 0; arc < arcs.length; arc++) {
+            arcs[arc] = arc;
+        }
+        Arrays.sort(arcs, (arc1, arc2) -> Integer.compare(costs[arc1], costs[arc2]));
+        int[] labels = new int[n];
+        for (int v = 0; v < n; v++) {
+            labels[v] = v;
+        }
+        long cost = 0;
+        long edges = 0;
+        for (int arc : arcs) {
+            int from = labels[sources[arc]];
+            int to = labels[targets[arc]];
+            if (from != to) {
+                for (int v = 0; v < n; v++) {
+                    if (labels[v] == from) {
+                        labels[v] = to;
+                    }
+                }
+                cost += costs[arc];
+                edges++;
+            }
+        }
+        return new long[]{cost, edges};
+    }
+
+    /**
+     * checks that the arcs form a forest with the cost and the number of edges expected
+     */
+    private static void assertArcTree(CsrGraph graph, int[] tree, long[] expected) {
+        int[] sources = graph.getSources();
+        int[] targets = graph.getTargets();
+        int[] costs = graph.getCosts();
+        int[] labels = new int[graph.getNodesNumber()];
+        for (int v = 0; v < labels.length; v++) {
+            labels[v] = v;
+        }
+        long cost = 0;
+        for (int arc : tree) {
+            int from = labels[sources[arc]];
+            int to = labels[targets[arc]];
+            assertNotEquals("the tree has a cycle", from, to);
+            for (int v = 0; v < labels.length; v++) {
+                if (labels[v] == from) {
+                    labels[v] = to;
+                }
+            }
+            cost += costs[arc];
+        }
+        assertEquals(expected[1], tree.length);
+        assertEquals(expected[0], cost);
+    }
+
+    /**
+     * checks that the parents form a forest, with a root for every component, on edges of the
+     * graph and with the cost expected
+     */
+    private static void assertParentTree(int[][] matrix, int[] parents, long[] expected) {
+        int n = parents.length;
+        long cost = 0;
+        long edges = 0;
+        for (int v = 0; v < n; v++) {
+            int ancestor = v;
+            for (int steps = 0; parents[ancestor] >= 0; steps++) {
+                assertTrue("the parents have a cycle", steps < n);
+                ancestor = parents[ancestor];
+            }
+            if (parents[v] >= 0) {
+                assertNotEquals(NO_EDGE, matrix[v][parents[v]]);
+                cost += matrix[v][parents[v]];
+                edges++;
+            }
+        }
+        assertEquals(expected[1], edges);
+        assertEquals(expected[0], cost);
+    }
+
+    /**
+     * the cost of the cheapest edge between every two distinct nodes, NO_EDGE if there's none
+     */
+    private static int[][] cheapestCosts(int n, int[] sources, int[] targets, int[] costs) {
+        int[][] matrix = new int[n][n];
+        for (int[] row : matrix) {
+            Arrays.fill(row, NO_EDGE);
+        }
+        for (int arc = 0; arc < sources.length; arc++) {
+            int i = sources[arc];
+            int j = targets[arc];
+            if (i != j && costs[arc] < matrix[i][j]) {
+                matrix[i][j] = costs[arc];
+                matrix[j][i] = costs[arc];
+            }
+        }
+        return matrix;
+    }
+}
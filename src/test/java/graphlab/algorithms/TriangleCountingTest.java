@@ -0,0 +1,81 @@
+package graphlab.algorithms;
+
+import graphlab.datastructures.CsrGraph;
+import graphlab.utils.CancellationToken;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class TriangleCountingTest {
+
+    @Test
+    public void countsAsBruteForce() {
+        Random random = new Random(5);
+        for (int run = 0; run < 50; run++) {
+            int n = 2 + random.nextInt(40);
+            int arcsNumber = random.nextInt(n * n);
+            int[] sources = new int[arcsNumber];
+            int[] targets = new int[arcsNumber];
+            boolean[][] adjacent = new boolean[n][n];
+            // parallel arcs and self loops included, they must not change the count
+            for (int k = 0; k < arcsNumber; k++) {
+                sources[k] = random.nextInt(n);
+                targets[k] = random.nextInt(n);
+                adjacent[sources[k]][targets[k]] = true;
+                adjacent[targets[k]][sources[k]] = true;
+            }
+            boolean directed = run % 2 == 0;
+            TriangleCounting.Triangles triangles = TriangleCounting.count(CsrGraph.fromArcs(n, sources, targets, new int[arcsNumber], directed));
+
+            long total = 0;
+            long[] perNode = new long[n];
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    for (int k = j + 1; k < n; k++) {
+                        if (adjacent[i][j] && adjacent[j][k] && adjacent[i][k]) {
+                            total++;
+                            perNode[i]++;
+                            perNode[j]++;
+                            perNode[k]++;
+                        }
+                    }
+                }
+            }
+            assertEquals(total, triangles.getTotal());
+            assertArrayEquals(perNode, triangles.getPerNode());
+            for (int v = 0; v < n; v++) {
+                long degree = 0;
+                for (int w = 0; w < n; w++) {
+                    if (w != v && adjacent[v][w]) {
+                        degree++;
+                    }
+                }
+                double expected = degree > 1 ? perNode[v] / (degree * (degree - 1) / 2.0) : 0;
+                assertEquals(expected, triangles.getClusteringCoefficients()[v], 1e-12);
+            }
+        }
+    }
+
+    @Test
+    public void countsDirectedCycleAsTriangle() {
+        CsrGraph cycle = CsrGraph.fromArcs(3, new int[]{0, 1, 2}, new int[]{1, 2, 0}, new int[]{1, 1, 1}, true);
+        TriangleCounting.Triangles triangles = TriangleCounting.count(cycle);
+
+        assertEquals(1, triangles.getTotal());
+        assertArrayEquals(new long[]{1, 1, 1}, triangles.getPerNode());
+        assertEquals(1, triangles.getTransitivity(), 0);
+    }
+
+    @Test
+    public void returnsNullWhenCanceled() {
+        CsrGraph cycle = CsrGraph.fromArcs(3, new int[]{0, 1, 2}, new int[]{1, 2, 0}, new int[]{1, 1, 1}, false);
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+
+        assertNull(TriangleCounting.count(cycle, token));
+    }
+}
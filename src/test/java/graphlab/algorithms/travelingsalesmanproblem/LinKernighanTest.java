@@ -0,0 +1,63 @@
+package graphlab.algorithms.travelingsalesmanproblem;
+
+import graphlab.utils.CancellationToken;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LinKernighanTest {
+
+    @Test
+    public void optimizesIntoShorterPermutation() {
+        Random random = new Random(19);
+        // the largest instance is above the size for which the two-level tour is used
+        for (int n : new int[]{5, 12, 300, 1500}) {
+            EuclideanCostFunction costFunction = randomCities(n, random);
+            Tour tour = InitialTours.random(n, random);
+            double startLength = tour.length(costFunction);
+            Tour optimized = LinKernighan.of(costFunction).optimize(tour, CancellationToken.withTimeout(300), random);
+
+            assertIsPermutation(n, optimized.getOrder());
+            assertTrue(optimized.length(costFunction) <= startLength + TwoOpt.EPSILON);
+        }
+    }
+
+    @Test
+    public void improvesTwoLevelTour() {
+        Random random = new Random(23);
+        for (int run = 0; run < 20; run++) {
+            int n = 4 + random.nextInt(400);
+            EuclideanCostFunction costFunction = randomCities(n, random);
+            int[] order = InitialTours.random(n, random).getOrder();
+            Tour twoLevelTour = new TwoLevelTour(order);
+            double startLength = twoLevelTour.length(costFunction);
+            new LocalSearch(LinKernighan.of(costFunction)).optimize(twoLevelTour);
+
+            assertIsPermutation(n, twoLevelTour.getOrder());
+            assertTrue(twoLevelTour.length(costFunction) <= startLength + TwoOpt.EPSILON);
+        }
+    }
+
+    private static EuclideanCostFunction randomCities(int n, Random random) {
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int city = 0; city < n; city++) {
+            xs[city] = random.nextDouble() * 10_000;
+            ys[city] = random.nextDouble() * 10_000;
+        }
+        return new EuclideanCostFunction(xs, ys);
+    }
+
+    private static void assertIsPermutation(int n, int[] order) {
+        assertEquals(n, order.length);
+        boolean[] seen = new boolean[n];
+        for (int city : order) {
+            assertFalse(seen[city]);
+            seen[city] = true;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package graphlab.algorithms.travelingsalesmanproblem;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelTwoOptTest {
+
+    private static final int THREADS = 4;
+
+    @Test
+    public void improvesAValidTourWithManyThreads() throws Exception {
+        // enough cities for chunks above the minimum size, so that the parallel rounds run
+        EuclideanCostFunction costFunction = randomCities(12_000, new Random(7));
+        NeighborLists neighborLists = NeighborLists.nearest(costFunction, NeighborLists.DEFAULT_SIZE);
+        ForkJoinPool pool = new ForkJoinPool(THREADS);
+        try {
+            Tour tour = InitialTours.random(costFunction.size(), new Random(7));
+            // the second run starts from the result of the first, and must not make it longer
+            for (int run = 0; run < 2; run++) {
+                double startLength = tour.length(costFunction);
+                List<String> reports = new ArrayList<>();
+                ParallelTwoOpt parallelTwoOpt = new ParallelTwoOpt(costFunction, neighborLists);
+                Tour improved = parallelTwoOpt.optimize(pool, tour, reports::add);
+
+                assertIsPermutation(improved.getOrder());
+                assertTrue(improved.length(costFunction) <= startLength + TwoOpt.EPSILON);
+                // a report for every thread plus the sequential pass
+                assertEquals(THREADS + 1, reports.size());
+                if (run == 0) {
+                    assertTrue(parallelTwoOpt.getMoves() > 0);
+                    assertTrue(improved.length(costFunction) < startLength);
+                }
+                tour = improved;
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    private static EuclideanCostFunction randomCities(int n, Random random) {
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int city = 0; city < n; city++) {
+            xs[city] = random.nextDouble() * 10_000;
+            ys[city] = random.nextDouble() * 10_000;
+        }
+        return new EuclideanCostFunction(xs, ys);
+    }
+
+    private static void assertIsPermutation(int[] order) {
+        boolean[] seen = new boolean[order.length];
+        for (int city : order) {
+            assertFalse(seen[city]);
+            seen[city] = true;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package graphlab.algorithms.travelingsalesmanproblem;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public class TsplibReaderTest {
+
+    private static final String BURMA14 = String.join("\n",
+            "NAME: burma14",
+            "TYPE: TSP",
+            "COMMENT: 14-Staedte in Burma (Zaw Win)",
+            "DIMENSION: 14",
+            "EDGE_WEIGHT_TYPE: GEO",
+            "EDGE_WEIGHT_FORMAT: FUNCTION ",
+            "DISPLAY_DATA_TYPE: COORD_DISPLAY",
+            "NODE_COORD_SECTION",
+            "   1  16.47       96.10",
+            "   2  16.47       94.44",
+            "   3  20.09       92.54",
+            "   4  22.39       93.37",
+            "   5  25.23       97.24",
+            "   6  22.00       96.05",
+            "   7  20.47       97.02",
+            "   8  17.20       96.29",
+            "   9  16.30       97.38",
+            "  10  14.05       98.12",
+            "  11  16.53       97.38",
+            "  12  21.52       95.59",
+            "  13  19.41       97.13",
+            "  14  20.09       94.55",
+            "EOF");
+
+    private static final String BURMA14_OPT_TOUR = String.join("\n",
+            "NAME : burma14.opt.tour",
+            "TYPE : TOUR",
+            "DIMENSION : 14",
+            "TOUR_SECTION",
+            "1 2 14 3 4 5 6 12 7 13 8 11 9 10",
+            "-1",
+            "EOF");
+
+    private static final int BURMA14_OPTIMUM = 3323;
+
+    private static final double[][] MATRIX = {
+            {0, 3, 7, 2, 9},
+            {3, 0, 4, 8, 1},
+            {7, 4, 0, 5, 6},
+            {2, 8, 5, 0, 10},
+            {9, 1, 6, 10, 0}};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readsGeoInstanceAndItsOptimalTour() throws Exception {
+        TspInstance instance = TsplibReader.read(write("burma14.tsp", BURMA14));
+        int[] tour = TsplibReader.readTour(write("burma14.opt.tour", BURMA14_OPT_TOUR));
+
+        assertEquals("burma14", instance.getName());
+        assertEquals(14, instance.size());
+        // the GEO coordinates are latitudes and longitudes, not drawn on the plane
+        assertFalse(instance.isPlanar());
+        assertArrayEquals(new int[]{0, 1, 13, 2, 3, 4, 5, 11, 6, 12, 7, 10, 8, 9}, tour);
+        assertEquals(BURMA14_OPTIMUM, length(instance.getCostFunction(), tour), 0);
+    }
+
+    @Test
+    public void readsExplicitLowerDiagRowInstance() throws Exception {
+        // the numbers don't follow the rows of the triangle, as in many TSPLIB files
+        TspInstance instance = TsplibReader.read(write("m5.tsp", String.join("\n",
+                "NAME : m5",
+                "TYPE : TSP",
+                "DIMENSION : 5",
+                "EDGE_WEIGHT_TYPE : EXPLICIT",
+                "EDGE_WEIGHT_FORMAT : LOWER_DIAG_ROW",
+                "EDGE_WEIGHT_SECTION",
+                " 0 3 0 7 4 0",
+                " 2 8 5 0 9 1 6",
+                " 10 0",
+                "EOF")));
+
+        assertEquals(5, instance.size());
+        assertNull(instance.getXs());
+        assertMatrix(instance.getCostFunction());
+    }
+
+    @Test
+    public void readsAllMatrixFormats() throws Exception {
+        String[] formats = {"FULL_MATRIX", "UPPER_ROW", "LOWER_ROW", "UPPER_DIAG_ROW", "LOWER_DIAG_ROW",
+                "UPPER_COL", "LOWER_COL", "UPPER_DIAG_COL", "LOWER_DIAG_COL"};
+        for (String format : formats) {
+            TspInstance instance = TsplibReader.read(write(format + ".tsp", explicitInstance(format)));
+            assertMatrix(instance.getCostFunction());
+        }
+    }
+
+    @Test
+    public void roundsEuclideanDistances() {
+        double[] xs = {0, 1, 1.5, 3};
+        double[] ys = {0, 1, 0, 4};
+        TsplibCostFunction costFunction = new TsplibCostFunction(TsplibCostFunction.Type.EUC_2D, xs, ys);
+
+        assertEquals(1, costFunction.cost(0, 1), 0);  // 1.414
+        assertEquals(2, costFunction.cost(0, 2), 0);  // 1.5, rounded half up
+        assertEquals(5, costFunction.cost(0, 3), 0);
+        assertEquals(costFunction.cost(1, 3), costFunction.cost(3, 1), 0);
+    }
+
+    @Test
+    public void roundsCeilDistancesUp() {
+        double[] xs = {0, 1, 3};
+        double[] ys = {0, 1, 4};
+        TsplibCostFunction costFunction = new TsplibCostFunction(TsplibCostFunction.Type.CEIL_2D, xs, ys);
+
+        assertEquals(2, costFunction.cost(0, 1), 0);  // 1.414
+        assertEquals(5, costFunction.cost(0, 2), 0);
+    }
+
+    @Test
+    public void roundsPseudoEuclideanDistances() {
+        double[] xs = {0, 10, 30};
+        double[] ys = {0, 0, 10};
+        TsplibCostFunction costFunction = new TsplibCostFunction(TsplibCostFunction.Type.ATT, xs, ys);
+
+        // sqrt(100 / 10) = 3.162 rounds to 3, that is below the distance, so it becomes 4
+        assertEquals(4, costFunction.cost(0, 1), 0);
+        // sqrt(1000 / 10) = 10 exactly
+        assertEquals(10, costFunction.cost(0, 2), 0);
+    }
+
+    @Test
+    public void computesGeographicalDistances() {
+        // DDD.MM coordinates: 16.47 is 16 degrees and 47 minutes
+        double[] xs = {16.47, 16.47, 16.47};
+        double[] ys = {96.10, 94.44, 96.10};
+        TsplibCostFunction costFunction = new TsplibCostFunction(TsplibCostFunction.Type.GEO, xs, ys);
+
+        assertEquals(153, costFunction.cost(0, 1), 0);
+        assertEquals(costFunction.cost(0, 1), costFunction.cost(1, 0), 0);
+        // two cities at the same place are at a distance of 1, as in the formula of TSPLIB
+        assertEquals(1, costFunction.cost(0, 2), 0);
+    }
+
+    @Test(expected = Exception.class)
+    public void rejectsTourWithMissingCities() throws Exception {
+        TsplibReader.readTour(write("short.tour", String.join("\n",
+                "DIMENSION : 3",
+                "TOUR_SECTION",
+                "1 2 -1",
+                "EOF")));
+    }
+
+    @Test(expected = Exception.class)
+    public void rejectsAsymmetricInstance() throws Exception {
+        TsplibReader.read(write("a3.atsp", String.join("\n",
+                "TYPE : ATSP",
+                "DIMENSION : 3",
+                "EDGE_WEIGHT_TYPE : EXPLICIT",
+                "EDGE_WEIGHT_FORMAT : FULL_MATRIX",
+                "EDGE_WEIGHT_SECTION",
+                "0 1 2 3 0 4 5 6 0",
+                "EOF")));
+    }
+
+    /**
+     * writes MATRIX in the given format, a row per line for the row formats and a column per
+     * line for the column formats
+     */
+    private static String explicitInstance(String format) {
+        int n = MATRIX.length;
+        boolean columns = format.endsWith("_COL");
+        StringBuilder builder = new StringBuilder()
+                .append("NAME : ").append(format).append('\n')
+                .append("TYPE : TSP\n")
+                .append("DIMENSION : ").append(n).append('\n')
+                .append("EDGE_WEIGHT_TYPE : EXPLICIT\n")
+                .append("EDGE_WEIGHT_FORMAT : ").append(format).append('\n')
+                .append("EDGE_WEIGHT_SECTION\n");
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (includes(format, i, j)) {
+                    builder.append(' ').append((int) (columns ? MATRIX[j][i] : MATRIX[i][j]));
+                }
+            }
+            builder.append('\n');
+        }
+        return builder.append("EOF\n").toString();
+    }
+
+    /**
+     * @return true if the format writes the cost of row i and column j (of column i and row j
+     * for the column formats)
+     */
+    private static boolean includes(String format, int i, int j) {
+        if (format.equals("FULL_MATRIX")) {
+            return true;
+        }
+        boolean upper = format.startsWith("UPPER");
+        boolean diagonal = format.contains("_DIAG_");
+        if (format.endsWith("_COL")) {
+            // the column i of the upper triangle holds the rows j <= i
+            upper = !upper;
+        }
+        return i == j ? diagonal : upper == (j > i);
+    }
+
+    private static void assertMatrix(CostFunction costFunction) {
+        assertEquals(MATRIX.length, costFunction.size());
+        for (int i = 0; i < MATRIX.length; i++) {
+            for (int j = 0; j < MATRIX.length; j++) {
+                assertEquals(MATRIX[i][j], costFunction.cost(i, j), 0);
+            }
+        }
+    }
+
+    private static double length(CostFunction costFunction, int[] tour) {
+        double length = 0;
+        for (int k = 0; k < tour.length; k++) {
+            length += costFunction.cost(tour[k], tour[(k + 1) % tour.length]);
+        }
+        return length;
+    }
+
+    private Path write(String fileName, String content) throws Exception {
+        Path path = folder.getRoot().toPath().resolve(fileName);
+        Files.write(path, content.getBytes(StandardCharsets.ISO_8859_1));
+        return path;
+    }
+}
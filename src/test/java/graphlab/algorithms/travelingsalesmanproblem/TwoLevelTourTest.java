@@ -0,0 +1,82 @@
+package graphlab.algorithms.travelingsalesmanproblem;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class TwoLevelTourTest {
+
+    @Test
+    public void reversesAsArrayTour() {
+        Random random = new Random(13);
+        for (int run = 0; run < 50; run++) {
+            int n = 1 + random.nextInt(300);
+            int[] order = InitialTours.random(n, random).getOrder();
+            ArrayTour arrayTour = new ArrayTour(order);
+            TwoLevelTour twoLevelTour = new TwoLevelTour(order);
+
+            // enough reversals to split the blocks until the tour is rebuilt, many times
+            for (int move = 0; move < 20 * n; move++) {
+                // a path not wrapping around the end and not longer than the rest of the tour,
+                // that both tours reverse as it is
+                int length = 1 + random.nextInt(Math.max(1, n / 2));
+                int i = random.nextInt(n - length + 1);
+                arrayTour.reverse(i, i + length - 1);
+                twoLevelTour.reverse(i, i + length - 1);
+
+                assertEquals(arrayTour.getCity(i), twoLevelTour.getCity(i));
+                int city = random.nextInt(n);
+                assertEquals(arrayTour.getPosition(city), twoLevelTour.getPosition(city));
+                assertEquals(arrayTour.next(city), twoLevelTour.next(city));
+                assertEquals(arrayTour.previous(city), twoLevelTour.previous(city));
+            }
+            assertSameTour(arrayTour, twoLevelTour);
+        }
+    }
+
+    @Test
+    public void keepsCycleOfArrayTourWithAnyExchange() {
+        Random random = new Random(17);
+        for (int run = 0; run < 50; run++) {
+            int n = 4 + random.nextInt(300);
+            int[] order = InitialTours.random(n, random).getOrder();
+            ArrayTour arrayTour = new ArrayTour(order);
+            TwoLevelTour twoLevelTour = new TwoLevelTour(order);
+
+            for (int move = 0; move < 20 * n; move++) {
+                // the two tours can reverse opposite paths, wrapping around the end or longer
+                // than the rest of the tour: the cycle is the same but it can be read backward,
+                // so the moves are given by the edges they change, as in the local search
+                int a = random.nextInt(n);
+                int c = random.nextInt(n);
+                int b = arrayTour.next(a);
+                int d = arrayTour.next(c);
+                if (c == a || c == b || d == a) {
+                    continue;
+                }
+                arrayTour.exchange(a, b, c, d);
+                twoLevelTour.exchange(a, b, c, d);
+            }
+            boolean sameDirection = arrayTour.next(0) == twoLevelTour.next(0);
+            for (int city = 0; city < n; city++) {
+                assertEquals(city, twoLevelTour.getCity(twoLevelTour.getPosition(city)));
+                assertEquals(arrayTour.next(city), sameDirection ? twoLevelTour.next(city) : twoLevelTour.previous(city));
+                assertEquals(arrayTour.previous(city), sameDirection ? twoLevelTour.previous(city) : twoLevelTour.next(city));
+            }
+        }
+    }
+
+    private static void assertSameTour(ArrayTour arrayTour, TwoLevelTour twoLevelTour) {
+        assertArrayEquals(arrayTour.getOrder(), twoLevelTour.getOrder());
+        for (int position = 0; position < arrayTour.size(); position++) {
+            int city = arrayTour.getCity(position);
+            assertEquals(city, twoLevelTour.getCity(position));
+            assertEquals(position, twoLevelTour.getPosition(city));
+            assertEquals(arrayTour.next(city), twoLevelTour.next(city));
+            assertEquals(arrayTour.previous(city), twoLevelTour.previous(city));
+        }
+    }
+}
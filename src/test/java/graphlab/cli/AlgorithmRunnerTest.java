@@ -0,0 +1,150 @@
+package graphlab.cli;
+
+import graphlab.algorithms.Algorithm;
+import graphlab.datastructures.AdjacencyListGraph;
+import graphlab.datastructures.Node;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class AlgorithmRunnerTest {
+
+    AdjacencyListGraph graph;
+    Node[] nodes;
+
+    /**
+     * two components, 0-1-2 on a line and 3-4 apart, with the starting node in the first
+     */
+    @Before
+    public void createGraph() {
+        graph = new AdjacencyListGraph();
+        nodes = new Node[]{new Node(0, 0, 0), new Node(1, 30, 40), new Node(2, 60, 80),
+                new Node(3, 300, 0), new Node(4, 300, 100)};
+        link(nodes[0], nodes[1]);
+        link(nodes[1], nodes[2]);
+        link(nodes[3], nodes[4]);
+        for (Node node : nodes) {
+            graph.addNode(node);
+        }
+        nodes[0].setStartNode(true);
+    }
+
+    @Test
+    public void dijkstraLeavesOutUnreachableNodes() throws Exception {
+        nodes[4].setTargetNode(true);
+        RunResult result = new AlgorithmRunner(AlgorithmRunner.DEFAULT_TIME_LIMIT_MILLIS, false, true)
+                .run("disconnected", graph, Algorithm.DIJKSTRA);
+
+        assertNull(result.getError());
+        assertTrue(Double.isNaN(result.getCost()));
+        assertFalse(result.getResults().containsKey("path"));
+        assertDistances(result);
+    }
+
+    @Test
+    public void dijkstraFindsReachableTarget() throws Exception {
+        nodes[2].setTargetNode(true);
+        RunResult result = new AlgorithmRunner(AlgorithmRunner.DEFAULT_TIME_LIMIT_MILLIS, false, true)
+                .run("disconnected", graph, Algorithm.DIJKSTRA);
+
+        assertNull(result.getError());
+        assertEquals(nodes[0].getEdges().iterator().next().getCost() * 2, result.getCost(), 0);
+        assertArrayEquals(new int[]{0, 1, 2}, (int[]) result.getResults().get("path"));
+    }
+
+    @Test
+    public void bellmanFordLeavesOutUnreachableNodes() throws Exception {
+        nodes[4].setTargetNode(true);
+        RunResult result = new AlgorithmRunner(AlgorithmRunner.DEFAULT_TIME_LIMIT_MILLIS, false, true)
+                .run("disconnected", graph, Algorithm.BELLMANFORD);
+
+        assertNull(result.getError());
+        assertFalse(result.getResults().containsKey("path"));
+        assertDistances(result);
+    }
+
+    @Test
+    public void dijkstraOnDirectedAcyclicGraphMatchesBellmanFord() throws Exception {
+        Random random = new Random(4);
+        for (int run = 0; run < 20; run++) {
+            // arcs only from lower to higher keys, so the graph has no cycle
+            AdjacencyListGraph dag = randomDirectedGraph(random, 30, false);
+            assertSameDistances(dag);
+        }
+    }
+
+    @Test
+    public void dijkstraOnDirectedCyclicGraphMatchesBellmanFord() throws Exception {
+        Random random = new Random(6);
+        for (int run = 0; run < 20; run++) {
+            AdjacencyListGraph cyclic = randomDirectedGraph(random, 30, true);
+            assertSameDistances(cyclic);
+        }
+    }
+
+    private static AdjacencyListGraph randomDirectedGraph(Random random, int n, boolean withBackArcs) {
+        AdjacencyListGraph directed = new AdjacencyListGraph();
+        for (int key = 0; key < n; key++) {
+            directed.addNode(new Node(key, random.nextInt(500), random.nextInt(500)));
+        }
+        for (int k = 0; k < 3 * n; k++) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            if (a != b) {
+                Node from = directed.getNodes().get(withBackArcs ? a : Math.min(a, b));
+                Node to = directed.getNodes().get(withBackArcs ? b : Math.max(a, b));
+                from.addEdge(to);
+            }
+        }
+        directed.setDirected(true);
+        directed.getNodes().get(0).setStartNode(true);
+        directed.getNodes().get(n - 1).setTargetNode(true);
+        return directed;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void assertSameDistances(AdjacencyListGraph directed) {
+        AlgorithmRunner runner = new AlgorithmRunner(AlgorithmRunner.DEFAULT_TIME_LIMIT_MILLIS, false, true);
+        RunResult dijkstra = runner.run("directed", directed, Algorithm.DIJKSTRA);
+        RunResult bellmanFord = runner.run("directed", directed, Algorithm.BELLMANFORD);
+
+        assertNull(dijkstra.getError());
+        assertEquals(bellmanFord.getCost(), dijkstra.getCost(), 0);
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int[] distance : (List<int[]>) bellmanFord.getResults().get("distances")) {
+            expected.put(distance[0], distance[1]);
+        }
+        // the search stops at the target, so only the nodes it reached are compared
+        for (int[] distance : (List<int[]>) dijkstra.getResults().get("distances")) {
+            assertEquals(expected.get(distance[0]), Integer.valueOf(distance[1]));
+        }
+    }
+
+    /**
+     * checks that only the nodes of the first component have a distance, and that it's not negative
+     */
+    @SuppressWarnings("unchecked")
+    private void assertDistances(RunResult result) {
+        List<int[]> distances = (List<int[]>) result.getResults().get("distances");
+        assertEquals(3, distances.size());
+        for (int[] distance : distances) {
+            assertTrue(distance[0] <= 2);
+            assertTrue(distance[1] >= 0);
+        }
+    }
+
+    private static void link(Node a, Node b) {
+        a.addEdge(b);
+        b.addEdge(a);
+    }
+}
@@ -44,4 +44,11 @@ public class AdjacencyListGraphTest {
         graph.removeNode(node5);
         assertEquals(2, graph.getNodes().size());
     }
+
+    @Test
+    public void removeEdge() throws Exception {
+        graph.removeEdge(node5, graph.getNodes().get(1));
+        assertEquals(1, node5.getEdges().size());
+        assertEquals(2, node5.getEdges().iterator().next().getDestination().getKey());
+    }
 }
\ No newline at end of file
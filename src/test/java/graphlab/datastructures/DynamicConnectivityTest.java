@@ -0,0 +1,100 @@
+package graphlab.datastructures;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DynamicConnectivityTest {
+
+    @Test
+    public void removeTreeEdgeWithReplacement() throws Exception {
+        DynamicConnectivity connectivity = new DynamicConnectivity(4);
+        connectivity.addEdge(0, 1);
+        connectivity.addEdge(1, 2);
+        connectivity.addEdge(2, 3);
+        connectivity.addEdge(3, 0);
+        assertEquals(1, connectivity.getComponentsNumber());
+
+        connectivity.removeEdge(1, 2);
+        assertTrue(connectivity.connected(1, 2));
+        assertEquals(1, connectivity.getComponentsNumber());
+
+        connectivity.removeEdge(3, 0);
+        assertFalse(connectivity.connected(1, 2));
+        assertTrue(connectivity.connected(0, 1));
+        assertTrue(connectivity.connected(2, 3));
+        assertEquals(2, connectivity.getComponentsNumber());
+    }
+
+    @Test
+    public void randomUpdatesMatchRecomputation() throws Exception {
+        Random random = new Random(42);
+        int nodesNumber = 60;
+        DynamicConnectivity connectivity = new DynamicConnectivity(nodesNumber);
+        List<int[]> edges = new ArrayList<>();
+
+        for (int step = 0; step < 3000; step++) {
+            if (edges.isEmpty() || random.nextInt(3) > 0) {
+                int u = random.nextInt(nodesNumber);
+                int v = random.nextInt(nodesNumber);
+                if (connectivity.addEdge(u, v)) {
+                    edges.add(new int[]{u, v});
+                }
+            }
+            else {
+                int[] edge = edges.remove(random.nextInt(edges.size()));
+                assertTrue(connectivity.removeEdge(edge[1], edge[0]));
+            }
+
+            int[] components = components(nodesNumber, edges);
+            for (int k = 0; k < 10; k++) {
+                int u = random.nextInt(nodesNumber);
+                int v = random.nextInt(nodesNumber);
+                assertEquals(components[u] == components[v], connectivity.connected(u, v));
+            }
+            assertEquals(Arrays.stream(components).distinct().count(), connectivity.getComponentsNumber());
+        }
+    }
+
+    @Test
+    public void buildFromGraph() throws Exception {
+        AdjacencyListGraph graph = new AdjacencyListGraph();
+        Node node0 = new Node(0, 0, 0);
+        Node node1 = new Node(1, 10, 0);
+        Node node2 = new Node(2, 20, 0);
+        node0.addEdge(node1);
+        node1.addEdge(node0);
+        graph.addNode(node0);
+        graph.addNode(node1);
+        graph.addNode(node2);
+
+        DynamicConnectivity connectivity = new DynamicConnectivity(graph);
+        assertTrue(connectivity.connected(0, 1));
+        assertFalse(connectivity.connected(1, 2));
+        assertEquals(2, connectivity.getComponentsNumber());
+    }
+
+    private static int[] components(int nodesNumber, List<int[]> edges) {
+        int[] component = new int[nodesNumber];
+        for (int i = 0; i < nodesNumber; i++) {
+            component[i] = i;
+        }
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int[] edge : edges) {
+                int min = Math.min(component[edge[0]], component[edge[1]]);
+                if (component[edge[0]] != min || component[edge[1]] != min) {
+                    component[edge[0]] = min;
+                    component[edge[1]] = min;
+                    changed = true;
+                }
+            }
+        }
+        return component;
+    }
+}
@@ -0,0 +1,71 @@
+package graphlab.datastructures;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SpatialGridTest {
+
+    @Test
+    public void nearestOnALine() throws Exception {
+        double[] xs = {0, 1, 3, 7, 10};
+        double[] ys = {0, 0, 0, 0, 0};
+        SpatialGrid grid = new SpatialGrid(xs, ys);
+        assertArrayEquals(new int[]{1, 0, 3}, grid.nearest(2, 3));
+        assertArrayEquals(new int[]{3, 2, 1, 0}, grid.nearest(4, 10));
+    }
+
+    @Test
+    public void nearestMatchesBruteForce() throws Exception {
+        Random random = new Random(42);
+        int n = 500;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = random.nextInt(1000);
+            ys[i] = random.nextInt(200);
+        }
+        SpatialGrid grid = new SpatialGrid(xs, ys);
+
+        for (int point = 0; point < n; point++) {
+            int[] nearest = grid.nearest(point, 5);
+            assertEquals(5, nearest.length);
+            double kthDistance = distance(xs, ys, point, nearest[4]);
+            int closer = 0;
+            for (int other = 0; other < n; other++) {
+                if (other != point && distance(xs, ys, point, other) < kthDistance) {
+                    closer++;
+                }
+            }
+            // only the other four can be strictly closer than the fifth
+            assertTrue(closer <= 4);
+            for (int k = 1; k < nearest.length; k++) {
+                assertTrue(distance(xs, ys, point, nearest[k - 1]) <= distance(xs, ys, point, nearest[k]));
+            }
+        }
+    }
+
+    @Test
+    public void nearestSkipsRemovedPoints() throws Exception {
+        double[] xs = {0, 1, 3, 7, 10};
+        double[] ys = {0, 0, 0, 0, 0};
+        SpatialGrid grid = new SpatialGrid(xs, ys);
+        grid.remove(1);
+        grid.remove(2);
+        assertEquals(3, grid.size());
+        assertEquals(0, grid.nearest(2));
+        assertEquals(4, grid.nearest(3));
+        assertArrayEquals(new int[]{4, 0}, grid.nearest(3, 3));
+        grid.remove(0);
+        grid.remove(4);
+        assertEquals(-1, grid.nearest(3));
+    }
+
+    private static double distance(double[] xs, double[] ys, int i, int j) {
+        return Math.hypot(xs[i] - xs[j], ys[i] - ys[j]);
+    }
+}